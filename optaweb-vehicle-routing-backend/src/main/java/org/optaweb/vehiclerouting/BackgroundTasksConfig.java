@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Spring configuration of the scheduler that runs short background tasks (writing distances, publishing routes,
+ * batching problem fact changes). Components that need to work in the background submit tasks to this scheduler
+ * instead of starting their own threads. Threads are started lazily when the first task is submitted and the scheduler
+ * is shut down by Spring after the components that use it have been destroyed.
+ */
+@Configuration
+public class BackgroundTasksConfig {
+
+    /**
+     * Name of the background task scheduler bean. Use it as a qualifier because the application context contains
+     * other executors and schedulers (solver executor, WebSocket message broker scheduler).
+     */
+    public static final String BACKGROUND_TASK_SCHEDULER = "backgroundTaskScheduler";
+
+    private static final int POOL_SIZE = 4;
+
+    @Bean(BACKGROUND_TASK_SCHEDULER)
+    ThreadPoolTaskScheduler backgroundTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(POOL_SIZE);
+        scheduler.setThreadNamePrefix("background-");
+        scheduler.setDaemon(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+}
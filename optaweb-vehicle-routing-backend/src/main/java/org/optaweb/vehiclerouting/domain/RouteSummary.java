@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.domain;
+
+import java.util.Objects;
+
+/**
+ * Key figures of a single vehicle's route without the visits and the track.
+ */
+public class RouteSummary {
+
+    private final long vehicleId;
+    private final int visitCount;
+    private final int load;
+    private final Distance distance;
+
+    /**
+     * Create a route summary.
+     *
+     * @param vehicleId ID of the vehicle assigned to the route
+     * @param visitCount number of visits on the route
+     * @param load total demand of the route's visits
+     * @param distance travel time of the whole route (not {@code null})
+     */
+    public RouteSummary(long vehicleId, int visitCount, int load, Distance distance) {
+        if (visitCount < 0) {
+            throw new IllegalArgumentException("Visit count (" + visitCount + ") must not be negative");
+        }
+        this.vehicleId = vehicleId;
+        this.visitCount = visitCount;
+        this.load = load;
+        this.distance = Objects.requireNonNull(distance);
+    }
+
+    public long vehicleId() {
+        return vehicleId;
+    }
+
+    public int visitCount() {
+        return visitCount;
+    }
+
+    /**
+     * Total demand of the route's visits. May exceed the vehicle's capacity.
+     *
+     * @return route load
+     */
+    public int load() {
+        return load;
+    }
+
+    /**
+     * Travel time from the depot through all visits and back to the depot.
+     *
+     * @return route distance (never {@code null})
+     */
+    public Distance distance() {
+        return distance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RouteSummary that = (RouteSummary) o;
+        return vehicleId == that.vehicleId &&
+                visitCount == that.visitCount &&
+                load == that.load &&
+                distance.equals(that.distance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vehicleId, visitCount, load, distance);
+    }
+
+    @Override
+    public String toString() {
+        return "RouteSummary{" +
+                "vehicleId=" + vehicleId +
+                ", visitCount=" + visitCount +
+                ", load=" + load +
+                ", distance=" + distance +
+                '}';
+    }
+}
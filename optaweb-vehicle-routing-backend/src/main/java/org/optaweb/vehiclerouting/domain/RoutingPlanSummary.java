@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Key figures of a {@link RoutingPlan} without locations and tracks. It's cheap to compute and small enough
+ * to be sent to clients that only display totals.
+ */
+public class RoutingPlanSummary {
+
+    private final Distance distance;
+    private final int vehicleCount;
+    private final int visitCount;
+    private final List<RouteSummary> routes;
+
+    /**
+     * Create a routing plan summary.
+     *
+     * @param distance total travel time of all routes (not {@code null})
+     * @param vehicleCount number of vehicles
+     * @param visitCount number of visits
+     * @param routes summaries of vehicle routes (not {@code null})
+     */
+    public RoutingPlanSummary(Distance distance, int vehicleCount, int visitCount, List<RouteSummary> routes) {
+        this.distance = Objects.requireNonNull(distance);
+        this.vehicleCount = vehicleCount;
+        this.visitCount = visitCount;
+        this.routes = new ArrayList<>(Objects.requireNonNull(routes));
+    }
+
+    /**
+     * Summary of an empty routing plan.
+     *
+     * @return empty summary
+     */
+    public static RoutingPlanSummary empty() {
+        return new RoutingPlanSummary(Distance.ZERO, 0, 0, Collections.emptyList());
+    }
+
+    public Distance distance() {
+        return distance;
+    }
+
+    public int vehicleCount() {
+        return vehicleCount;
+    }
+
+    public int visitCount() {
+        return visitCount;
+    }
+
+    /**
+     * Summaries of vehicle routes.
+     *
+     * @return route summaries
+     */
+    public List<RouteSummary> routes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RoutingPlanSummary that = (RoutingPlanSummary) o;
+        return vehicleCount == that.vehicleCount &&
+                visitCount == that.visitCount &&
+                distance.equals(that.distance) &&
+                routes.equals(that.routes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(distance, vehicleCount, visitCount, routes);
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingPlanSummary{" +
+                "distance=" + distance +
+                ", vehicleCount=" + vehicleCount +
+                ", visitCount=" + visitCount +
+                ", routes=" + routes +
+                '}';
+    }
+}
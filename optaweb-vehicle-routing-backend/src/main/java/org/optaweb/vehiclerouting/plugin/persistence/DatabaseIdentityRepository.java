@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Random token that identifies the database. The database has exactly one token, created when the token is first
+ * needed. A new (or deleted and recreated) database gets a new token. Stores that keep data keyed by database IDs
+ * outside of the database use it to detect that the IDs have been issued by a different database.
+ * <p>
+ * Only the file distance store needs the token, so the table is created by this repository instead of being
+ * an entity. Other persistence modes don't get the table.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.persistence", name = "distance-store", havingValue = "file")
+class DatabaseIdentityRepository {
+
+    static final String TABLE = "database_identity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DatabaseIdentityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the database token, create it if the database doesn't have one yet.
+     *
+     * @return database token
+     */
+    long getOrCreateToken() {
+        jdbcTemplate.execute("create table if not exists " + TABLE + " (token bigint not null primary key)");
+        List<Long> tokens = jdbcTemplate.queryForList("select token from " + TABLE, Long.class);
+        if (!tokens.isEmpty()) {
+            return tokens.get(0);
+        }
+        long token = new SecureRandom().nextLong();
+        jdbcTemplate.update("insert into " + TABLE + " (token) values (?)", token);
+        return token;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Packed distance block repository.
+ */
+interface DistanceBlockCrudRepository extends CrudRepository<DistanceBlockEntity, DistanceBlockKey> {
+
+    List<DistanceBlockEntity> findByKeyFromId(long fromId);
+
+    List<DistanceBlockEntity> findByKeyBlockIndex(int blockIndex);
+
+    List<DistanceBlockEntity> findByKeyBlockIndexAndKeyFromIdIn(int blockIndex, Collection<Long> fromIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from DistanceBlockEntity where key.fromId = :fromId")
+    void deleteByFromId(@Param("fromId") long fromId);
+}
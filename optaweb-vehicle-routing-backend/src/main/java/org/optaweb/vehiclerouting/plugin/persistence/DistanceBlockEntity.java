@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Distances from one location to a block of {@value #BLOCK_SIZE} consecutive
+ * {@link DistanceColumnEntity columns}, packed into a single binary column.
+ * <p>
+ * Each distance occupies {@value #CELL_BYTES} bytes at the position of the destination's column index within
+ * the block. Unknown distances are {@code -1}. Blocks are small enough that a whole column (one block of every
+ * origin) can be read and written without transferring whole rows.
+ * <p>
+ * The key is assigned, so the entity tells Spring Data whether it's new. Otherwise saving a new block would merge it
+ * and select it first.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "blockIndex"))
+class DistanceBlockEntity implements Persistable<DistanceBlockKey> {
+
+    static final int BLOCK_SIZE = 64;
+    static final int CELL_BYTES = Long.BYTES;
+
+    @EmbeddedId
+    private DistanceBlockKey key;
+
+    @Column(length = BLOCK_SIZE * CELL_BYTES)
+    private byte[] distances;
+
+    @Transient
+    private boolean isNew = false;
+
+    protected DistanceBlockEntity() {
+        // for JPA
+    }
+
+    DistanceBlockEntity(DistanceBlockKey key) {
+        this.key = key;
+        this.distances = new byte[BLOCK_SIZE * CELL_BYTES];
+        Arrays.fill(distances, (byte) 0xFF); // -1
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public DistanceBlockKey getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Index of the block that holds the cell with the given column index.
+     *
+     * @param columnIndex column index
+     * @return block index
+     */
+    static int blockIndex(int columnIndex) {
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException("Column index (" + columnIndex + ") must not be negative");
+        }
+        return columnIndex / BLOCK_SIZE;
+    }
+
+    DistanceBlockKey getKey() {
+        return key;
+    }
+
+    /**
+     * Distance to the location with the given column index.
+     *
+     * @param columnIndex column index of the destination, must be in this block
+     * @return distance in milliseconds or a negative number if the distance is unknown
+     */
+    long getDistance(int columnIndex) {
+        return ByteBuffer.wrap(distances).getLong(offset(columnIndex));
+    }
+
+    /**
+     * Set distance to the location with the given column index.
+     *
+     * @param columnIndex column index of the destination, must be in this block
+     * @param distance distance in milliseconds
+     */
+    void setDistance(int columnIndex, long distance) {
+        if (distance < 0) {
+            throw new IllegalArgumentException("Distance (" + distance + ") must not be negative");
+        }
+        ByteBuffer.wrap(distances).putLong(offset(columnIndex), distance);
+    }
+
+    /**
+     * Forget the distance to the location with the given column index.
+     *
+     * @param columnIndex column index of the destination, must be in this block
+     */
+    void clearDistance(int columnIndex) {
+        ByteBuffer.wrap(distances).putLong(offset(columnIndex), -1);
+    }
+
+    private int offset(int columnIndex) {
+        if (blockIndex(columnIndex) != key.getBlockIndex()) {
+            throw new IllegalArgumentException(
+                    "Column index (" + columnIndex + ") is not in block " + key.getBlockIndex());
+        }
+        return columnIndex % BLOCK_SIZE * CELL_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "DistanceBlockEntity{" +
+                "key=" + key +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Embeddable;
+
+/**
+ * Composite key for {@link DistanceBlockEntity}.
+ */
+@Embeddable
+class DistanceBlockKey implements Serializable {
+
+    private Long fromId;
+    private Integer blockIndex;
+
+    protected DistanceBlockKey() {
+        // for JPA
+    }
+
+    DistanceBlockKey(long fromId, int blockIndex) {
+        if (blockIndex < 0) {
+            throw new IllegalArgumentException("Block index (" + blockIndex + ") must not be negative");
+        }
+        this.fromId = fromId;
+        this.blockIndex = blockIndex;
+    }
+
+    Long getFromId() {
+        return fromId;
+    }
+
+    Integer getBlockIndex() {
+        return blockIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DistanceBlockKey that = (DistanceBlockKey) o;
+        return fromId.equals(that.fromId) &&
+                blockIndex.equals(that.blockIndex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fromId, blockIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "DistanceBlockKey{" +
+                "fromId=" + fromId +
+                ", blockIndex=" + blockIndex +
+                '}';
+    }
+}
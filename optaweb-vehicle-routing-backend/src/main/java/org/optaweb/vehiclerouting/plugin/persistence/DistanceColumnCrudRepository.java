@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Distance column repository.
+ */
+interface DistanceColumnCrudRepository extends CrudRepository<DistanceColumnEntity, Integer> {
+
+    Optional<DistanceColumnEntity> findByLocationId(long locationId);
+
+    List<DistanceColumnEntity> findByLocationIdIn(Collection<Long> locationIds);
+
+    /**
+     * Columns that have been released by deleted locations and can be reused.
+     *
+     * @return free columns, lowest column index first
+     */
+    List<DistanceColumnEntity> findByLocationIdIsNullOrderByColumnIndex();
+
+    @Query("select coalesce(max(c.columnIndex), -1) from DistanceColumnEntity c")
+    int findMaxColumnIndex();
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Maps a location to its position in {@link DistanceBlockEntity packed distance blocks}.
+ * <p>
+ * When a location is deleted, its cells are cleared and its column is kept without a location. The column index
+ * is then reused for the next new location.
+ * <p>
+ * The column index is assigned, so the entity tells Spring Data whether it's new. Otherwise saving a new column
+ * would merge it and select it first.
+ */
+@Entity
+class DistanceColumnEntity implements Persistable<Integer> {
+
+    @Id
+    private Integer columnIndex;
+
+    @Column(unique = true)
+    private Long locationId;
+
+    @Transient
+    private boolean isNew = false;
+
+    protected DistanceColumnEntity() {
+        // for JPA
+    }
+
+    DistanceColumnEntity(int columnIndex, long locationId) {
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException("Column index (" + columnIndex + ") must not be negative");
+        }
+        this.columnIndex = columnIndex;
+        this.locationId = locationId;
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Integer getId() {
+        return columnIndex;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Put a location in this column.
+     *
+     * @param locationId location ID or {@code null} to release the column
+     */
+    void setLocationId(Long locationId) {
+        this.locationId = locationId;
+    }
+
+    Integer getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * Location in this column.
+     *
+     * @return location ID or {@code null} if the location has been deleted
+     */
+    Long getLocationId() {
+        return locationId;
+    }
+
+    @Override
+    public String toString() {
+        return "DistanceColumnEntity{" +
+                "columnIndex=" + columnIndex +
+                ", locationId=" + locationId +
+                '}';
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.optaweb.vehiclerouting.plugin.persistence;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -31,4 +33,8 @@ interface DistanceCrudRepository extends CrudRepository<DistanceEntity, Distance
     @Transactional
     @Query("delete from DistanceEntity where from_id = :deletedLocationId or to_id = :deletedLocationId")
     void deleteByFromIdOrToId(@Param("deletedLocationId") long deletedLocationId);
+
+    List<DistanceEntity> findByKeyFromId(long fromId);
+
+    List<DistanceEntity> findByKeyToId(long toId);
 }
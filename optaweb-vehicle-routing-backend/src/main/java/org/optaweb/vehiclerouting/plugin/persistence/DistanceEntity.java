@@ -18,18 +18,29 @@ package org.optaweb.vehiclerouting.plugin.persistence;
 
 import java.util.Objects;
 
+import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 /**
  * Distance between two locations that can be persisted.
+ * <p>
+ * Table and column names are explicit because distances are inserted with plain SQL. Distances to a location are
+ * fetched by the destination, which is the second column of the primary key, so it has its own index.
  */
 @Entity
+@Table(name = DistanceEntity.TABLE, indexes = @Index(columnList = DistanceKey.TO_ID_COLUMN))
 class DistanceEntity {
 
+    static final String TABLE = "distance_entity";
+    static final String DISTANCE_COLUMN = "distance";
+
     @EmbeddedId
     private DistanceKey key;
 
+    @Column(name = DISTANCE_COLUMN)
     private Long distance;
 
     protected DistanceEntity() {
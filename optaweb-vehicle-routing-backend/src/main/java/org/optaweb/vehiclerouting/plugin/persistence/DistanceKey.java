@@ -19,6 +19,7 @@ package org.optaweb.vehiclerouting.plugin.persistence;
 import java.io.Serializable;
 import java.util.Objects;
 
+import javax.persistence.Column;
 import javax.persistence.Embeddable;
 
 /**
@@ -27,8 +28,13 @@ import javax.persistence.Embeddable;
 @Embeddable
 class DistanceKey implements Serializable {
 
+    static final String FROM_ID_COLUMN = "from_id";
+    static final String TO_ID_COLUMN = "to_id";
+
     // TODO make it a foreign key to LocationEntity
+    @Column(name = FROM_ID_COLUMN)
     private Long fromId;
+    @Column(name = TO_ID_COLUMN)
     private Long toId;
 
     protected DistanceKey() {
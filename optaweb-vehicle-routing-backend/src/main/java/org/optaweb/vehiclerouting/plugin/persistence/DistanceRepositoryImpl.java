@@ -16,21 +16,41 @@
 
 package org.optaweb.vehiclerouting.plugin.persistence;
 
+import static java.util.stream.Collectors.toMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.optaweb.vehiclerouting.domain.Location;
 import org.optaweb.vehiclerouting.service.distance.DistanceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(prefix = "app.persistence", name = "distance-store", havingValue = "jpa", matchIfMissing = true)
 class DistanceRepositoryImpl implements DistanceRepository {
 
+    // Names are pinned on DistanceEntity and DistanceKey so that they don't depend on the naming strategy.
+    static final String INSERT_SQL = "insert into " + DistanceEntity.TABLE + " ("
+            + DistanceKey.FROM_ID_COLUMN + ", "
+            + DistanceKey.TO_ID_COLUMN + ", "
+            + DistanceEntity.DISTANCE_COLUMN + ") values (?, ?, ?)";
+    static final int BATCH_SIZE = 1000;
+
     private final DistanceCrudRepository distanceRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    DistanceRepositoryImpl(DistanceCrudRepository distanceRepository) {
+    DistanceRepositoryImpl(DistanceCrudRepository distanceRepository, JdbcTemplate jdbcTemplate) {
         this.distanceRepository = distanceRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -39,6 +59,22 @@ class DistanceRepositoryImpl implements DistanceRepository {
         distanceRepository.save(distanceEntity);
     }
 
+    /**
+     * Insert distances using JDBC batches. Unlike {@link DistanceCrudRepository#saveAll(Iterable)}, this doesn't
+     * SELECT each entity before inserting it, so the distances must not be persisted yet.
+     */
+    @Override
+    public void saveDistances(Map<Location, Map<Location, Long>> distances) {
+        List<Object[]> rows = new ArrayList<>();
+        distances.forEach((from, row) -> row.forEach((to, distance) -> rows.add(
+                new Object[] { from.id(), to.id(), distance })));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (preparedStatement, row) -> {
+            preparedStatement.setLong(1, (Long) row[0]);
+            preparedStatement.setLong(2, (Long) row[1]);
+            preparedStatement.setLong(3, (Long) row[2]);
+        });
+    }
+
     @Override
     public long getDistance(Location from, Location to) {
         Optional<DistanceEntity> optional = distanceRepository.findById(new DistanceKey(from.id(), to.id()));
@@ -48,6 +84,36 @@ class DistanceRepositoryImpl implements DistanceRepository {
         return -1;
     }
 
+    @Override
+    public Map<Location, Long> getDistancesFrom(Location from, Collection<Location> destinations) {
+        Map<Long, Location> destinationsById = byId(destinations);
+        Map<Location, Long> distances = new HashMap<>();
+        for (DistanceEntity distanceEntity : distanceRepository.findByKeyFromId(from.id())) {
+            Location destination = destinationsById.get(distanceEntity.getKey().getToId());
+            if (destination != null) {
+                distances.put(destination, distanceEntity.getDistance());
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    public Map<Location, Long> getDistancesTo(Collection<Location> origins, Location to) {
+        Map<Long, Location> originsById = byId(origins);
+        Map<Location, Long> distances = new HashMap<>();
+        for (DistanceEntity distanceEntity : distanceRepository.findByKeyToId(to.id())) {
+            Location origin = originsById.get(distanceEntity.getKey().getFromId());
+            if (origin != null) {
+                distances.put(origin, distanceEntity.getDistance());
+            }
+        }
+        return distances;
+    }
+
+    private static Map<Long, Location> byId(Collection<Location> locations) {
+        return locations.stream().collect(toMap(Location::id, Function.identity()));
+    }
+
     @Override
     public void deleteDistances(Location location) {
         distanceRepository.deleteByFromIdOrToId(location.id());
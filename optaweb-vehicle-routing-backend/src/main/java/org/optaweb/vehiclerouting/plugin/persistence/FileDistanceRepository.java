@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.service.distance.DistanceCalculator;
+import org.optaweb.vehiclerouting.service.distance.DistanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores distances in a memory-mapped file. The file name contains the {@link DistanceCalculator#dataVersion()
+ * data version} of the distance calculator so distances calculated from different routing data are never mixed.
+ * Files of other versions are deleted on startup.
+ * <p>
+ * Distances are keyed by location IDs, which are only meaningful in the database that issued them. The file is
+ * bound to the {@link DatabaseIdentityRepository database token} and discarded when the application runs with
+ * a different database, for example after the database has been deleted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.persistence", name = "distance-store", havingValue = "file")
+class FileDistanceRepository implements DistanceRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDistanceRepository.class);
+    static final String FILE_PREFIX = "distances-";
+    static final String FILE_SUFFIX = ".bin";
+
+    // Reads run in parallel when the distance matrix grows, writes are exclusive.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MappedDistanceTable table;
+
+    @Autowired
+    FileDistanceRepository(
+            PersistenceProperties persistenceProperties,
+            DistanceCalculator distanceCalculator,
+            DatabaseIdentityRepository databaseIdentityRepository) {
+        this(
+                Paths.get(persistenceProperties.getDistanceDir()).toAbsolutePath(),
+                distanceCalculator.dataVersion(),
+                databaseIdentityRepository.getOrCreateToken());
+    }
+
+    FileDistanceRepository(Path distanceDir, String dataVersion, long databaseToken) {
+        Path file = distanceDir.resolve(fileName(dataVersion));
+        try {
+            Files.createDirectories(distanceDir);
+            deleteStaleFiles(distanceDir, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't prepare distance directory " + distanceDir, e);
+        }
+        table = MappedDistanceTable.open(file, databaseToken);
+        logger.info("Loaded {} distances from {}", table.size(), file);
+    }
+
+    static String fileName(String dataVersion) {
+        return FILE_PREFIX + dataVersion.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX;
+    }
+
+    private static void deleteStaleFiles(Path distanceDir, Path currentFile) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(distanceDir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.getFileName().equals(currentFile.getFileName())) {
+                    logger.info("Deleting distances calculated from other routing data: {}", file);
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void saveDistance(Location from, Location to, long distance) {
+        lock.writeLock().lock();
+        try {
+            table.put(from.id(), to.id(), distance);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveDistances(Map<Location, Map<Location, Long>> distances) {
+        lock.writeLock().lock();
+        try {
+            distances.forEach((from, row) -> row.forEach((to, distance) -> table.put(from.id(), to.id(), distance)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getDistance(Location from, Location to) {
+        lock.readLock().lock();
+        try {
+            return table.get(from.id(), to.id());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Location, Long> getDistancesFrom(Location from, Collection<Location> destinations) {
+        Map<Location, Long> distances = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Location to : destinations) {
+                long distance = table.get(from.id(), to.id());
+                if (distance >= 0) {
+                    distances.put(to, distance);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return distances;
+    }
+
+    @Override
+    public Map<Location, Long> getDistancesTo(Collection<Location> origins, Location to) {
+        Map<Location, Long> distances = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Location from : origins) {
+                long distance = table.get(from.id(), to.id());
+                if (distance >= 0) {
+                    distances.put(from, distance);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return distances;
+    }
+
+    @Override
+    public void deleteDistances(Location location) {
+        lock.writeLock().lock();
+        try {
+            table.removeAll(location.id());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            table.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            table.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Open-addressing hash table of distances that lives in a memory-mapped file.
+ * <p>
+ * Lookups go directly to the mapped file so opening an existing table is instant regardless of its size.
+ * Each slot holds the from ID, the to ID and the distance. The distance is stored incremented by one
+ * so that a zero-filled (newly allocated) slot is empty. Not thread-safe.
+ * <p>
+ * Every slot is linked into two lists: the list of distances from its origin and the list of distances to its
+ * destination. List heads are kept in a second hash table of locations stored after the slots. Deleting
+ * a location only walks its own lists instead of scanning the whole table.
+ * <p>
+ * The table is bound to an owner, which is the identity of the database that issued the location IDs.
+ * A file that belongs to a different owner is discarded on open.
+ * <p>
+ * Writes go to the mapped memory and the operating system writes them back to the file. The table is only forced
+ * to the disk when it's closed. The file is a cache, so distances written after the last force may be lost if the
+ * machine crashes. They are calculated again when they are needed.
+ */
+class MappedDistanceTable implements Closeable {
+
+    private static final int MAGIC = 0x4F56_4452;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 48;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_VERSION_OFFSET = 4;
+    private static final int OWNER_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 20;
+    private static final int USED_OFFSET = 24;
+    private static final int LOCATION_CAPACITY_OFFSET = 28;
+    private static final int LOCATIONS_USED_OFFSET = 32;
+
+    private static final int SLOT_BYTES = 32;
+    private static final int TO_OFFSET = 8;
+    private static final int DISTANCE_OFFSET = 16;
+    private static final int NEXT_FROM_OFFSET = 24;
+    private static final int NEXT_TO_OFFSET = 28;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+
+    private static final int LOCATION_BYTES = 24;
+    private static final int LOCATION_STATE_OFFSET = 8;
+    private static final int HEAD_FROM_OFFSET = 12;
+    private static final int HEAD_TO_OFFSET = 16;
+    private static final int LOCATION_EMPTY = 0;
+    private static final int LOCATION_USED = 1;
+    private static final int NONE = -1;
+
+    static final int INITIAL_CAPACITY = 1 << 12;
+    static final int INITIAL_LOCATION_CAPACITY = 1 << 8;
+    // A single mapping can't be larger than 2 GB.
+    static final int MAX_CAPACITY = 1 << 25;
+
+    private final Path file;
+    private final long owner;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int mask;
+    // Number of live entries.
+    private int size;
+    // Number of live and deleted entries. Deleted entries keep probe sequences intact until the table is rehashed.
+    private int used;
+    private int locationCapacity;
+    private int locationMask;
+    private int locationsOffset;
+    // Number of location entries. Entries of deleted locations are kept until the table is rehashed.
+    private int locationsUsed;
+
+    private MappedDistanceTable(Path file, long owner, FileChannel channel, int capacity, int locationCapacity)
+            throws IOException {
+        this.file = file;
+        this.owner = owner;
+        map(channel, capacity, locationCapacity);
+    }
+
+    /**
+     * Open an existing table or create a new empty one if the file doesn't exist, isn't a valid table or belongs
+     * to a different owner.
+     *
+     * @param file table file
+     * @param owner identity of the source of location IDs
+     * @return open table
+     */
+    static MappedDistanceTable open(Path file, long owner) {
+        try {
+            if (Files.exists(file)) {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                int[] capacities = validCapacities(channel, owner);
+                if (capacities != null) {
+                    return new MappedDistanceTable(file, owner, channel, capacities[0], capacities[1]);
+                }
+                channel.close();
+            }
+            FileChannel channel = create(file, owner, INITIAL_CAPACITY, INITIAL_LOCATION_CAPACITY);
+            return new MappedDistanceTable(file, owner, channel, INITIAL_CAPACITY, INITIAL_LOCATION_CAPACITY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open distance file " + file, e);
+        }
+    }
+
+    long get(long fromId, long toId) {
+        int slot = find(fromId, toId);
+        return slot < 0 ? -1 : buffer.getLong(slotOffset(slot) + DISTANCE_OFFSET) - 1;
+    }
+
+    void put(long fromId, long toId, long distance) {
+        if (distance < 0) {
+            throw new IllegalArgumentException("Distance (" + distance + ") must not be negative");
+        }
+        int existing = find(fromId, toId);
+        if (existing >= 0) {
+            buffer.putLong(slotOffset(existing) + DISTANCE_OFFSET, distance + 1);
+            return;
+        }
+        // A new slot may need up to two new location entries.
+        if ((used + 1) * 2L > capacity || (locationsUsed + 2) * 2L > locationCapacity) {
+            rehash(size + 1);
+        }
+        insertNew(fromId, toId, distance + 1);
+        size++;
+        used++;
+        writeCounts();
+    }
+
+    /**
+     * Delete all distances from and to the given location. Only slots that have been linked to the location since
+     * the table was last rehashed are visited.
+     *
+     * @param locationId location ID
+     */
+    void removeAll(long locationId) {
+        int location = findLocation(locationId);
+        if (location < 0) {
+            return;
+        }
+        int offset = locationOffset(location);
+        removeList(buffer.getInt(offset + HEAD_FROM_OFFSET), NEXT_FROM_OFFSET);
+        removeList(buffer.getInt(offset + HEAD_TO_OFFSET), NEXT_TO_OFFSET);
+        buffer.putInt(offset + HEAD_FROM_OFFSET, NONE);
+        buffer.putInt(offset + HEAD_TO_OFFSET, NONE);
+        writeCounts();
+    }
+
+    void clear() {
+        try {
+            channel.close();
+            map(create(file, owner, INITIAL_CAPACITY, INITIAL_LOCATION_CAPACITY),
+                    INITIAL_CAPACITY,
+                    INITIAL_LOCATION_CAPACITY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't clear distance file " + file, e);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void removeList(int head, int nextOffset) {
+        for (int slot = head; slot != NONE; slot = buffer.getInt(slotOffset(slot) + nextOffset)) {
+            int offset = slotOffset(slot);
+            // The slot may have been deleted through the other location's list already.
+            if (buffer.getLong(offset + DISTANCE_OFFSET) != DELETED) {
+                buffer.putLong(offset + DISTANCE_OFFSET, DELETED);
+                size--;
+            }
+        }
+    }
+
+    private int find(long fromId, long toId) {
+        int slot = slot(fromId, toId);
+        while (true) {
+            int offset = slotOffset(slot);
+            long distance = buffer.getLong(offset + DISTANCE_OFFSET);
+            if (distance == EMPTY) {
+                return -1;
+            }
+            if (distance != DELETED
+                    && buffer.getLong(offset) == fromId
+                    && buffer.getLong(offset + TO_OFFSET) == toId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insertNew(long fromId, long toId, long storedDistance) {
+        int slot = slot(fromId, toId);
+        while (buffer.getLong(slotOffset(slot) + DISTANCE_OFFSET) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        int offset = slotOffset(slot);
+        buffer.putLong(offset, fromId);
+        buffer.putLong(offset + TO_OFFSET, toId);
+        buffer.putLong(offset + DISTANCE_OFFSET, storedDistance);
+        int fromLocation = locationOffset(findOrAddLocation(fromId));
+        buffer.putInt(offset + NEXT_FROM_OFFSET, buffer.getInt(fromLocation + HEAD_FROM_OFFSET));
+        buffer.putInt(fromLocation + HEAD_FROM_OFFSET, slot);
+        int toLocation = locationOffset(findOrAddLocation(toId));
+        buffer.putInt(offset + NEXT_TO_OFFSET, buffer.getInt(toLocation + HEAD_TO_OFFSET));
+        buffer.putInt(toLocation + HEAD_TO_OFFSET, slot);
+    }
+
+    private int findLocation(long locationId) {
+        int location = locationSlot(locationId);
+        while (true) {
+            int offset = locationOffset(location);
+            if (buffer.getInt(offset + LOCATION_STATE_OFFSET) == LOCATION_EMPTY) {
+                return -1;
+            }
+            if (buffer.getLong(offset) == locationId) {
+                return location;
+            }
+            location = (location + 1) & locationMask;
+        }
+    }
+
+    private int findOrAddLocation(long locationId) {
+        int location = locationSlot(locationId);
+        while (true) {
+            int offset = locationOffset(location);
+            if (buffer.getInt(offset + LOCATION_STATE_OFFSET) == LOCATION_EMPTY) {
+                buffer.putLong(offset, locationId);
+                buffer.putInt(offset + LOCATION_STATE_OFFSET, LOCATION_USED);
+                buffer.putInt(offset + HEAD_FROM_OFFSET, NONE);
+                buffer.putInt(offset + HEAD_TO_OFFSET, NONE);
+                locationsUsed++;
+                return location;
+            }
+            if (buffer.getLong(offset) == locationId) {
+                return location;
+            }
+            location = (location + 1) & locationMask;
+        }
+    }
+
+    /**
+     * Copy live entries to a new file with enough capacity and replace the current file with it.
+     */
+    private void rehash(int newSize) {
+        MappedByteBuffer oldBuffer = buffer;
+        int oldCapacity = capacity;
+        Set<Long> liveLocations = new HashSet<>();
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int offset = slotOffset(slot);
+            long distance = oldBuffer.getLong(offset + DISTANCE_OFFSET);
+            if (distance != EMPTY && distance != DELETED) {
+                liveLocations.add(oldBuffer.getLong(offset));
+                liveLocations.add(oldBuffer.getLong(offset + TO_OFFSET));
+            }
+        }
+        // Keep the load factor at or below 0.5 to keep probe sequences short.
+        int newCapacity = capacityFor(newSize, INITIAL_CAPACITY);
+        int newLocationCapacity = capacityFor(liveLocations.size() + 2, INITIAL_LOCATION_CAPACITY);
+        Path tmpFile = Paths.get(file + ".tmp");
+        try {
+            FileChannel oldChannel = channel;
+            map(create(tmpFile, owner, newCapacity, newLocationCapacity), newCapacity, newLocationCapacity);
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                int offset = HEADER_BYTES + slot * SLOT_BYTES;
+                long distance = oldBuffer.getLong(offset + DISTANCE_OFFSET);
+                if (distance != EMPTY && distance != DELETED) {
+                    insertNew(oldBuffer.getLong(offset), oldBuffer.getLong(offset + TO_OFFSET), distance);
+                    size++;
+                }
+            }
+            used = size;
+            writeCounts();
+            oldChannel.close();
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't grow distance file " + file, e);
+        }
+    }
+
+    private int capacityFor(int entries, int initialCapacity) {
+        int newCapacity = initialCapacity;
+        while (entries * 2L > newCapacity) {
+            if (newCapacity == MAX_CAPACITY) {
+                throw new IllegalStateException(
+                        "Distance file " + file + " is full (" + size + " distances)");
+            }
+            newCapacity <<= 1;
+        }
+        return newCapacity;
+    }
+
+    private void map(FileChannel channel, int capacity, int locationCapacity) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.locationCapacity = locationCapacity;
+        this.locationMask = locationCapacity - 1;
+        this.locationsOffset = HEADER_BYTES + capacity * SLOT_BYTES;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity, locationCapacity));
+        this.size = buffer.getInt(SIZE_OFFSET);
+        this.used = buffer.getInt(USED_OFFSET);
+        this.locationsUsed = buffer.getInt(LOCATIONS_USED_OFFSET);
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(USED_OFFSET, used);
+        buffer.putInt(LOCATIONS_USED_OFFSET, locationsUsed);
+    }
+
+    private static FileChannel create(Path file, long owner, int capacity, int locationCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        // Mapping beyond the end of the file extends it with zeros, which means all slots are empty.
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity, locationCapacity));
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        header.putLong(OWNER_OFFSET, owner);
+        header.putInt(CAPACITY_OFFSET, capacity);
+        header.putInt(SIZE_OFFSET, 0);
+        header.putInt(USED_OFFSET, 0);
+        header.putInt(LOCATION_CAPACITY_OFFSET, locationCapacity);
+        header.putInt(LOCATIONS_USED_OFFSET, 0);
+        return channel;
+    }
+
+    /**
+     * Capacities of a valid table file.
+     *
+     * @return slot capacity and location capacity or {@code null} if the file isn't a valid table of the owner
+     */
+    private static int[] validCapacities(FileChannel channel, long owner) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return null;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        int capacity = header.getInt(CAPACITY_OFFSET);
+        int locationCapacity = header.getInt(LOCATION_CAPACITY_OFFSET);
+        boolean valid = header.getInt(MAGIC_OFFSET) == MAGIC
+                && header.getInt(FORMAT_VERSION_OFFSET) == FORMAT_VERSION
+                && header.getLong(OWNER_OFFSET) == owner
+                && isValidCapacity(capacity, INITIAL_CAPACITY)
+                && isValidCapacity(locationCapacity, INITIAL_LOCATION_CAPACITY)
+                && channel.size() == fileSize(capacity, locationCapacity);
+        return valid ? new int[] { capacity, locationCapacity } : null;
+    }
+
+    private static boolean isValidCapacity(int capacity, int initialCapacity) {
+        return capacity >= initialCapacity && capacity <= MAX_CAPACITY && Integer.bitCount(capacity) == 1;
+    }
+
+    private static long fileSize(int capacity, int locationCapacity) {
+        return HEADER_BYTES + (long) capacity * SLOT_BYTES + (long) locationCapacity * LOCATION_BYTES;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private int locationOffset(int location) {
+        return locationsOffset + location * LOCATION_BYTES;
+    }
+
+    private int slot(long fromId, long toId) {
+        long hash = (fromId * 31 + toId) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private int locationSlot(long locationId) {
+        long hash = locationId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & locationMask;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.optaweb.vehiclerouting.plugin.persistence.DistanceBlockEntity.blockIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.service.distance.DistanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores distances in {@link DistanceBlockEntity packed blocks}. A block holds the distances from one location to
+ * {@value DistanceBlockEntity#BLOCK_SIZE} destinations addressed by {@link DistanceColumnEntity column indexes}.
+ * <p>
+ * A row (distances from a location) is a few blocks, a column (distances to a location) is one block per origin.
+ * Adding a location therefore reads and writes a number of bytes proportional to the number of locations.
+ * Deleting a location deletes its blocks and clears its column so that the column index can be reused.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.persistence", name = "distance-store", havingValue = "packed")
+class PackedDistanceRepository implements DistanceRepository {
+
+    private final DistanceBlockCrudRepository blockRepository;
+    private final DistanceColumnCrudRepository columnRepository;
+
+    @Autowired
+    PackedDistanceRepository(
+            DistanceBlockCrudRepository blockRepository,
+            DistanceColumnCrudRepository columnRepository) {
+        this.blockRepository = blockRepository;
+        this.columnRepository = columnRepository;
+    }
+
+    @Override
+    @Transactional
+    public void saveDistance(Location from, Location to, long distance) {
+        Map<Location, Long> row = new HashMap<>();
+        row.put(to, distance);
+        Map<Location, Map<Location, Long>> distances = new HashMap<>();
+        distances.put(from, row);
+        saveDistances(distances);
+    }
+
+    @Override
+    @Transactional
+    public void saveDistances(Map<Location, Map<Location, Long>> distances) {
+        Set<Long> destinationIds = distances.values().stream()
+                .flatMap(row -> row.keySet().stream())
+                .map(Location::id)
+                .collect(toSet());
+        if (destinationIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> columnIndexes = allocateColumnIndexes(destinationIds);
+
+        // Load the blocks that will be changed, one query per block index.
+        Map<Integer, Set<Long>> originIdsByBlockIndex = new HashMap<>();
+        distances.forEach((from, row) -> row.keySet().forEach(to -> originIdsByBlockIndex
+                .computeIfAbsent(blockIndex(columnIndexes.get(to.id())), blockIndex -> new HashSet<>())
+                .add(from.id())));
+        Map<DistanceBlockKey, DistanceBlockEntity> blocks = new HashMap<>();
+        originIdsByBlockIndex.forEach((blockIndex, originIds) -> blockRepository
+                .findByKeyBlockIndexAndKeyFromIdIn(blockIndex, originIds)
+                .forEach(block -> blocks.put(block.getKey(), block)));
+
+        distances.forEach((from, row) -> row.forEach((to, distance) -> {
+            int columnIndex = columnIndexes.get(to.id());
+            blocks.computeIfAbsent(new DistanceBlockKey(from.id(), blockIndex(columnIndex)), DistanceBlockEntity::new)
+                    .setDistance(columnIndex, distance);
+        }));
+        blockRepository.saveAll(blocks.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getDistance(Location from, Location to) {
+        Optional<DistanceColumnEntity> column = columnRepository.findByLocationId(to.id());
+        if (!column.isPresent()) {
+            return -1;
+        }
+        int columnIndex = column.get().getColumnIndex();
+        return blockRepository.findById(new DistanceBlockKey(from.id(), blockIndex(columnIndex)))
+                .map(block -> block.getDistance(columnIndex))
+                .orElse(-1L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Location, Long> getDistancesFrom(Location from, Collection<Location> destinations) {
+        Map<Location, Long> distances = new HashMap<>();
+        if (destinations.isEmpty()) {
+            return distances;
+        }
+        Map<Integer, DistanceBlockEntity> blocks = blockRepository.findByKeyFromId(from.id()).stream()
+                .collect(toMap(block -> block.getKey().getBlockIndex(), Function.identity()));
+        if (blocks.isEmpty()) {
+            return distances;
+        }
+        Map<Long, Location> destinationsById = byId(destinations);
+        for (DistanceColumnEntity column : columnRepository.findByLocationIdIn(destinationsById.keySet())) {
+            DistanceBlockEntity block = blocks.get(blockIndex(column.getColumnIndex()));
+            long distance = block == null ? -1 : block.getDistance(column.getColumnIndex());
+            if (distance >= 0) {
+                distances.put(destinationsById.get(column.getLocationId()), distance);
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Location, Long> getDistancesTo(Collection<Location> origins, Location to) {
+        Map<Location, Long> distances = new HashMap<>();
+        if (origins.isEmpty()) {
+            return distances;
+        }
+        Optional<DistanceColumnEntity> column = columnRepository.findByLocationId(to.id());
+        if (!column.isPresent()) {
+            return distances;
+        }
+        int columnIndex = column.get().getColumnIndex();
+        Map<Long, Location> originsById = byId(origins);
+        // Only the block that contains the column is read from each origin's row.
+        for (DistanceBlockEntity block : blockRepository.findByKeyBlockIndexAndKeyFromIdIn(
+                blockIndex(columnIndex),
+                originsById.keySet())) {
+            long distance = block.getDistance(columnIndex);
+            if (distance >= 0) {
+                distances.put(originsById.get(block.getKey().getFromId()), distance);
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    @Transactional
+    public void deleteDistances(Location location) {
+        columnRepository.findByLocationId(location.id()).ifPresent(column -> {
+            // Clear the column before releasing it so that the next location in this column doesn't see
+            // distances of the deleted location.
+            int columnIndex = column.getColumnIndex();
+            List<DistanceBlockEntity> blocks = blockRepository.findByKeyBlockIndex(blockIndex(columnIndex));
+            blocks.forEach(block -> block.clearDistance(columnIndex));
+            blockRepository.saveAll(blocks);
+            column.setLocationId(null);
+            columnRepository.save(column);
+        });
+        blockRepository.deleteByFromId(location.id());
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        blockRepository.deleteAll();
+        columnRepository.deleteAll();
+    }
+
+    /**
+     * Find column indexes of the given locations. Locations that don't have a column index yet get a released
+     * column index if there is one, or a new one.
+     *
+     * @param locationIds location IDs
+     * @return column index by location ID
+     */
+    private Map<Long, Integer> allocateColumnIndexes(Set<Long> locationIds) {
+        Map<Long, Integer> columnIndexes = new HashMap<>();
+        columnRepository.findByLocationIdIn(locationIds)
+                .forEach(column -> columnIndexes.put(column.getLocationId(), column.getColumnIndex()));
+        List<Long> missing = locationIds.stream()
+                .filter(id -> !columnIndexes.containsKey(id))
+                .sorted()
+                .collect(toList());
+        if (missing.isEmpty()) {
+            return columnIndexes;
+        }
+        Iterator<DistanceColumnEntity> freeColumns = columnRepository.findByLocationIdIsNullOrderByColumnIndex()
+                .iterator();
+        int nextIndex = -1;
+        List<DistanceColumnEntity> allocatedColumns = new ArrayList<>(missing.size());
+        for (Long locationId : missing) {
+            DistanceColumnEntity column;
+            if (freeColumns.hasNext()) {
+                column = freeColumns.next();
+                column.setLocationId(locationId);
+            } else {
+                if (nextIndex < 0) {
+                    nextIndex = columnRepository.findMaxColumnIndex() + 1;
+                }
+                column = new DistanceColumnEntity(nextIndex++, locationId);
+            }
+            allocatedColumns.add(column);
+            columnIndexes.put(locationId, column.getColumnIndex());
+        }
+        columnRepository.saveAll(allocatedColumns);
+        return columnIndexes;
+    }
+
+    private static Map<Long, Location> byId(Collection<Location> locations) {
+        return locations.stream().collect(toMap(Location::id, Function.identity()));
+    }
+}
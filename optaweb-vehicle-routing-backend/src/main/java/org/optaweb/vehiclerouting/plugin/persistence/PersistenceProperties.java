@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("app.persistence")
+class PersistenceProperties {
+
+    /**
+     * Where distances between locations are stored.
+     */
+    private DistanceStore distanceStore = DistanceStore.JPA;
+
+    /**
+     * Directory where distance files are stored when using the {@link DistanceStore#FILE FILE} distance store.
+     */
+    private String distanceDir = "local/distances";
+
+    public DistanceStore getDistanceStore() {
+        return distanceStore;
+    }
+
+    public void setDistanceStore(DistanceStore distanceStore) {
+        this.distanceStore = distanceStore;
+    }
+
+    public String getDistanceDir() {
+        return distanceDir;
+    }
+
+    public void setDistanceDir(String distanceDir) {
+        this.distanceDir = distanceDir;
+    }
+
+    public enum DistanceStore {
+        /**
+         * Database table with one row per distance.
+         */
+        JPA,
+        /**
+         * Database table with distances from one location to a block of destinations packed in each row.
+         */
+        PACKED,
+        /**
+         * Memory-mapped file bound to the version of the routing data and to the database.
+         */
+        FILE
+    }
+}
@@ -24,8 +24,11 @@ import org.optaweb.vehiclerouting.service.location.DistanceMatrixRow;
 
 /**
  * Provides distances to {@link PlanningLocation}s by reading from a {@link DistanceMatrixRow}.
+ * <p>
+ * Immutable and safe to call from several threads. Planning clones share it, so move threads of a multithreaded
+ * solver read from the same matrix row concurrently.
  */
-public class DistanceMapImpl implements DistanceMap {
+public final class DistanceMapImpl implements DistanceMap {
 
     private final DistanceMatrixRow distanceMatrixRow;
 
@@ -35,6 +38,6 @@ public class DistanceMapImpl implements DistanceMap {
 
     @Override
     public long distanceTo(PlanningLocation location) {
-        return distanceMatrixRow.distanceTo(location.getId()).millis();
+        return distanceMatrixRow.millisTo(location.getId());
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single-slot mailbox processed by tasks submitted to an executor. Posting never blocks. When a new message is posted
+ * before the previous one has been picked up, the previous message is dropped so only the latest message is processed.
+ * At most one task processes the mailbox at a time so messages are processed in order.
+ *
+ * @param <T> message type
+ */
+class LatestWinsMailbox<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatestWinsMailbox.class);
+
+    private final Consumer<T> consumer;
+    private final Executor executor;
+    private final Object lock = new Object();
+    // guarded by lock
+    private T latest;
+    private boolean scheduled = false;
+    private boolean closed = false;
+
+    /**
+     * Create a mailbox. No task is submitted until the first message is posted.
+     *
+     * @param consumer processes messages on the executor's threads
+     * @param executor runs the tasks that process messages
+     */
+    LatestWinsMailbox(Consumer<T> consumer, Executor executor) {
+        this.consumer = Objects.requireNonNull(consumer);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Post a message, replacing the previous message if it hasn't been picked up yet. Messages posted after the mailbox
+     * has been closed are dropped.
+     *
+     * @param message message
+     */
+    void post(T message) {
+        Objects.requireNonNull(message);
+        synchronized (lock) {
+            if (closed) {
+                logger.debug("Dropping a message posted after closing: {}", message);
+                return;
+            }
+            if (latest != null) {
+                logger.debug("Dropping a superseded message: {}", latest);
+            }
+            latest = message;
+            if (scheduled) {
+                // the running task picks up the message
+                return;
+            }
+            scheduled = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor rejected the mailbox task, processing messages on the calling thread", e);
+            drain();
+        }
+    }
+
+    /**
+     * Wait until all messages posted so far have been processed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (latest != null || scheduled) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Close the mailbox and wait until the message that is being processed (if any) is done. A message that hasn't
+     * been picked up yet is dropped.
+     */
+    void close() {
+        synchronized (lock) {
+            closed = true;
+            latest = null;
+            while (scheduled) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            T message;
+            synchronized (lock) {
+                if (latest == null) {
+                    scheduled = false;
+                    lock.notifyAll();
+                    return;
+                }
+                message = latest;
+                latest = null;
+            }
+            try {
+                consumer.accept(message);
+            } catch (RuntimeException e) {
+                logger.error("Failed to process {}", message, e);
+            }
+        }
+    }
+}
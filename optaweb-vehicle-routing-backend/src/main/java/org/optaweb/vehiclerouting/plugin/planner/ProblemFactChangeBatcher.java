@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Collects problem fact changes and submits them to the solver together.
+ * <p>
+ * The solver restarts its phases and clones the working solution each time it applies problem fact changes.
+ * Changes submitted together are applied in one go, so a burst of changes costs one restart instead of one restart
+ * per change. Changes are submitted in the order they were added:
+ * <ul>
+ * <li>when the batch window elapses after the first change of a batch,</li>
+ * <li>when an explicit batch is {@link #commit() committed},</li>
+ * <li>or when the batch is {@link #flush() flushed}.</li>
+ * </ul>
+ * While an explicit batch is open, changes are only submitted when it's committed.
+ */
+class ProblemFactChangeBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemFactChangeBatcher.class);
+    static final Duration DEFAULT_WINDOW = Duration.ofMillis(50);
+
+    private final Consumer<List<ProblemFactChange<VehicleRoutingSolution>>> submitter;
+    private final long windowNanos;
+    private final TaskScheduler taskScheduler;
+    private final Object lock = new Object();
+    // guarded by lock
+    private List<ProblemFactChange<VehicleRoutingSolution>> pendingChanges = new ArrayList<>();
+    private ScheduledFuture<?> scheduledSubmit;
+    private int openBatches = 0;
+    private boolean closed = false;
+
+    /**
+     * Create a batcher.
+     *
+     * @param submitter submits a list of changes to the solver (called while holding the batcher's lock so that
+     * batches are submitted in order)
+     * @param taskScheduler schedules submitting a batch when its window elapses
+     * @param window how long to collect changes before submitting them, zero submits each change immediately
+     */
+    ProblemFactChangeBatcher(
+            Consumer<List<ProblemFactChange<VehicleRoutingSolution>>> submitter,
+            TaskScheduler taskScheduler,
+            Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Batch window (" + window + ") must not be negative");
+        }
+        this.submitter = Objects.requireNonNull(submitter);
+        this.taskScheduler = Objects.requireNonNull(taskScheduler);
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Add a change to the current batch.
+     *
+     * @param change problem fact change
+     */
+    void add(ProblemFactChange<VehicleRoutingSolution> change) {
+        Objects.requireNonNull(change);
+        synchronized (lock) {
+            pendingChanges.add(change);
+            if (openBatches > 0) {
+                return;
+            }
+            if (windowNanos == 0) {
+                submit();
+            } else if (scheduledSubmit == null && !closed) {
+                scheduleSubmit();
+            }
+        }
+    }
+
+    /**
+     * Open an explicit batch. Changes are held back until all open batches are committed. Batches can be nested.
+     */
+    void begin() {
+        synchronized (lock) {
+            openBatches++;
+        }
+    }
+
+    /**
+     * Commit an explicit batch. When this is the outermost batch, all pending changes are submitted immediately.
+     */
+    void commit() {
+        synchronized (lock) {
+            if (openBatches == 0) {
+                throw new IllegalStateException("There is no batch to commit");
+            }
+            openBatches--;
+            if (openBatches == 0) {
+                submit();
+            }
+        }
+    }
+
+    /**
+     * Submit pending changes without waiting for the batch window to elapse. Does nothing while an explicit batch is
+     * open, the changes will be submitted when it's committed.
+     */
+    void flush() {
+        synchronized (lock) {
+            if (openBatches == 0) {
+                submit();
+            }
+        }
+    }
+
+    /**
+     * Drop pending changes. This is useful when the solver stops and the changes are no longer relevant.
+     */
+    void discard() {
+        synchronized (lock) {
+            if (!pendingChanges.isEmpty()) {
+                logger.debug("Discarding {} pending problem fact changes", pendingChanges.size());
+            }
+            pendingChanges = new ArrayList<>();
+            cancelScheduledSubmit();
+        }
+    }
+
+    /**
+     * Stop scheduling submits. Pending changes are dropped.
+     */
+    void close() {
+        synchronized (lock) {
+            closed = true;
+            discard();
+        }
+    }
+
+    // must hold lock
+    private void scheduleSubmit() {
+        try {
+            scheduledSubmit = taskScheduler.schedule(this::submitScheduled, Instant.now().plusNanos(windowNanos));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Task scheduler rejected the batch submit, submitting changes immediately", e);
+            submit();
+        }
+    }
+
+    private void submitScheduled() {
+        synchronized (lock) {
+            scheduledSubmit = null;
+            if (openBatches == 0) {
+                submit();
+            }
+        }
+    }
+
+    // must hold lock
+    private void submit() {
+        cancelScheduledSubmit();
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        List<ProblemFactChange<VehicleRoutingSolution>> changes = pendingChanges;
+        pendingChanges = new ArrayList<>();
+        logger.debug("Submitting {} problem fact changes", changes.size());
+        try {
+            submitter.accept(changes);
+        } catch (RuntimeException e) {
+            // Adding changes only fails when the solver is broken. That's reported when the next change is added.
+            logger.error("Failed to submit problem fact changes", e);
+        }
+    }
+
+    // must hold lock
+    private void cancelScheduledSubmit() {
+        if (scheduledSubmit != null) {
+            scheduledSubmit.cancel(false);
+            scheduledSubmit = null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Revision of the planning problem. Every modification of the problem (adding or removing a location or a vehicle,
+ * changing vehicle capacity) increases the revision. Each solution carries the revision of the problem it solves,
+ * so an outdated solution can be recognized by comparing its revision with the current one.
+ */
+@Component
+class ProblemRevision {
+
+    private final AtomicLong revision = new AtomicLong();
+
+    /**
+     * Increase the revision.
+     *
+     * @return new revision
+     */
+    long increment() {
+        return revision.incrementAndGet();
+    }
+
+    /**
+     * Current revision.
+     *
+     * @return current revision
+     */
+    long current() {
+        return revision.get();
+    }
+
+    /**
+     * Whether a solution with the given revision is outdated.
+     *
+     * @param solutionRevision revision of the problem that the solution solves
+     * @return true if the problem has been modified since
+     */
+    boolean isOutdated(long solutionRevision) {
+        return solutionRevision < revision.get();
+    }
+}
@@ -17,11 +17,16 @@
 package org.optaweb.vehiclerouting.plugin.planner;
 
 import static java.util.stream.Collectors.toList;
+import static org.optaweb.vehiclerouting.BackgroundTasksConfig.BACKGROUND_TASK_SCHEDULER;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import javax.annotation.PreDestroy;
+
+import org.optaweb.vehiclerouting.BackgroundTasksConfig;
 import org.optaweb.vehiclerouting.domain.Distance;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningDepot;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
@@ -32,12 +37,18 @@ import org.optaweb.vehiclerouting.service.route.ShallowRoute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
  * Converts planning solution to a {@link RouteChangedEvent} and publishes it so that it can be processed by other
  * components that listen for this type of event.
+ * <p>
+ * Listeners may take a long time (routing tracks, sending messages) so events are published asynchronously on
+ * the {@link BackgroundTasksConfig background task scheduler}. If a new solution arrives while the previous event
+ * is still waiting to be published, the waiting event is dropped in favor of the new one. Events with an outdated
+ * {@link ProblemRevision problem revision} are discarded before they reach listeners.
  */
 @Component
 class RouteChangedEventPublisher {
@@ -45,14 +56,22 @@ class RouteChangedEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(RouteChangedEventPublisher.class);
 
     private final ApplicationEventPublisher eventPublisher;
+    private final ProblemRevision problemRevision;
+    private final LatestWinsMailbox<RouteChangedEvent> mailbox;
 
     @Autowired
-    RouteChangedEventPublisher(ApplicationEventPublisher eventPublisher) {
+    RouteChangedEventPublisher(
+            ApplicationEventPublisher eventPublisher,
+            ProblemRevision problemRevision,
+            @Qualifier(BACKGROUND_TASK_SCHEDULER) Executor executor) {
         this.eventPublisher = eventPublisher;
+        this.problemRevision = problemRevision;
+        this.mailbox = new LatestWinsMailbox<>(this::publishIfCurrent, executor);
     }
 
     /**
-     * Publish solution as a {@link RouteChangedEvent}.
+     * Publish solution as a {@link RouteChangedEvent}. The solution is converted to an event on the caller's thread
+     * so the solution can be safely modified after this method returns. The event is published asynchronously.
      *
      * @param solution solution
      */
@@ -66,9 +85,23 @@ class RouteChangedEventPublisher {
                 event.distance(),
                 solution.getScore());
         logger.debug("Routes: {}", event.routes());
+        mailbox.post(event);
+    }
+
+    private void publishIfCurrent(RouteChangedEvent event) {
+        // The problem has changed since the solution was found. A solution of the current problem will follow.
+        if (problemRevision.isOutdated(event.revision())) {
+            logger.debug("Discarding an outdated solution (revision {})", event.revision());
+            return;
+        }
         eventPublisher.publishEvent(event);
     }
 
+    @PreDestroy
+    void close() {
+        mailbox.close();
+    }
+
     /**
      * Convert a planning domain solution to an event that can be published.
      *
@@ -80,6 +113,7 @@ class RouteChangedEventPublisher {
         List<ShallowRoute> routes = routes(solution);
         return new RouteChangedEvent(
                 source,
+                solution.getRevision(),
                 // Turn negative soft score into a positive amount of time.
                 Distance.ofMillis(-solution.getScore().getSoftScore()),
                 vehicleIds(solution),
@@ -95,7 +129,8 @@ class RouteChangedEventPublisher {
     }
 
     /**
-     * Extract routes from the solution. Includes empty routes of vehicles that stay in the depot.
+     * Extract routes from the solution together with their travel time and load. Includes empty routes of vehicles
+     * that stay in the depot.
      *
      * @param solution solution
      * @return one route per vehicle
@@ -113,13 +148,22 @@ class RouteChangedEventPublisher {
                         "Vehicle (id=" + vehicle.getId() + ") is not in the depot. That's not allowed");
             }
             List<Long> visits = new ArrayList<>();
+            long distance = 0;
+            int load = 0;
+            PlanningVisit lastVisit = null;
             for (PlanningVisit visit : vehicle.getFutureVisits()) {
                 if (!solution.getVisitList().contains(visit)) {
                     throw new IllegalArgumentException("Visit (" + visit + ") doesn't exist");
                 }
                 visits.add(visit.getLocation().getId());
+                distance += visit.distanceFromPreviousStandstill();
+                load += visit.getDemand();
+                lastVisit = visit;
+            }
+            if (lastVisit != null) {
+                distance += lastVisit.getLocation().distanceTo(depot.getLocation());
             }
-            routes.add(new ShallowRoute(vehicle.getId(), depot.getId(), visits));
+            routes.add(new ShallowRoute(vehicle.getId(), depot.getId(), visits, Distance.ofMillis(distance), load));
         }
         return routes;
     }
@@ -44,6 +44,7 @@ class RouteOptimizerConfig {
     @Bean
     AsyncListenableTaskExecutor executor() {
         SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        // Runs one solver at a time. Move threads (optaplanner.solver.move-thread-count) are started by the solver.
         executor.setConcurrencyLimit(1);
         return executor;
     }
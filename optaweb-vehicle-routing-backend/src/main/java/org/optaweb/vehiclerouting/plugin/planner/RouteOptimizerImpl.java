@@ -29,6 +29,7 @@ import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory;
 import org.optaweb.vehiclerouting.plugin.planner.domain.SolutionFactory;
+import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
 import org.optaweb.vehiclerouting.service.location.DistanceMatrixRow;
 import org.optaweb.vehiclerouting.service.location.RouteOptimizer;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,21 +39,35 @@ import org.springframework.stereotype.Component;
  * Accumulates vehicles, depots and visits until there's enough data to start the optimization.
  * Solutions are published even if solving hasn't started yet due to missing facts (e.g. no vehicles or no visits).
  * Stops solver when vehicles or visits are reduced to zero.
+ * <p>
+ * Every modification increases the {@link ProblemRevision problem revision}. Published solutions are marked with
+ * the revision they reflect.
+ * <p>
+ * During a {@link #bulkEdit(Runnable) bulk edit}, changes are submitted to the solver together and the solution is
+ * published (or the revision updated) once, when the bulk edit finishes.
  */
 @Component
 class RouteOptimizerImpl implements RouteOptimizer {
 
     private final SolverManager solverManager;
     private final RouteChangedEventPublisher routeChangedEventPublisher;
+    private final ProblemRevision problemRevision;
 
     private final List<PlanningVehicle> vehicles = new ArrayList<>();
     private final List<PlanningVisit> visits = new ArrayList<>();
     private PlanningDepot depot;
+    private int openBulkEdits = 0;
+    private boolean publishDeferred = false;
+    private boolean revisionUpdateDeferred = false;
 
     @Autowired
-    RouteOptimizerImpl(SolverManager solverManager, RouteChangedEventPublisher routeChangedEventPublisher) {
+    RouteOptimizerImpl(
+            SolverManager solverManager,
+            RouteChangedEventPublisher routeChangedEventPublisher,
+            ProblemRevision problemRevision) {
         this.solverManager = solverManager;
         this.routeChangedEventPublisher = routeChangedEventPublisher;
+        this.problemRevision = problemRevision;
     }
 
     @Override
@@ -60,6 +75,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
         PlanningLocation location = PlanningLocationFactory.fromDomain(
                 domainLocation,
                 new DistanceMapImpl(distanceMatrixRow));
+        problemRevision.increment();
         // Unfortunately can't start solver with an empty solution (see https://issues.redhat.com/browse/PLANNER-776)
         if (depot == null) {
             depot = new PlanningDepot(location);
@@ -70,9 +86,10 @@ class RouteOptimizerImpl implements RouteOptimizer {
             if (vehicles.isEmpty()) {
                 publishSolution();
             } else if (visits.size() == 1) {
-                solverManager.startSolver(SolutionFactory.solutionFromVisits(vehicles, depot, visits));
+                startSolver();
             } else {
                 solverManager.addVisit(visit);
+                updateRevision();
             }
         }
     }
@@ -88,6 +105,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
                 throw new IllegalArgumentException("Cannot remove " + domainLocation + " because it doesn't exist");
             }
             depot = null;
+            problemRevision.increment();
             publishSolution();
         } else {
             if (depot.getId() == domainLocation.id()) {
@@ -96,6 +114,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
             if (!visits.removeIf(item -> item.getId() == domainLocation.id())) {
                 throw new IllegalArgumentException("Cannot remove " + domainLocation + " because it doesn't exist");
             }
+            problemRevision.increment();
             if (vehicles.isEmpty()) { // solver is not running
                 publishSolution();
             } else if (visits.isEmpty()) { // solver is running
@@ -105,6 +124,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
                 // TODO maybe allow removing location by ID (only require the necessary information)
                 solverManager.removeVisit(
                         PlanningVisitFactory.fromLocation(PlanningLocationFactory.fromDomain(domainLocation)));
+                updateRevision();
             }
         }
     }
@@ -114,12 +134,14 @@ class RouteOptimizerImpl implements RouteOptimizer {
         PlanningVehicle vehicle = PlanningVehicleFactory.fromDomain(domainVehicle);
         vehicle.setDepot(depot);
         vehicles.add(vehicle);
+        problemRevision.increment();
         if (visits.isEmpty()) {
             publishSolution();
         } else if (vehicles.size() == 1) {
-            solverManager.startSolver(SolutionFactory.solutionFromVisits(vehicles, depot, visits));
+            startSolver();
         } else {
             solverManager.addVehicle(vehicle);
+            updateRevision();
         }
     }
 
@@ -128,6 +150,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
         if (!vehicles.removeIf(vehicle -> vehicle.getId() == domainVehicle.id())) {
             throw new IllegalArgumentException("Cannot remove " + domainVehicle + " because it doesn't exist");
         }
+        problemRevision.increment();
         if (visits.isEmpty()) { // solver is not running
             publishSolution();
         } else if (vehicles.isEmpty()) { // solver is running
@@ -135,6 +158,7 @@ class RouteOptimizerImpl implements RouteOptimizer {
             publishSolution();
         } else {
             solverManager.removeVehicle(PlanningVehicleFactory.fromDomain(domainVehicle));
+            updateRevision();
         }
     }
 
@@ -146,18 +170,41 @@ class RouteOptimizerImpl implements RouteOptimizer {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Cannot change capacity of " + domainVehicle + " because it doesn't exist"));
         vehicle.setCapacity(domainVehicle.capacity());
+        problemRevision.increment();
         if (!visits.isEmpty()) {
             solverManager.changeCapacity(vehicle);
+            updateRevision();
         } else {
             publishSolution();
         }
     }
 
+    @Override
+    public void bulkEdit(Runnable edits) {
+        openBulkEdits++;
+        solverManager.beginChanges();
+        try {
+            edits.run();
+        } finally {
+            solverManager.commitChanges();
+            openBulkEdits--;
+            if (openBulkEdits == 0) {
+                finishBulkEdit();
+            }
+        }
+    }
+
+    @Override
+    public void runWhenChangesApplied(Runnable callback) {
+        solverManager.runWhenChangesApplied(callback);
+    }
+
     @Override
     public void removeAllLocations() {
         solverManager.stopSolver();
         depot = null;
         visits.clear();
+        problemRevision.increment();
         publishSolution();
     }
 
@@ -165,10 +212,53 @@ class RouteOptimizerImpl implements RouteOptimizer {
     public void removeAllVehicles() {
         solverManager.stopSolver();
         vehicles.clear();
+        problemRevision.increment();
         publishSolution();
     }
 
+    private void finishBulkEdit() {
+        boolean publish = publishDeferred;
+        boolean updateRevision = revisionUpdateDeferred;
+        publishDeferred = false;
+        revisionUpdateDeferred = false;
+        if (isSolverRunning()) {
+            // The solver publishes solutions on its own.
+            if (updateRevision) {
+                updateRevision();
+            }
+        } else if (publish) {
+            publishSolution();
+        }
+    }
+
+    private void startSolver() {
+        solverManager.startSolver(currentSolution());
+    }
+
+    private void updateRevision() {
+        if (openBulkEdits > 0) {
+            revisionUpdateDeferred = true;
+            return;
+        }
+        solverManager.updateRevision(problemRevision.current());
+    }
+
     private void publishSolution() {
-        routeChangedEventPublisher.publishSolution(SolutionFactory.solutionFromVisits(vehicles, depot, visits));
+        if (openBulkEdits > 0) {
+            publishDeferred = true;
+            return;
+        }
+        routeChangedEventPublisher.publishSolution(currentSolution());
+    }
+
+    private boolean isSolverRunning() {
+        // The solver starts when both vehicles and visits are added and stops when either is removed.
+        return !vehicles.isEmpty() && !visits.isEmpty();
+    }
+
+    private VehicleRoutingSolution currentSolution() {
+        VehicleRoutingSolution solution = SolutionFactory.solutionFromVisits(vehicles, depot, visits);
+        solution.setRevision(problemRevision.current());
+        return solution;
     }
 }
@@ -16,9 +16,15 @@
 
 package org.optaweb.vehiclerouting.plugin.planner;
 
+import static org.optaweb.vehiclerouting.BackgroundTasksConfig.BACKGROUND_TASK_SCHEDULER;
+
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 
+import javax.annotation.PreDestroy;
+
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
 import org.optaplanner.core.api.solver.event.SolverEventListener;
@@ -27,6 +33,8 @@ import org.optaweb.vehiclerouting.plugin.planner.change.AddVisit;
 import org.optaweb.vehiclerouting.plugin.planner.change.ChangeVehicleCapacity;
 import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVisit;
+import org.optaweb.vehiclerouting.plugin.planner.change.RunCallback;
+import org.optaweb.vehiclerouting.plugin.planner.change.SetRevision;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
 import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
@@ -34,8 +42,10 @@ import org.optaweb.vehiclerouting.service.error.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.util.concurrent.ListenableFuture;
 
@@ -46,7 +56,8 @@ import org.springframework.util.concurrent.ListenableFuture;
  * <ul>
  * <li>Starts solver by running {@link Solver#solve(Object problem)} in a thread that's not the caller's thread.</li>
  * <li>Stops the solver (synchronously).</li>
- * <li>Adds problem fact changes to the solver.</li>
+ * <li>Adds problem fact changes to the solver. Changes are {@link ProblemFactChangeBatcher batched} so that a burst
+ * of changes restarts the solver only once.</li>
  * <li>Propagates any exception that happens in {@code Solver.solver()} (in a different thread) to the thread that
  * interacts with {@code SolverManager}.</li>
  * <li>Listens for best solution changes and publishes new best solutions via {@link RouteChangedEventPublisher}.</li>
@@ -62,6 +73,9 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
     private final RouteChangedEventPublisher routeChangedEventPublisher;
     private final ApplicationEventPublisher eventPublisher;
 
+    private final ProblemFactChangeBatcher changeBatcher;
+    private final Queue<RunCallback> pendingCallbacks = new ConcurrentLinkedQueue<>();
+
     private ListenableFuture<VehicleRoutingSolution> solverFuture;
 
     @Autowired
@@ -69,11 +83,16 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
             Solver<VehicleRoutingSolution> solver,
             AsyncListenableTaskExecutor executor,
             RouteChangedEventPublisher routeChangedEventPublisher,
-            ApplicationEventPublisher eventPublisher) {
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier(BACKGROUND_TASK_SCHEDULER) TaskScheduler taskScheduler) {
         this.solver = solver;
         this.executor = executor;
         this.routeChangedEventPublisher = routeChangedEventPublisher;
         this.eventPublisher = eventPublisher;
+        this.changeBatcher = new ProblemFactChangeBatcher(
+                solver::addProblemFactChanges,
+                taskScheduler,
+                ProblemFactChangeBatcher.DEFAULT_WINDOW);
         this.solver.addEventListener(this);
     }
 
@@ -89,7 +108,8 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
         // TODO Race condition, if a servlet thread deletes that location in the middle of this method happening
         //      on the solver thread. Make sure that location is still in the repository.
         //      Maybe repair the solution OR ignore if it's inconsistent (log a WARNING).
-        routeChangedEventPublisher.publishSolution(bestSolutionChangedEvent.getNewBestSolution()); // TODO @Async
+        // Only converts the solution to an event. The event is published asynchronously.
+        routeChangedEventPublisher.publishSolution(bestSolutionChangedEvent.getNewBestSolution());
     }
 
     void startSolver(VehicleRoutingSolution solution) {
@@ -117,15 +137,20 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
     void stopSolver() {
         if (solverFuture != null) {
             // TODO what happens if solver hasn't started yet (solve() is called asynchronously)
+            // Changes that haven't been submitted yet are already reflected in the problem of the next solver run.
+            changeBatcher.discard();
             solver.terminateEarly();
             // make sure solver has terminated and propagate exceptions
             try {
                 solverFuture.get();
                 solverFuture = null;
+                runPendingCallbacks();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Failed to stop solver", e);
             } catch (ExecutionException e) {
+                // The solver thread has finished so it's safe to run callbacks.
+                runPendingCallbacks();
                 // Skipping the wrapper ExecutionException because it only tells that the problem occurred
                 // in solverFuture.get() but that's obvious.
                 throw new RuntimeException("Failed to stop solver", e.getCause());
@@ -133,6 +158,20 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
         }
     }
 
+    @PreDestroy
+    void close() {
+        changeBatcher.close();
+    }
+
+    private void runPendingCallbacks() {
+        // The solver won't process the remaining problem fact changes. It doesn't hold the working solution anymore
+        // so it's safe to run the callbacks now.
+        RunCallback callback;
+        while ((callback = pendingCallbacks.poll()) != null) {
+            callback.run();
+        }
+    }
+
     private void assertSolverIsAlive() {
         if (solverFuture == null) {
             throw new IllegalStateException("Solver has not started yet");
@@ -154,27 +193,71 @@ class SolverManager implements SolverEventListener<VehicleRoutingSolution> {
 
     void addVisit(PlanningVisit visit) {
         assertSolverIsAlive();
-        solver.addProblemFactChange(new AddVisit(visit));
+        changeBatcher.add(new AddVisit(visit));
     }
 
     void removeVisit(PlanningVisit visit) {
         assertSolverIsAlive();
-        solver.addProblemFactChange(new RemoveVisit(visit));
+        changeBatcher.add(new RemoveVisit(visit));
     }
 
     void addVehicle(PlanningVehicle vehicle) {
         assertSolverIsAlive();
-        solver.addProblemFactChange(new AddVehicle(vehicle));
+        changeBatcher.add(new AddVehicle(vehicle));
     }
 
     void removeVehicle(PlanningVehicle vehicle) {
         assertSolverIsAlive();
-        solver.addProblemFactChange(new RemoveVehicle(vehicle));
+        changeBatcher.add(new RemoveVehicle(vehicle));
     }
 
     void changeCapacity(PlanningVehicle vehicle) {
         assertSolverIsAlive();
-        solver.addProblemFactChange(new ChangeVehicleCapacity(vehicle));
+        changeBatcher.add(new ChangeVehicleCapacity(vehicle));
+    }
+
+    /**
+     * Mark solutions with the given revision once the solver has applied all problem fact changes submitted so far.
+     *
+     * @param revision problem revision
+     */
+    void updateRevision(long revision) {
+        assertSolverIsAlive();
+        changeBatcher.add(new SetRevision(revision));
+    }
+
+    /**
+     * Hold back problem fact changes until {@link #commitChanges()} is called. Calls can be nested.
+     */
+    void beginChanges() {
+        changeBatcher.begin();
+    }
+
+    /**
+     * Submit problem fact changes held back since {@link #beginChanges()} together.
+     */
+    void commitChanges() {
+        changeBatcher.commit();
+    }
+
+    /**
+     * Run the callback once the solver has applied all problem fact changes submitted so far. Runs the callback
+     * immediately if the solver is not running. Pending changes are submitted right away unless they are held back
+     * by {@link #beginChanges()}.
+     *
+     * @param callback callback that will run on the solver thread or on the caller's thread
+     */
+    void runWhenChangesApplied(Runnable callback) {
+        if (solverFuture == null) {
+            callback.run();
+            return;
+        }
+        assertSolverIsAlive();
+        pendingCallbacks.removeIf(RunCallback::isDone);
+        RunCallback change = new RunCallback(callback);
+        pendingCallbacks.add(change);
+        changeBatcher.add(change);
+        changeBatcher.flush();
     }
 
     /**
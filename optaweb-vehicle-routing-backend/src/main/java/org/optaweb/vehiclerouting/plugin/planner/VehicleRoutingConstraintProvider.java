@@ -16,12 +16,11 @@
 
 package org.optaweb.vehiclerouting.plugin.planner;
 
-import static org.optaplanner.core.api.score.stream.ConstraintCollectors.sum;
-
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import org.optaplanner.core.api.score.stream.Constraint;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
 
 public class VehicleRoutingConstraintProvider implements ConstraintProvider {
@@ -36,13 +35,13 @@ public class VehicleRoutingConstraintProvider implements ConstraintProvider {
     }
 
     Constraint vehicleCapacity(ConstraintFactory constraintFactory) {
-        return constraintFactory.from(PlanningVisit.class)
-                .groupBy(PlanningVisit::getVehicle, sum(PlanningVisit::getDemand))
-                .filter((vehicle, demand) -> demand > vehicle.getCapacity())
+        // Vehicle load is a shadow variable kept up to date by VehicleLoadUpdatingVariableListener.
+        return constraintFactory.from(PlanningVehicle.class)
+                .filter(vehicle -> vehicle.getLoad() > vehicle.getCapacity())
                 .penalizeLong(
                         "vehicle capacity",
                         HardSoftLongScore.ONE_HARD,
-                        (vehicle, demand) -> demand - vehicle.getCapacity());
+                        vehicle -> vehicle.getLoad() - vehicle.getCapacity());
     }
 
     Constraint distanceFromPreviousStandstill(ConstraintFactory constraintFactory) {
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.change;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
+
+/**
+ * Doesn't change the working solution. Runs a callback on the solver thread once all problem fact changes submitted
+ * before this one have been applied to the working solution.
+ */
+public class RunCallback implements ProblemFactChange<VehicleRoutingSolution> {
+
+    private final Runnable callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    public RunCallback(Runnable callback) {
+        this.callback = Objects.requireNonNull(callback);
+    }
+
+    @Override
+    public void doChange(ScoreDirector<VehicleRoutingSolution> scoreDirector) {
+        run();
+    }
+
+    /**
+     * Run the callback unless it has already run. This is useful when the solver terminates before processing
+     * this change.
+     */
+    public void run() {
+        if (done.compareAndSet(false, true)) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Whether the callback has already run.
+     *
+     * @return true if the callback has run
+     */
+    public boolean isDone() {
+        return done.get();
+    }
+}
@@ -17,7 +17,8 @@
 package org.optaweb.vehiclerouting.plugin.planner.domain;
 
 /**
- * Contains travel distances from a reference location to other locations.
+ * Contains travel distances from a reference location to other locations. Implementations must be thread-safe
+ * because move threads of a multithreaded solver call them concurrently.
  */
 @FunctionalInterface
 public interface DistanceMap {
@@ -18,6 +18,11 @@ package org.optaweb.vehiclerouting.plugin.planner.domain;
 
 import java.util.Objects;
 
+/**
+ * Location of a depot or a visit. It's a problem fact, so it's not planning-cloned: all clones of the solution,
+ * including the working solutions of move threads, share the same instance. That's why it must stay immutable
+ * and its {@link DistanceMap} must be thread-safe.
+ */
 public class PlanningLocation {
 
     private final long id;
@@ -19,8 +19,12 @@ package org.optaweb.vehiclerouting.plugin.planner.domain;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.variable.CustomShadowVariable;
+import org.optaplanner.core.api.domain.variable.PlanningVariableReference;
 
+@PlanningEntity
 public class PlanningVehicle implements Standstill {
 
     @PlanningId
@@ -30,6 +34,10 @@ public class PlanningVehicle implements Standstill {
 
     // Shadow variables
     private PlanningVisit nextVisit;
+    // Total demand of all visits on this vehicle's route.
+    @CustomShadowVariable(variableListenerRef = @PlanningVariableReference(
+            entityClass = PlanningVisit.class, variableName = "cumulativeLoad"))
+    private int load;
 
     PlanningVehicle() {
         // Hide public constructor in favor of the factory.
@@ -59,6 +67,14 @@ public class PlanningVehicle implements Standstill {
         this.depot = depot;
     }
 
+    public int getLoad() {
+        return load;
+    }
+
+    public void setLoad(int load) {
+        this.load = load;
+    }
+
     @Override
     public PlanningVisit getNextVisit() {
         return nextVisit;
@@ -19,8 +19,10 @@ package org.optaweb.vehiclerouting.plugin.planner.domain;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.variable.AnchorShadowVariable;
+import org.optaplanner.core.api.domain.variable.CustomShadowVariable;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 import org.optaplanner.core.api.domain.variable.PlanningVariableGraphType;
+import org.optaplanner.core.api.domain.variable.PlanningVariableReference;
 import org.optaweb.vehiclerouting.plugin.planner.weight.DepotAngleVisitDifficultyWeightFactory;
 
 @PlanningEntity(difficultyWeightFactoryClass = DepotAngleVisitDifficultyWeightFactory.class)
@@ -40,6 +42,14 @@ public class PlanningVisit implements Standstill {
     private PlanningVisit nextVisit;
     @AnchorShadowVariable(sourceVariableName = "previousStandstill")
     private PlanningVehicle vehicle;
+    // Total demand of this visit and all visits before it on the same route.
+    // The anchor is a source so that it's up to date when the listener runs.
+    @CustomShadowVariable(
+            variableListenerClass = VehicleLoadUpdatingVariableListener.class,
+            sources = {
+                    @PlanningVariableReference(variableName = "previousStandstill"),
+                    @PlanningVariableReference(variableName = "vehicle") })
+    private int cumulativeLoad;
 
     PlanningVisit() {
         // Hide public constructor in favor of the factory.
@@ -96,6 +106,14 @@ public class PlanningVisit implements Standstill {
         this.vehicle = vehicle;
     }
 
+    public int getCumulativeLoad() {
+        return cumulativeLoad;
+    }
+
+    public void setCumulativeLoad(int cumulativeLoad) {
+        this.cumulativeLoad = cumulativeLoad;
+    }
+
     // ************************************************************************
     // Complex methods
     // ************************************************************************
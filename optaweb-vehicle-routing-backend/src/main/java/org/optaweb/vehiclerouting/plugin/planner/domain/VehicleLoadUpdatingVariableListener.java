@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.domain;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.optaplanner.core.api.domain.variable.VariableListener;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+/**
+ * Keeps {@link PlanningVisit#getCumulativeLoad() cumulative loads} of visits and {@link PlanningVehicle#getLoad()
+ * loads} of vehicles up to date when visits move between routes.
+ * <p>
+ * The cumulative load of a changed visit starts from the cumulative load of its previous standstill. Visits after it
+ * are updated until the walk reaches a visit whose cumulative load hasn't changed. Visits after that one are either
+ * up to date or they have changed too and will be updated by their own notification. Visits before the changed visit
+ * are never walked. A vehicle's load is the cumulative load of its last visit, so it's updated when the walk reaches
+ * the end of the route.
+ * <p>
+ * When a visit leaves a route, the standstill before it is only known before the change. It's remembered and if it
+ * has become the end of its route, the route's vehicle load is updated after the change.
+ * <p>
+ * The listener also reacts to changes of the {@link PlanningVisit#getVehicle() anchor}. That guarantees the anchor is
+ * up to date when the listener runs and it reports the last visit of a chain that has moved to another vehicle.
+ */
+public class VehicleLoadUpdatingVariableListener implements VariableListener<VehicleRoutingSolution, PlanningVisit> {
+
+    private static final String CUMULATIVE_LOAD = "cumulativeLoad";
+    private static final String LOAD = "load";
+
+    // Standstills that may have become the end of a route since the last update.
+    private final Set<Standstill> previousStandstills = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        updateRoute(scoreDirector, visit);
+        updateRouteEnds(scoreDirector);
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        rememberPreviousStandstill(visit);
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        updateRoute(scoreDirector, visit);
+        updateRouteEnds(scoreDirector);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        rememberPreviousStandstill(visit);
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        updateRouteEnds(scoreDirector);
+    }
+
+    private void rememberPreviousStandstill(PlanningVisit visit) {
+        if (visit.getPreviousStandstill() != null) {
+            previousStandstills.add(visit.getPreviousStandstill());
+        }
+    }
+
+    /**
+     * Update cumulative loads from the given visit forward and the vehicle load if the walk reaches the end of the
+     * route.
+     */
+    private static void updateRoute(ScoreDirector<VehicleRoutingSolution> scoreDirector, PlanningVisit visit) {
+        Standstill previousStandstill = visit.getPreviousStandstill();
+        if (previousStandstill == null) {
+            // Not on any route.
+            setCumulativeLoad(scoreDirector, visit, 0);
+            return;
+        }
+        int load = cumulativeLoad(previousStandstill);
+        PlanningVisit shadowVisit = visit;
+        while (true) {
+            load += shadowVisit.getDemand();
+            boolean changed = setCumulativeLoad(scoreDirector, shadowVisit, load);
+            if (shadowVisit.isLast()) {
+                setLoad(scoreDirector, shadowVisit.getVehicle(), load);
+                return;
+            }
+            if (!changed) {
+                return;
+            }
+            shadowVisit = shadowVisit.getNextVisit();
+        }
+    }
+
+    /**
+     * Update loads of vehicles whose route now ends with a remembered standstill.
+     */
+    private void updateRouteEnds(ScoreDirector<VehicleRoutingSolution> scoreDirector) {
+        for (Standstill standstill : previousStandstills) {
+            if (standstill.getNextVisit() != null) {
+                // The route continues, the visit after this standstill has been notified.
+                continue;
+            }
+            if (standstill instanceof PlanningVehicle) {
+                setLoad(scoreDirector, (PlanningVehicle) standstill, 0);
+            } else {
+                PlanningVisit visit = (PlanningVisit) standstill;
+                // A visit without a vehicle has left its route too and is updated by its own notification.
+                if (visit.getVehicle() != null) {
+                    setLoad(scoreDirector, visit.getVehicle(), visit.getCumulativeLoad());
+                }
+            }
+        }
+        previousStandstills.clear();
+    }
+
+    private static int cumulativeLoad(Standstill standstill) {
+        return standstill instanceof PlanningVisit ? ((PlanningVisit) standstill).getCumulativeLoad() : 0;
+    }
+
+    /**
+     * @return true if the cumulative load has changed
+     */
+    private static boolean setCumulativeLoad(
+            ScoreDirector<VehicleRoutingSolution> scoreDirector,
+            PlanningVisit visit,
+            int cumulativeLoad) {
+        if (visit.getCumulativeLoad() == cumulativeLoad) {
+            return false;
+        }
+        scoreDirector.beforeVariableChanged(visit, CUMULATIVE_LOAD);
+        visit.setCumulativeLoad(cumulativeLoad);
+        scoreDirector.afterVariableChanged(visit, CUMULATIVE_LOAD);
+        return true;
+    }
+
+    private static void setLoad(
+            ScoreDirector<VehicleRoutingSolution> scoreDirector,
+            PlanningVehicle vehicle,
+            int load) {
+        if (vehicle.getLoad() != load) {
+            scoreDirector.beforeVariableChanged(vehicle, LOAD);
+            vehicle.setLoad(load);
+            scoreDirector.afterVariableChanged(vehicle, LOAD);
+        }
+    }
+}
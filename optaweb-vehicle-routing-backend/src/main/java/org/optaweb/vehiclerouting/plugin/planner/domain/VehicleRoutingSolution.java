@@ -25,7 +25,7 @@ import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 
-@PlanningSolution
+@PlanningSolution(solutionCloner = VehicleRoutingSolutionCloner.class)
 public class VehicleRoutingSolution {
 
     @ProblemFactCollectionProperty
@@ -38,6 +38,8 @@ public class VehicleRoutingSolution {
     private List<PlanningVisit> visitList;
     @PlanningScore
     private HardSoftLongScore score;
+    // Revision of the problem this solution solves.
+    private long revision;
 
     VehicleRoutingSolution() {
         // Hide public constructor in favor of the factory.
@@ -75,6 +77,14 @@ public class VehicleRoutingSolution {
         this.score = score;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
     @Override
     public String toString() {
         return "VehicleRoutingSolution{" +
@@ -82,6 +92,7 @@ public class VehicleRoutingSolution {
                 ", vehicleList=" + vehicleList +
                 ", visitList=" + visitList +
                 ", score=" + score +
+                ", revision=" + revision +
                 '}';
     }
 }
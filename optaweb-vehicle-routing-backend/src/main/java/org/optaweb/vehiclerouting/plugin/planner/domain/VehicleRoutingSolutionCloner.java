@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.domain;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+
+/**
+ * Planning-clones a {@link VehicleRoutingSolution} without reflection.
+ * <p>
+ * Vehicles and visits are planning entities, so they are cloned. Depots and locations are problem facts that never
+ * change during solving, so the clone shares them with the original. The chains formed by
+ * {@link PlanningVisit#getPreviousStandstill() previous standstill}, {@link Standstill#getNextVisit() next visit}
+ * and the {@link PlanningVisit#getVehicle() anchor vehicle} are rebuilt between the clones in a linear pass.
+ * <p>
+ * Keep this in sync with the fields of the planning entities and the solution.
+ */
+public class VehicleRoutingSolutionCloner implements SolutionCloner<VehicleRoutingSolution> {
+
+    @Override
+    public VehicleRoutingSolution cloneSolution(VehicleRoutingSolution original) {
+        List<PlanningVehicle> originalVehicles = original.getVehicleList();
+        List<PlanningVisit> originalVisits = original.getVisitList();
+        Map<PlanningVehicle, PlanningVehicle> vehicleClones = new IdentityHashMap<>(originalVehicles.size());
+        Map<PlanningVisit, PlanningVisit> visitClones = new IdentityHashMap<>(originalVisits.size());
+
+        // First create all clones so that the chains can point to them.
+        List<PlanningVehicle> vehicles = new ArrayList<>(originalVehicles.size());
+        for (PlanningVehicle originalVehicle : originalVehicles) {
+            PlanningVehicle vehicle = new PlanningVehicle();
+            vehicle.setId(originalVehicle.getId());
+            vehicle.setCapacity(originalVehicle.getCapacity());
+            vehicle.setDepot(originalVehicle.getDepot());
+            vehicle.setLoad(originalVehicle.getLoad());
+            vehicleClones.put(originalVehicle, vehicle);
+            vehicles.add(vehicle);
+        }
+        List<PlanningVisit> visits = new ArrayList<>(originalVisits.size());
+        for (PlanningVisit originalVisit : originalVisits) {
+            PlanningVisit visit = new PlanningVisit();
+            visit.setId(originalVisit.getId());
+            visit.setLocation(originalVisit.getLocation());
+            visit.setDemand(originalVisit.getDemand());
+            visit.setCumulativeLoad(originalVisit.getCumulativeLoad());
+            visitClones.put(originalVisit, visit);
+            visits.add(visit);
+        }
+
+        // Then link the clones the same way the originals are linked.
+        for (int i = 0; i < vehicles.size(); i++) {
+            vehicles.get(i).setNextVisit(cloneOf(visitClones, originalVehicles.get(i).getNextVisit()));
+        }
+        for (int i = 0; i < visits.size(); i++) {
+            PlanningVisit originalVisit = originalVisits.get(i);
+            PlanningVisit visit = visits.get(i);
+            visit.setPreviousStandstill(cloneOf(vehicleClones, visitClones, originalVisit.getPreviousStandstill()));
+            visit.setNextVisit(cloneOf(visitClones, originalVisit.getNextVisit()));
+            visit.setVehicle(cloneOf(vehicleClones, originalVisit.getVehicle()));
+        }
+
+        VehicleRoutingSolution clone = new VehicleRoutingSolution();
+        clone.setDepotList(new ArrayList<>(original.getDepotList()));
+        clone.setVehicleList(vehicles);
+        clone.setVisitList(visits);
+        clone.setScore(original.getScore());
+        clone.setRevision(original.getRevision());
+        return clone;
+    }
+
+    private static Standstill cloneOf(
+            Map<PlanningVehicle, PlanningVehicle> vehicleClones,
+            Map<PlanningVisit, PlanningVisit> visitClones,
+            Standstill original) {
+        if (original instanceof PlanningVehicle) {
+            return cloneOf(vehicleClones, (PlanningVehicle) original);
+        }
+        return cloneOf(visitClones, (PlanningVisit) original);
+    }
+
+    private static <T> T cloneOf(Map<T, T> clones, T original) {
+        if (original == null) {
+            return null;
+        }
+        T clone = clones.get(original);
+        if (clone == null) {
+            throw new IllegalStateException(
+                    "The solution refers to " + original + ", which is missing from the solution's entity lists.");
+        }
+        return clone;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.nearby;
+
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
+import org.optaweb.vehiclerouting.plugin.planner.domain.Standstill;
+
+/**
+ * Measures how close a standstill (a visit or a vehicle in its depot) is to a visit using the distance matrix.
+ * <p>
+ * OptaPlanner asks for the distance from each origin to all destinations once and keeps the destinations sorted
+ * by distance, so local search moves mostly pair an origin with one of its nearest neighbors. Distances come from
+ * the precomputed distance matrix so building that index doesn't query the routing engine.
+ */
+public class VisitNearbyDistanceMeter implements NearbyDistanceMeter<PlanningVisit, Standstill> {
+
+    @Override
+    public double getNearbyDistance(PlanningVisit origin, Standstill destination) {
+        // Moves place the origin right after the destination so the distance from the destination to the origin
+        // is the one that matters. It can differ from the reverse distance on road networks.
+        return destination.getLocation().distanceTo(origin.getLocation());
+    }
+}
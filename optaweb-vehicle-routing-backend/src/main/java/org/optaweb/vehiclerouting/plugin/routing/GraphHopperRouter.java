@@ -18,6 +18,7 @@ package org.optaweb.vehiclerouting.plugin.routing;
 
 import static java.util.stream.Collectors.toList;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.stream.StreamSupport;
 
@@ -34,6 +35,14 @@ import org.springframework.stereotype.Component;
 import com.graphhopper.GHRequest;
 import com.graphhopper.GHResponse;
 import com.graphhopper.reader.osm.GraphHopperOSM;
+import com.graphhopper.routing.util.DefaultEdgeFilter;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.FlagEncoder;
+import com.graphhopper.routing.util.FlagEncoderFactory;
+import com.graphhopper.routing.weighting.FastestWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.storage.index.QueryResult;
 import com.graphhopper.util.PointList;
 import com.graphhopper.util.shapes.BBox;
 
@@ -79,6 +88,73 @@ class GraphHopperRouter implements Router, DistanceCalculator, Region {
         return ghResponse.getBest().getTime();
     }
 
+    @Override
+    public String dataVersion() {
+        // The import date changes whenever the graph is re-imported, for example from an updated OSM file.
+        String importDate = graphHopper.getGraphHopperStorage().getProperties().get("datareader.import.date");
+        return Paths.get(graphHopper.getGraphHopperLocation()).getFileName() + "@" + importDate;
+    }
+
+    @Override
+    public long[] travelTimesMillisFrom(Coordinates from, List<Coordinates> destinations) {
+        return travelTimesMillis(from, destinations, false);
+    }
+
+    @Override
+    public long[] travelTimesMillisTo(List<Coordinates> origins, Coordinates to) {
+        return travelTimesMillis(to, origins, true);
+    }
+
+    /**
+     * Calculate travel times between the root and all the other coordinates with a single shortest path tree
+     * expansion. Coordinates are snapped to the closest graph node, so the result can differ from
+     * {@link #travelTimeMillis(Coordinates, Coordinates)} by the time needed to drive along the edge
+     * from the exact position to the closest node.
+     * <p>
+     * The tree runs on the base graph, not on the CH or LM preparation (see {@link ShortestPathTree}). The weighting
+     * only looks at speed, which is stored for one direction, so one-way restrictions are enforced by the explorer:
+     * the forward tree follows outgoing edges and the reverse tree follows incoming edges.
+     */
+    private long[] travelTimesMillis(Coordinates root, List<Coordinates> others, boolean reverse) {
+        FlagEncoder flagEncoder = graphHopper.getEncodingManager().getEncoder(FlagEncoderFactory.CAR);
+        EdgeFilter edgeFilter = DefaultEdgeFilter.allEdges(flagEncoder);
+        Weighting weighting = new FastestWeighting(flagEncoder);
+        Graph graph = graphHopper.getGraphHopperStorage();
+
+        int rootNode = closestNode(root, edgeFilter);
+        int[] otherNodes = new int[others.size()];
+        for (int i = 0; i < otherNodes.length; i++) {
+            otherNodes[i] = closestNode(others.get(i), edgeFilter);
+        }
+
+        EdgeFilter explorerFilter = reverse
+                ? DefaultEdgeFilter.inEdges(flagEncoder)
+                : DefaultEdgeFilter.outEdges(flagEncoder);
+        ShortestPathTree tree =
+                new ShortestPathTree(graph, weighting, graph.createEdgeExplorer(explorerFilter), reverse);
+        long[] travelTimes = tree.travelTimesMillis(rootNode, otherNodes);
+
+        for (int i = 0; i < travelTimes.length; i++) {
+            if (travelTimes[i] == ShortestPathTree.UNREACHABLE) {
+                Coordinates from = reverse ? others.get(i) : root;
+                Coordinates to = reverse ? root : others.get(i);
+                throw new DistanceCalculationException("No route from " + from + " to " + to);
+            }
+        }
+        return travelTimes;
+    }
+
+    private int closestNode(Coordinates coordinates, EdgeFilter edgeFilter) {
+        QueryResult queryResult = graphHopper.getLocationIndex().findClosest(
+                coordinates.latitude().doubleValue(),
+                coordinates.longitude().doubleValue(),
+                edgeFilter);
+        if (!queryResult.isValid()) {
+            throw new DistanceCalculationException("Cannot find a road near " + coordinates);
+        }
+        return queryResult.getClosestNode();
+    }
+
     @Override
     public BoundingBox getBounds() {
         BBox bounds = graphHopper.getGraphHopperStorage().getBounds();
@@ -26,6 +26,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import org.optaweb.vehiclerouting.Profiles;
+import org.optaweb.vehiclerouting.plugin.routing.RoutingProperties.SpeedMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,9 +35,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
+import com.graphhopper.GraphHopper;
 import com.graphhopper.reader.osm.GraphHopperOSM;
 import com.graphhopper.routing.util.EncodingManager;
 import com.graphhopper.routing.util.FlagEncoderFactory;
+import com.graphhopper.util.CmdArgs;
+import com.graphhopper.util.Parameters;
 
 /**
  * Spring Bean producer that creates a GraphHopper instance and allows to configure the path to OSM file
@@ -46,12 +50,15 @@ import com.graphhopper.routing.util.FlagEncoderFactory;
 class RoutingConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(RoutingConfig.class);
+    private static final String WEIGHTING = "fastest";
 
     private final Path osmDir;
     private final Path osmFile;
     private final String osmDownloadUrl;
     private final Path graphHopperDir;
     private final Path graphDir;
+    private final SpeedMode speedMode;
+    private final int landmarks;
 
     @Autowired
     RoutingConfig(RoutingProperties routingProperties) {
@@ -59,8 +66,22 @@ class RoutingConfig {
         osmFile = osmDir.resolve(routingProperties.getOsmFile()).toAbsolutePath();
         osmDownloadUrl = routingProperties.getOsmDownloadUrl();
         graphHopperDir = Paths.get(routingProperties.getGhDir());
+        speedMode = routingProperties.getSpeedMode();
+        landmarks = routingProperties.getLandmarks();
         String regionName = routingProperties.getOsmFile().replaceFirst("\\.osm\\.pbf$", "");
-        graphDir = graphHopperDir.resolve(regionName).toAbsolutePath();
+        graphDir = graphHopperDir.resolve(graphDirName(regionName, speedMode)).toAbsolutePath();
+    }
+
+    /**
+     * Each speed mode needs a different preparation so each gets its own graph directory. CH graphs stay in
+     * the original location for compatibility with graphs imported before the speed mode was configurable.
+     *
+     * @param regionName region name
+     * @param speedMode speed mode
+     * @return name of the directory where the graph is stored
+     */
+    static String graphDirName(String regionName, SpeedMode speedMode) {
+        return speedMode == SpeedMode.CH ? regionName : regionName + "-" + speedMode.name().toLowerCase();
     }
 
     /**
@@ -96,11 +117,26 @@ class RoutingConfig {
         }
 
         graphHopper.setEncodingManager(EncodingManager.create(FlagEncoderFactory.CAR));
+        configureSpeedMode(graphHopper, speedMode, landmarks);
         graphHopper.importOrLoad();
         logger.info("GraphHopper graph loaded");
         return graphHopper;
     }
 
+    /**
+     * Enable CH or LM preparation. The preparation runs on import (or on load if the graph hasn't been prepared yet)
+     * and is stored in the graph directory. Route queries use the prepared speed-up automatically.
+     */
+    static void configureSpeedMode(GraphHopper graphHopper, SpeedMode speedMode, int landmarks) {
+        logger.info("Routing speed mode: {}", speedMode);
+        CmdArgs args = new CmdArgs();
+        args.put(Parameters.CH.PREPARE + "weightings", speedMode == SpeedMode.CH ? WEIGHTING : "no");
+        args.put(Parameters.Landmark.PREPARE + "weightings", speedMode == SpeedMode.LM ? WEIGHTING : "");
+        args.put(Parameters.Landmark.PREPARE + "landmarks", landmarks);
+        graphHopper.getCHFactoryDecorator().init(args);
+        graphHopper.getLMFactoryDecorator().init(args);
+    }
+
     private void initDirs() {
         try {
             Files.createDirectories(osmDir);
@@ -17,6 +17,7 @@
 package org.optaweb.vehiclerouting.plugin.routing;
 
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -53,6 +54,17 @@ class RoutingProperties {
      */
     private RoutingEngine engine;
 
+    /**
+     * Speed-up technique used by GraphHopper to answer route queries.
+     */
+    private SpeedMode speedMode = SpeedMode.CH;
+
+    /**
+     * Number of landmarks used by the {@link SpeedMode#LM LM} speed mode.
+     */
+    @Positive
+    private int landmarks = 16;
+
     public String getOsmDir() {
         return osmDir;
     }
@@ -93,8 +105,39 @@ class RoutingProperties {
         this.engine = engine;
     }
 
+    public SpeedMode getSpeedMode() {
+        return speedMode;
+    }
+
+    public void setSpeedMode(SpeedMode speedMode) {
+        this.speedMode = speedMode;
+    }
+
+    public int getLandmarks() {
+        return landmarks;
+    }
+
+    public void setLandmarks(int landmarks) {
+        this.landmarks = landmarks;
+    }
+
     public enum RoutingEngine {
         AIR,
         GRAPHHOPPER
     }
+
+    public enum SpeedMode {
+        /**
+         * No preparation. Queries are answered by a plain bidirectional search on the whole graph.
+         */
+        FLEXIBLE,
+        /**
+         * Contraction hierarchies. Fastest queries, slowest preparation.
+         */
+        CH,
+        /**
+         * Landmarks (ALT). Faster queries than flexible mode, faster preparation than CH.
+         */
+        LM
+    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.routing;
+
+import java.util.Arrays;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+
+/**
+ * Single-source Dijkstra expansion that finds travel times from one root node to many target nodes (or from many
+ * origin nodes to one root node when {@code reverse} is set). The expansion stops as soon as all targets have been
+ * settled so a whole matrix row (or column) costs one search instead of one search per cell.
+ * <p>
+ * The expansion runs on the base graph, not on the CH or LM preparation. GraphHopper only uses the preparation for
+ * point-to-point queries and doesn't provide a one-to-many search over it. A single tree expansion that stops at
+ * the farthest target is still cheaper than one accelerated query per matrix cell once the matrix has more than
+ * a handful of locations.
+ * <p>
+ * Labels of reached nodes are kept in primitive arrays indexed by the order in which nodes were reached so that
+ * the expansion doesn't allocate an object per node. Not thread-safe.
+ */
+class ShortestPathTree {
+
+    static final long UNREACHABLE = -1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final Graph graph;
+    private final Weighting weighting;
+    private final EdgeExplorer edgeExplorer;
+    private final boolean reverse;
+
+    // Labels, indexed by slot. A slot is assigned to a node when the node is reached for the first time.
+    private final IntIntHashMap slots = new IntIntHashMap(INITIAL_CAPACITY);
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private long[] millis = new long[INITIAL_CAPACITY];
+    private int[] edges = new int[INITIAL_CAPACITY];
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private boolean[] settled = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // Binary min-heap of slots ordered by weight. Improved labels are pushed again, stale entries are skipped.
+    private int[] heapSlots = new int[INITIAL_CAPACITY];
+    private double[] heapWeights = new double[INITIAL_CAPACITY];
+    private int heapSize = 0;
+
+    /**
+     * Create a tree expansion.
+     *
+     * @param graph graph to explore
+     * @param weighting weighting that determines the shortest path and its travel time
+     * @param edgeExplorer explorer that iterates edges that can be traversed from a node (to a node in reverse), it
+     * must check access because the weighting doesn't
+     * @param reverse {@code false} to find paths from the root to targets,
+     * {@code true} to find paths from targets to the root
+     */
+    ShortestPathTree(Graph graph, Weighting weighting, EdgeExplorer edgeExplorer, boolean reverse) {
+        this.graph = graph;
+        this.weighting = weighting;
+        this.edgeExplorer = edgeExplorer;
+        this.reverse = reverse;
+    }
+
+    /**
+     * Expand the tree from the root until all targets are settled or the whole reachable graph has been explored.
+     *
+     * @param root root node
+     * @param targets target nodes
+     * @return travel time in milliseconds for each target in the order of targets, {@link #UNREACHABLE} for targets
+     * that cannot be reached
+     */
+    long[] travelTimesMillis(int root, int[] targets) {
+        if (root < 0 || root >= graph.getNodes()) {
+            throw new IllegalArgumentException("Root node (" + root + ") is not in the graph");
+        }
+        IntHashSet remainingTargets = new IntHashSet(targets.length);
+        remainingTargets.addAll(targets);
+        reach(root, EdgeIterator.NO_EDGE, 0, 0);
+
+        while (heapSize > 0 && !remainingTargets.isEmpty()) {
+            double weight = heapWeights[0];
+            int current = poll();
+            if (settled[current] || weight > weights[current]) {
+                continue; // stale heap entry
+            }
+            settled[current] = true;
+            remainingTargets.remove(nodes[current]);
+
+            EdgeIterator edge = edgeExplorer.setBaseNode(nodes[current]);
+            while (edge.next()) {
+                // In reverse, the edge is traversed from the adjacent node towards the current node.
+                double edgeWeight = weighting.calcWeight(edge, reverse, edges[current]);
+                if (Double.isInfinite(edgeWeight)) {
+                    continue; // not accessible in this direction
+                }
+                int adjacentNode = edge.getAdjNode();
+                double adjacentWeight = weights[current] + edgeWeight;
+                int adjacent = slots.getOrDefault(adjacentNode, -1);
+                if (adjacent < 0 || (!settled[adjacent] && adjacentWeight < weights[adjacent])) {
+                    long adjacentMillis = millis[current] + weighting.calcMillis(edge, reverse, edges[current]);
+                    reach(adjacentNode, edge.getEdge(), adjacentWeight, adjacentMillis);
+                }
+            }
+        }
+
+        long[] travelTimes = new long[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            int slot = slots.getOrDefault(targets[i], -1);
+            travelTimes[i] = slot >= 0 && settled[slot] ? millis[slot] : UNREACHABLE;
+        }
+        clear();
+        return travelTimes;
+    }
+
+    private void reach(int node, int edge, double weight, long nodeMillis) {
+        int slot = slots.getOrDefault(node, -1);
+        if (slot < 0) {
+            if (size == nodes.length) {
+                growLabels();
+            }
+            slot = size++;
+            slots.put(node, slot);
+            nodes[slot] = node;
+            settled[slot] = false;
+        }
+        weights[slot] = weight;
+        millis[slot] = nodeMillis;
+        edges[slot] = edge;
+        push(slot, weight);
+    }
+
+    private void clear() {
+        slots.clear();
+        size = 0;
+        heapSize = 0;
+    }
+
+    private void growLabels() {
+        int capacity = nodes.length * 2;
+        weights = Arrays.copyOf(weights, capacity);
+        millis = Arrays.copyOf(millis, capacity);
+        edges = Arrays.copyOf(edges, capacity);
+        nodes = Arrays.copyOf(nodes, capacity);
+        settled = Arrays.copyOf(settled, capacity);
+    }
+
+    private void push(int slot, double weight) {
+        if (heapSize == heapSlots.length) {
+            heapSlots = Arrays.copyOf(heapSlots, heapSize * 2);
+            heapWeights = Arrays.copyOf(heapWeights, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapWeights[parent] <= weight) {
+                break;
+            }
+            heapSlots[i] = heapSlots[parent];
+            heapWeights[i] = heapWeights[parent];
+            i = parent;
+        }
+        heapSlots[i] = slot;
+        heapWeights[i] = weight;
+    }
+
+    private int poll() {
+        int top = heapSlots[0];
+        heapSize--;
+        int lastSlot = heapSlots[heapSize];
+        double lastWeight = heapWeights[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapWeights[child + 1] < heapWeights[child]) {
+                child++;
+            }
+            if (lastWeight <= heapWeights[child]) {
+                break;
+            }
+            heapSlots[i] = heapSlots[child];
+            heapWeights[i] = heapWeights[child];
+            i = child;
+        }
+        heapSlots[i] = lastSlot;
+        heapWeights[i] = lastWeight;
+        return top;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Converts <a href="https://cbor.io/">CBOR</a> message payloads. Only used for messages whose content type is
+ * {@code application/cbor}, all other messages are handled by the default JSON converter.
+ */
+class CborMessageConverter extends MappingJackson2MessageConverter {
+
+    static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    CborMessageConverter() {
+        super(APPLICATION_CBOR);
+        setObjectMapper(new ObjectMapper(new CBORFactory()));
+        setSerializedPayloadClass(byte[].class);
+        setStrictContentTypeMatch(true);
+    }
+
+    /**
+     * Serialize the payload to CBOR.
+     *
+     * @param payload payload
+     * @return CBOR bytes
+     */
+    byte[] toCbor(Object payload) {
+        try {
+            return getObjectMapper().writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Could not write CBOR: " + e.getMessage(), e);
+        }
+    }
+}
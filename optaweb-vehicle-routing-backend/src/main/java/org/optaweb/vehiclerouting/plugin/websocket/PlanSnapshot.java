@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Immutable snapshot of a broadcast {@link PortableRoutingPlan plan} together with its serialized forms.
+ * <p>
+ * Each form (for example JSON with encoded tracks) is serialized the first time it's needed and then reused
+ * for every subscription and HTTP request until the next plan is broadcast. Serialized forms must not be modified.
+ */
+class PlanSnapshot {
+
+    private final PortableRoutingPlan plan;
+    private final String etag;
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+
+    /**
+     * Create a snapshot.
+     *
+     * @param plan plan
+     * @param etag entity tag identifying the plan, quoted
+     */
+    PlanSnapshot(PortableRoutingPlan plan, String etag) {
+        this.plan = Objects.requireNonNull(plan);
+        this.etag = Objects.requireNonNull(etag);
+    }
+
+    PortableRoutingPlan plan() {
+        return plan;
+    }
+
+    /**
+     * Entity tag that changes whenever a new plan is broadcast. It's unique across server restarts.
+     *
+     * @return quoted entity tag
+     */
+    String etag() {
+        return etag;
+    }
+
+    /**
+     * Serialized form of the plan for the given topic.
+     *
+     * @param topic topic that determines the format
+     * @param serializer serializes the plan, only called the first time the form is needed
+     * @return serialized plan
+     */
+    byte[] payload(String topic, Supplier<byte[]> serializer) {
+        return payloads.computeIfAbsent(topic, key -> serializer.get());
+    }
+}
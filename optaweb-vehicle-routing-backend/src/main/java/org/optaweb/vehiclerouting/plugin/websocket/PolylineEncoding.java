@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Encodes tracks using the
+ * <a href="https://developers.google.com/maps/documentation/utilities/polylinealgorithm">encoded polyline
+ * algorithm</a>.
+ * <p>
+ * Each point is stored as the difference from the previous point, in units of 1e-5 degrees (which matches
+ * {@link PortableCoordinates} precision) and packed into printable ASCII characters, 5 bits per character.
+ * A typical point takes 2&ndash;8 characters instead of about 20 in a JSON array.
+ */
+class PolylineEncoding {
+
+    private static final int PRECISION = 5;
+
+    private PolylineEncoding() {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Encode a track segment.
+     *
+     * @param segment points of the segment
+     * @return encoded polyline
+     */
+    static String encode(List<PortableCoordinates> segment) {
+        StringBuilder encoded = new StringBuilder(segment.size() * 6);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (PortableCoordinates coordinates : segment) {
+            long latitude = toFixedPoint(coordinates.getLatitude());
+            long longitude = toFixedPoint(coordinates.getLongitude());
+            encodeSigned(latitude - previousLatitude, encoded);
+            encodeSigned(longitude - previousLongitude, encoded);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return encoded.toString();
+    }
+
+    private static long toFixedPoint(BigDecimal degrees) {
+        return degrees.movePointRight(PRECISION).setScale(0, RoundingMode.HALF_EVEN).longValue();
+    }
+
+    private static void encodeSigned(long value, StringBuilder encoded) {
+        long bits = value < 0 ? ~(value << 1) : value << 1;
+        while (bits >= 0x20) {
+            encoded.append((char) ((0x20 | (bits & 0x1f)) + 63));
+            bits >>= 5;
+        }
+        encoded.append((char) (bits + 63));
+    }
+}
@@ -16,15 +16,21 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
+import static java.util.stream.Collectors.toList;
+
 import java.util.List;
 import java.util.Objects;
 
 import org.optaweb.vehiclerouting.domain.Route;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 /**
  * Vehicle {@link Route route} representation convenient for marshalling.
+ * <p>
+ * The track is either a list of coordinates or, in the compact form, an {@link PolylineEncoding encoded polyline}
+ * per segment. Only one of them is present.
  */
 class PortableRoute {
 
@@ -32,17 +38,43 @@ class PortableRoute {
     private final PortableLocation depot;
     private final List<PortableLocation> visits;
     @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private final List<List<PortableCoordinates>> track;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<String> encodedTrack;
 
     PortableRoute(
             PortableVehicle vehicle,
             PortableLocation depot,
             List<PortableLocation> visits,
             List<List<PortableCoordinates>> track) {
+        this(vehicle, depot, visits, Objects.requireNonNull(track), null);
+    }
+
+    private PortableRoute(
+            PortableVehicle vehicle,
+            PortableLocation depot,
+            List<PortableLocation> visits,
+            List<List<PortableCoordinates>> track,
+            List<String> encodedTrack) {
         this.vehicle = Objects.requireNonNull(vehicle);
         this.depot = Objects.requireNonNull(depot);
         this.visits = Objects.requireNonNull(visits);
-        this.track = Objects.requireNonNull(track);
+        this.track = track;
+        this.encodedTrack = encodedTrack;
+    }
+
+    /**
+     * Compact form of this route.
+     *
+     * @return route with encoded track
+     */
+    PortableRoute withEncodedTrack() {
+        if (track == null) {
+            return this;
+        }
+        List<String> encoded = track.stream().map(PolylineEncoding::encode).collect(toList());
+        return new PortableRoute(vehicle, depot, visits, null, encoded);
     }
 
     public PortableVehicle getVehicle() {
@@ -57,7 +89,21 @@ class PortableRoute {
         return visits;
     }
 
+    /**
+     * Track segments.
+     *
+     * @return segments or {@code null} if this is a compact route
+     */
     public List<List<PortableCoordinates>> getTrack() {
         return track;
     }
+
+    /**
+     * Encoded track segments.
+     *
+     * @return encoded polylines or {@code null} if this isn't a compact route
+     */
+    public List<String> getEncodedTrack() {
+        return encodedTrack;
+    }
 }
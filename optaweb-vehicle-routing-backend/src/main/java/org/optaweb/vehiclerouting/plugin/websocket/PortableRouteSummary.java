@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.Objects;
+
+import org.optaweb.vehiclerouting.domain.RouteSummary;
+
+/**
+ * {@link RouteSummary} representation suitable for network transport.
+ */
+class PortableRouteSummary {
+
+    private final long vehicleId;
+    private final int visitCount;
+    private final int load;
+    private final PortableDistance distance;
+
+    static PortableRouteSummary fromRouteSummary(RouteSummary routeSummary) {
+        Objects.requireNonNull(routeSummary, "routeSummary must not be null");
+        return new PortableRouteSummary(
+                routeSummary.vehicleId(),
+                routeSummary.visitCount(),
+                routeSummary.load(),
+                PortableDistance.fromDistance(routeSummary.distance()));
+    }
+
+    PortableRouteSummary(long vehicleId, int visitCount, int load, PortableDistance distance) {
+        this.vehicleId = vehicleId;
+        this.visitCount = visitCount;
+        this.load = load;
+        this.distance = Objects.requireNonNull(distance);
+    }
+
+    public long getVehicleId() {
+        return vehicleId;
+    }
+
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    public int getLoad() {
+        return load;
+    }
+
+    public PortableDistance getDistance() {
+        return distance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PortableRouteSummary that = (PortableRouteSummary) o;
+        return vehicleId == that.vehicleId &&
+                visitCount == that.visitCount &&
+                load == that.load &&
+                distance.equals(that.distance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vehicleId, visitCount, load, distance);
+    }
+
+    @Override
+    public String toString() {
+        return "PortableRouteSummary{" +
+                "vehicleId=" + vehicleId +
+                ", visitCount=" + visitCount +
+                ", load=" + load +
+                ", distance=" + distance +
+                '}';
+    }
+}
@@ -16,7 +16,10 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
+import static java.util.stream.Collectors.toList;
+
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 import org.optaweb.vehiclerouting.domain.RoutingPlan;
 
@@ -25,6 +28,7 @@ import org.optaweb.vehiclerouting.domain.RoutingPlan;
  */
 class PortableRoutingPlan {
 
+    private final long sequence;
     private final PortableDistance distance;
     private final List<PortableVehicle> vehicles;
     private final PortableLocation depot;
@@ -32,12 +36,14 @@ class PortableRoutingPlan {
     private final List<PortableRoute> routes;
 
     PortableRoutingPlan(
+            long sequence,
             PortableDistance distance,
             List<PortableVehicle> vehicles,
             PortableLocation depot,
             List<PortableLocation> visits,
             List<PortableRoute> routes) {
         // TODO require non-null
+        this.sequence = sequence;
         this.distance = distance;
         this.vehicles = vehicles;
         this.depot = depot;
@@ -45,6 +51,36 @@ class PortableRoutingPlan {
         this.routes = routes;
     }
 
+    /**
+     * Position of this plan in the sequence of plans broadcast to clients. Each
+     * {@link PortableRoutingPlanDelta delta} refers to the plan it is based on by its sequence number.
+     *
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Compact form of this plan.
+     *
+     * @return plan with {@link PortableRoute#withEncodedTrack() encoded tracks}
+     */
+    PortableRoutingPlan withEncodedTracks() {
+        return mapRoutes(PortableRoute::withEncodedTrack);
+    }
+
+    /**
+     * Copy of this plan with each route transformed by the given function.
+     *
+     * @param mapper route transformation
+     * @return transformed plan
+     */
+    PortableRoutingPlan mapRoutes(UnaryOperator<PortableRoute> mapper) {
+        List<PortableRoute> mappedRoutes = routes.stream().map(mapper).collect(toList());
+        return new PortableRoutingPlan(sequence, distance, vehicles, depot, visits, mappedRoutes);
+    }
+
     public PortableDistance getDistance() {
         return distance;
     }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Difference between two {@link PortableRoutingPlan routing plans} convenient for marshalling.
+ * <p>
+ * A client holding the plan with the {@link #getBaseSequence() base sequence} applies the delta as follows:
+ * <ul>
+ * <li>distance, vehicles and depot are replaced,</li>
+ * <li>visits are replaced unless they are {@code null}, which means they haven't changed,</li>
+ * <li>each of the {@link #getRoutes() routes} replaces the route of the same vehicle or is added,</li>
+ * <li>routes of vehicles listed in {@link #getRemovedRoutes() removed routes} are removed.</li>
+ * </ul>
+ * Routes are kept in the order of vehicles. The result is the plan with the delta's {@link #getSequence() sequence}.
+ */
+class PortableRoutingPlanDelta {
+
+    private final long baseSequence;
+    private final long sequence;
+    private final PortableDistance distance;
+    private final List<PortableVehicle> vehicles;
+    private final PortableLocation depot;
+    private final List<PortableLocation> visits;
+    private final List<PortableRoute> routes;
+    private final List<Long> removedRoutes;
+
+    PortableRoutingPlanDelta(
+            long baseSequence,
+            long sequence,
+            PortableDistance distance,
+            List<PortableVehicle> vehicles,
+            PortableLocation depot,
+            List<PortableLocation> visits,
+            List<PortableRoute> routes,
+            List<Long> removedRoutes) {
+        this.baseSequence = baseSequence;
+        this.sequence = sequence;
+        this.distance = Objects.requireNonNull(distance);
+        this.vehicles = Objects.requireNonNull(vehicles);
+        this.depot = depot;
+        this.visits = visits;
+        this.routes = Objects.requireNonNull(routes);
+        this.removedRoutes = Objects.requireNonNull(removedRoutes);
+    }
+
+    /**
+     * Calculate the delta that turns the base plan into the target plan.
+     * <p>
+     * A route is only sent if its vehicle, depot or visits have changed. The track is determined by the stops
+     * so it doesn't need to be compared.
+     *
+     * @param base plan the client already has
+     * @param target new plan
+     * @return delta between the two plans
+     */
+    static PortableRoutingPlanDelta between(PortableRoutingPlan base, PortableRoutingPlan target) {
+        Map<Long, PortableRoute> baseRoutes = new LinkedHashMap<>();
+        for (PortableRoute route : base.getRoutes()) {
+            baseRoutes.put(route.getVehicle().getId(), route);
+        }
+        List<PortableRoute> changedRoutes = new ArrayList<>();
+        for (PortableRoute route : target.getRoutes()) {
+            PortableRoute baseRoute = baseRoutes.remove(route.getVehicle().getId());
+            if (baseRoute == null || !haveSameStops(baseRoute, route)) {
+                changedRoutes.add(route);
+            }
+        }
+        List<PortableLocation> visits = base.getVisits().equals(target.getVisits()) ? null : target.getVisits();
+        return new PortableRoutingPlanDelta(
+                base.getSequence(),
+                target.getSequence(),
+                target.getDistance(),
+                target.getVehicles(),
+                target.getDepot(),
+                visits,
+                changedRoutes,
+                new ArrayList<>(baseRoutes.keySet()));
+    }
+
+    /**
+     * Compact form of this delta.
+     *
+     * @return delta with {@link PortableRoute#withEncodedTrack() encoded tracks}
+     */
+    PortableRoutingPlanDelta withEncodedTracks() {
+        return mapRoutes(PortableRoute::withEncodedTrack);
+    }
+
+    /**
+     * Copy of this delta with each route transformed by the given function.
+     *
+     * @param mapper route transformation
+     * @return transformed delta
+     */
+    PortableRoutingPlanDelta mapRoutes(UnaryOperator<PortableRoute> mapper) {
+        List<PortableRoute> mappedRoutes = routes.stream().map(mapper).collect(toList());
+        return new PortableRoutingPlanDelta(
+                baseSequence, sequence, distance, vehicles, depot, visits, mappedRoutes, removedRoutes);
+    }
+
+    private static boolean haveSameStops(PortableRoute route1, PortableRoute route2) {
+        return route1.getVehicle().equals(route2.getVehicle())
+                && route1.getDepot().equals(route2.getDepot())
+                && route1.getVisits().equals(route2.getVisits());
+    }
+
+    public long getBaseSequence() {
+        return baseSequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public PortableDistance getDistance() {
+        return distance;
+    }
+
+    public List<PortableVehicle> getVehicles() {
+        return vehicles;
+    }
+
+    public PortableLocation getDepot() {
+        return depot;
+    }
+
+    /**
+     * Visits of the target plan.
+     *
+     * @return visits or {@code null} if they are the same as in the base plan
+     */
+    public List<PortableLocation> getVisits() {
+        return visits;
+    }
+
+    /**
+     * Routes that are new or have changed.
+     *
+     * @return changed routes
+     */
+    public List<PortableRoute> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Routes that are no longer in the plan.
+     *
+     * @return IDs of vehicles whose routes have been removed
+     */
+    public List<Long> getRemovedRoutes() {
+        return removedRoutes;
+    }
+}
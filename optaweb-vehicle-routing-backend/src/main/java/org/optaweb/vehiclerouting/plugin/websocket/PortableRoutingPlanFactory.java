@@ -35,7 +35,7 @@ class PortableRoutingPlanFactory {
         throw new AssertionError("Utility class");
     }
 
-    static PortableRoutingPlan fromRoutingPlan(RoutingPlan routingPlan) {
+    static PortableRoutingPlan fromRoutingPlan(RoutingPlan routingPlan, long sequence) {
         PortableDistance distance = PortableDistance.fromDistance(routingPlan.distance());
         List<PortableVehicle> vehicles = portableVehicles(routingPlan.vehicles());
         PortableLocation depot = routingPlan.depot().map(PortableLocation::fromLocation).orElse(null);
@@ -47,7 +47,7 @@ class PortableRoutingPlanFactory {
                         portableVisits(routeWithTrack.visits()),
                         portableTrack(routeWithTrack.track())))
                 .collect(toList());
-        return new PortableRoutingPlan(distance, vehicles, depot, visits, routes);
+        return new PortableRoutingPlan(sequence, distance, vehicles, depot, visits, routes);
     }
 
     private static List<List<PortableCoordinates>> portableTrack(List<List<Coordinates>> track) {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+
+/**
+ * {@link RoutingPlanSummary} representation suitable for network transport.
+ */
+class PortableRoutingPlanSummary {
+
+    private final PortableDistance distance;
+    private final int vehicleCount;
+    private final int visitCount;
+    private final List<PortableRouteSummary> routes;
+
+    static PortableRoutingPlanSummary fromRoutingPlanSummary(RoutingPlanSummary summary) {
+        Objects.requireNonNull(summary, "summary must not be null");
+        return new PortableRoutingPlanSummary(
+                PortableDistance.fromDistance(summary.distance()),
+                summary.vehicleCount(),
+                summary.visitCount(),
+                summary.routes().stream().map(PortableRouteSummary::fromRouteSummary).collect(toList()));
+    }
+
+    PortableRoutingPlanSummary(
+            PortableDistance distance,
+            int vehicleCount,
+            int visitCount,
+            List<PortableRouteSummary> routes) {
+        this.distance = Objects.requireNonNull(distance);
+        this.vehicleCount = vehicleCount;
+        this.visitCount = visitCount;
+        this.routes = Objects.requireNonNull(routes);
+    }
+
+    public PortableDistance getDistance() {
+        return distance;
+    }
+
+    public int getVehicleCount() {
+        return vehicleCount;
+    }
+
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    public List<PortableRouteSummary> getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public String toString() {
+        return "PortableRoutingPlanSummary{" +
+                "distance=" + distance +
+                ", vehicleCount=" + vehicleCount +
+                ", visitCount=" + visitCount +
+                ", routes=" + routes +
+                '}';
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.optaweb.vehiclerouting.BackgroundTasksConfig.BACKGROUND_TASK_SCHEDULER;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.annotation.PreDestroy;
+
+import org.optaweb.vehiclerouting.BackgroundTasksConfig;
+import org.optaweb.vehiclerouting.domain.RoutingPlan;
+import org.optaweb.vehiclerouting.service.route.RoutingPlanConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits how often routing plans are broadcast to clients.
+ * <p>
+ * The solver may find many new best solutions per second, especially right after a change. Broadcasting each of them
+ * would flood clients with frames that are obsolete before they are rendered. Instead, at most one plan is broadcast
+ * per {@link WebSocketProperties#getRouteUpdateInterval() route update interval}. Plans consumed in the meantime are
+ * conflated: only the latest one is broadcast when the interval elapses and the ones before it are dropped.
+ * <p>
+ * Plans are broadcast by tasks scheduled on the {@link BackgroundTasksConfig background task scheduler} so that
+ * consuming a plan never waits for message conversion or sending.
+ */
+@Component
+class RouteBroadcastScheduler implements RoutingPlanConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteBroadcastScheduler.class);
+
+    private final WebSocketRoutingPlanSender routingPlanSender;
+    private final long intervalNanos;
+    private final TaskScheduler taskScheduler;
+    private final Object lock = new Object();
+    // guarded by lock
+    private RoutingPlan pendingPlan;
+    private boolean broadcastScheduled = false;
+    private ScheduledFuture<?> scheduledBroadcast;
+    private long lastBroadcastNanos;
+    private boolean closed = false;
+
+    @Autowired
+    RouteBroadcastScheduler(
+            WebSocketRoutingPlanSender routingPlanSender,
+            WebSocketProperties properties,
+            @Qualifier(BACKGROUND_TASK_SCHEDULER) TaskScheduler taskScheduler) {
+        this(routingPlanSender, taskScheduler, properties.getRouteUpdateInterval());
+    }
+
+    RouteBroadcastScheduler(
+            WebSocketRoutingPlanSender routingPlanSender,
+            TaskScheduler taskScheduler,
+            Duration interval) {
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("Route update interval (" + interval + ") must not be negative");
+        }
+        this.routingPlanSender = Objects.requireNonNull(routingPlanSender);
+        this.taskScheduler = Objects.requireNonNull(taskScheduler);
+        this.intervalNanos = interval.toNanos();
+        this.lastBroadcastNanos = System.nanoTime() - intervalNanos;
+    }
+
+    /**
+     * Schedule a broadcast of the plan. If the previous broadcast happened less than the route update interval ago,
+     * the broadcast is delayed. A plan that is still waiting to be broadcast is replaced.
+     *
+     * @param routingPlan routing plan
+     */
+    @Override
+    public void consumePlan(RoutingPlan routingPlan) {
+        Objects.requireNonNull(routingPlan);
+        synchronized (lock) {
+            if (pendingPlan != null) {
+                logger.trace("Conflating a plan that hasn't been broadcast yet");
+            }
+            pendingPlan = routingPlan;
+            if (!broadcastScheduled) {
+                scheduleBroadcast();
+            }
+        }
+    }
+
+    /**
+     * Wait until all plans consumed so far have been broadcast.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (broadcastScheduled && !closed) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Stop broadcasting. A plan that hasn't been broadcast yet is dropped.
+     */
+    @PreDestroy
+    void close() {
+        synchronized (lock) {
+            closed = true;
+            pendingPlan = null;
+            if (scheduledBroadcast != null) {
+                scheduledBroadcast.cancel(false);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void broadcastPendingPlan() {
+        RoutingPlan routingPlan;
+        synchronized (lock) {
+            routingPlan = pendingPlan;
+            pendingPlan = null;
+            lastBroadcastNanos = System.nanoTime();
+        }
+        try {
+            if (routingPlan != null) {
+                routingPlanSender.broadcast(routingPlan);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to broadcast routing plan", e);
+        } finally {
+            synchronized (lock) {
+                broadcastScheduled = false;
+                if (pendingPlan != null) {
+                    // A new plan arrived during the broadcast. It will go out once the interval elapses.
+                    scheduleBroadcast();
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // must hold lock
+    private void scheduleBroadcast() {
+        if (closed) {
+            return;
+        }
+        long delayNanos = Math.max(0, lastBroadcastNanos + intervalNanos - System.nanoTime());
+        try {
+            Instant startTime = Instant.now().plusNanos(delayNanos);
+            scheduledBroadcast = taskScheduler.schedule(this::broadcastPendingPlan, startTime);
+            broadcastScheduled = true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Task scheduler rejected the route broadcast", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Serves the latest routing plan over HTTP. Useful for clients that poll instead of subscribing.
+ * <p>
+ * Responses are the same pre-serialized {@link PlanSnapshot snapshots} that WebSocket subscribers get. Each response
+ * has an {@code ETag}. A conditional request with a matching {@code If-None-Match} header gets
+ * {@code 304 Not Modified} without a body until a new plan is broadcast.
+ */
+@Controller
+class RoutingPlanController {
+
+    private final WebSocketRoutingPlanSender routingPlanSender;
+
+    RoutingPlanController(WebSocketRoutingPlanSender routingPlanSender) {
+        this.routingPlanSender = routingPlanSender;
+    }
+
+    @GetMapping("/routing-plan")
+    @ResponseBody
+    public ResponseEntity<byte[]> routingPlan(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE, ifNoneMatch);
+    }
+
+    @GetMapping("/routing-plan/polyline")
+    @ResponseBody
+    public ResponseEntity<byte[]> encodedRoutingPlan(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE, ifNoneMatch);
+    }
+
+    @GetMapping("/routing-plan/polyline/{detail}")
+    @ResponseBody
+    public ResponseEntity<byte[]> simplifiedRoutingPlan(
+            @PathVariable String detail,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TrackDetail trackDetail;
+        try {
+            trackDetail = TrackDetail.fromName(detail);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return snapshot(trackDetail.topic(), ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> snapshot(String topic, String ifNoneMatch) {
+        PlanSnapshot snapshot = routingPlanSender.snapshot();
+        boolean notModified = matches(ifNoneMatch, snapshot.etag());
+        // Clients may cache the plan but must revalidate it before each use.
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache());
+        if (notModified) {
+            return response.build();
+        }
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(routingPlanSender.json(snapshot, topic));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison as required for If-None-Match (RFC 7232, section 3.2).
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.Objects;
+
+/**
+ * Payload that has already been serialized to JSON. Sending it doesn't serialize anything, the bytes are written
+ * to the message as they are by the {@link SerializedJsonMessageConverter}. This makes it possible to serialize
+ * a message once and send it to many clients.
+ */
+class SerializedJson {
+
+    private final byte[] bytes;
+
+    /**
+     * Wrap serialized JSON.
+     *
+     * @param bytes UTF-8 encoded JSON, must not be modified afterwards
+     */
+    SerializedJson(byte[] bytes) {
+        this.bytes = Objects.requireNonNull(bytes);
+    }
+
+    /**
+     * JSON bytes. The array is shared, it must not be modified.
+     *
+     * @return UTF-8 encoded JSON
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedJson{" + bytes.length + " bytes}";
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Writes {@link SerializedJson} payloads to messages without serializing them again. Messages get
+ * the {@code application/json} content type so they go in text WebSocket frames, just like messages
+ * serialized by the default JSON converter.
+ */
+class SerializedJsonMessageConverter extends MappingJackson2MessageConverter {
+
+    SerializedJsonMessageConverter() {
+        setSerializedPayloadClass(byte[].class);
+    }
+
+    /**
+     * Serialize the payload to JSON.
+     *
+     * @param payload payload
+     * @return UTF-8 encoded JSON
+     */
+    byte[] toJson(Object payload) {
+        try {
+            return getObjectMapper().writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Could not write JSON: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedJson.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        // Incoming messages are handled by the default JSON converter.
+        return false;
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        // The payload is already serialized, there's no need to check if the object mapper can serialize it.
+        return supports(payload.getClass()) && supportsMimeType(headers);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return ((SerializedJson) payload).bytes();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded cache of simplified leg paths. When a leg is seen for the first time, its path is simplified for all
+ * {@link TrackDetail detail levels} at once. When the cache is full, the least recently used leg is evicted.
+ * <p>
+ * Legs are keyed by location IDs. A location never changes its coordinates so the path between two locations is
+ * always the same. Not thread-safe.
+ */
+class SimplifiedTrackCache {
+
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final Map<Leg, Map<TrackDetail, List<PortableCoordinates>>> legs;
+
+    SimplifiedTrackCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity (" + capacity + ") must be positive");
+        }
+        this.capacity = capacity;
+        this.legs = new LinkedHashMap<Leg, Map<TrackDetail, List<PortableCoordinates>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Leg, Map<TrackDetail, List<PortableCoordinates>>> eldest) {
+                return size() > SimplifiedTrackCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Route with track simplified for the given detail level.
+     *
+     * @param route route with full track
+     * @param detail detail level
+     * @return route with simplified track
+     */
+    PortableRoute simplify(PortableRoute route, TrackDetail detail) {
+        List<List<PortableCoordinates>> track = route.getTrack();
+        if (track == null) {
+            throw new IllegalArgumentException("Compact route can't be simplified: " + route.getVehicle());
+        }
+        // Track segments go from the depot through all visits back to the depot.
+        List<PortableLocation> itinerary = new ArrayList<>();
+        itinerary.add(route.getDepot());
+        itinerary.addAll(route.getVisits());
+        itinerary.add(route.getDepot());
+        List<List<PortableCoordinates>> simplifiedTrack = new ArrayList<>(track.size());
+        for (int i = 0; i < track.size(); i++) {
+            Leg leg = new Leg(itinerary.get(i).getId(), itinerary.get(i + 1).getId());
+            simplifiedTrack.add(simplifiedLeg(leg, track.get(i)).get(detail));
+        }
+        return new PortableRoute(route.getVehicle(), route.getDepot(), route.getVisits(), simplifiedTrack);
+    }
+
+    int size() {
+        return legs.size();
+    }
+
+    private Map<TrackDetail, List<PortableCoordinates>> simplifiedLeg(Leg leg, List<PortableCoordinates> path) {
+        return legs.computeIfAbsent(leg, key -> {
+            Map<TrackDetail, List<PortableCoordinates>> tiers = new EnumMap<>(TrackDetail.class);
+            for (TrackDetail detail : TrackDetail.values()) {
+                tiers.put(detail, TrackSimplification.simplify(path, detail.toleranceMeters()));
+            }
+            return tiers;
+        });
+    }
+
+    private static final class Leg {
+
+        private final long fromId;
+        private final long toId;
+
+        private Leg(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Leg leg = (Leg) o;
+            return fromId == leg.fromId &&
+                    toId == leg.toId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromId, toId);
+        }
+    }
+}
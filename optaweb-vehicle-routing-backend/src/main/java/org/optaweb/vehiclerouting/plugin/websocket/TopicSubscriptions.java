@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Keeps track of topics that have at least one subscriber so that messages nobody would receive don't have to be
+ * created and serialized.
+ */
+@Component
+class TopicSubscriptions implements ApplicationListener<AbstractSubProtocolEvent> {
+
+    // session ID -> subscription ID -> destination
+    private final Map<String, Map<String, String>> sessions = new HashMap<>();
+    private final Map<String, Integer> subscriberCounts = new HashMap<>();
+
+    @Override
+    public synchronized void onApplicationEvent(AbstractSubProtocolEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = headers.getSessionId();
+        if (event instanceof SessionSubscribeEvent) {
+            String destination = headers.getDestination();
+            if (destination != null) {
+                sessions.computeIfAbsent(sessionId, key -> new HashMap<>())
+                        .put(headers.getSubscriptionId(), destination);
+                subscriberCounts.merge(destination, 1, Integer::sum);
+            }
+        } else if (event instanceof SessionUnsubscribeEvent) {
+            Map<String, String> subscriptions = sessions.get(sessionId);
+            if (subscriptions != null) {
+                String destination = subscriptions.remove(headers.getSubscriptionId());
+                if (destination != null) {
+                    decrement(destination);
+                }
+            }
+        } else if (event instanceof SessionDisconnectEvent) {
+            Map<String, String> subscriptions = sessions.remove(((SessionDisconnectEvent) event).getSessionId());
+            if (subscriptions != null) {
+                subscriptions.values().forEach(this::decrement);
+            }
+        }
+    }
+
+    /**
+     * Whether the destination has at least one subscriber.
+     *
+     * @param destination topic destination
+     * @return true if someone is subscribed to the destination
+     */
+    synchronized boolean hasSubscribers(String destination) {
+        return subscriberCounts.containsKey(destination);
+    }
+
+    private void decrement(String destination) {
+        subscriberCounts.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
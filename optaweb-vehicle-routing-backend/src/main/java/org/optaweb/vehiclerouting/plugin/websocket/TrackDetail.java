@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.Locale;
+
+/**
+ * Level of track detail a client can subscribe to. Each level removes track points that are closer than its tolerance
+ * to the simplified line, which is invisible at the zoom levels the detail is meant for.
+ */
+enum TrackDetail {
+
+    /**
+     * Street level.
+     */
+    HIGH(5),
+    /**
+     * City level.
+     */
+    MEDIUM(25),
+    /**
+     * Region or country level.
+     */
+    LOW(150);
+
+    private final double toleranceMeters;
+    private final String topic;
+
+    TrackDetail(double toleranceMeters) {
+        this.toleranceMeters = toleranceMeters;
+        this.topic = WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE + "/" + name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parse detail level used in a topic name.
+     *
+     * @param name detail level name, case insensitive
+     * @return detail level
+     * @throws IllegalArgumentException if there is no such detail level
+     */
+    static TrackDetail fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    double toleranceMeters() {
+        return toleranceMeters;
+    }
+
+    /**
+     * Topic where compact routes with this detail are published.
+     *
+     * @return topic destination
+     */
+    String topic() {
+        return topic;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Simplifies tracks using the
+ * <a href="https://en.wikipedia.org/wiki/Ramer%E2%80%93Douglas%E2%80%93Peucker_algorithm">Douglas&ndash;Peucker
+ * algorithm</a>. The result keeps the first and the last point and deviates from the original line by at most
+ * the tolerance.
+ * <p>
+ * Distances are calculated on a local equirectangular projection, which is accurate enough for the short distances
+ * tolerances are compared with.
+ */
+class TrackSimplification {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private TrackSimplification() {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Simplify a track segment.
+     *
+     * @param segment points of the segment
+     * @param toleranceMeters maximum distance between a removed point and the simplified line
+     * @return simplified segment
+     */
+    static List<PortableCoordinates> simplify(List<PortableCoordinates> segment, double toleranceMeters) {
+        int size = segment.size();
+        if (size < 3) {
+            return segment;
+        }
+        // Project points to a plane in meters.
+        double longitudeScale = Math.cos(Math.toRadians(segment.get(0).getLatitude().doubleValue()));
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = segment.get(i).getLongitude().doubleValue() * METERS_PER_DEGREE * longitudeScale;
+            y[i] = segment.get(i).getLatitude().doubleValue() * METERS_PER_DEGREE;
+        }
+
+        boolean[] kept = new boolean[size];
+        kept[0] = true;
+        kept[size - 1] = true;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+        // Ranges (first index, last index) waiting to be simplified. A stack avoids deep recursion on long paths.
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] { 0, size - 1 });
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+            int farthest = -1;
+            double farthestDistanceSquared = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distanceSquared = distanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distanceSquared > farthestDistanceSquared) {
+                    farthest = i;
+                    farthestDistanceSquared = distanceSquared;
+                }
+            }
+            if (farthest >= 0) {
+                kept[farthest] = true;
+                ranges.push(new int[] { first, farthest });
+                ranges.push(new int[] { farthest, last });
+            }
+        }
+
+        List<PortableCoordinates> simplified = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) {
+                simplified.add(segment.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    /**
+     * Squared distance of point P from line segment AB.
+     */
+    private static double distanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+}
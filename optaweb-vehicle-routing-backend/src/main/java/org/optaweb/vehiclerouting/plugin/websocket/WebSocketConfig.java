@@ -16,7 +16,12 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -33,10 +38,18 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 @EnableWebSocketMessageBroker
 class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketProperties properties;
+
+    @Autowired
+    WebSocketConfig(WebSocketProperties properties) {
+        this.properties = properties;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // /vrp-websocket is the HTTP URL for the endpoint to which a WebSocket client needs to connect
-        // for the WebSocket handshake.
+        // for the WebSocket handshake. Clients that need binary frames (CBOR topics) can connect to the raw WebSocket
+        // at /vrp-websocket/websocket because SockJS only supports text frames.
         registry
                 .addEndpoint("/vrp-websocket")
                 .setAllowedOrigins("*")
@@ -53,15 +66,34 @@ class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Use the built-in message broker for subscriptions and broadcasting,
         // and route messages whose destination header begins with /topic to the broker.
         registry.enableSimpleBroker("/topic");
+        // Route deltas must reach each client in the order they were broadcast.
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Send pre-serialized JSON as is and accept CBOR messages in addition to the default converters
+        // (JSON, String, byte[]).
+        messageConverters.add(serializedJsonMessageConverter());
+        messageConverters.add(cborMessageConverter());
+        return true;
+    }
+
+    @Bean
+    SerializedJsonMessageConverter serializedJsonMessageConverter() {
+        return new SerializedJsonMessageConverter();
+    }
+
+    @Bean
+    CborMessageConverter cborMessageConverter() {
+        return new CborMessageConverter();
     }
 
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
-        // TODO Reduce WebSocket message sizes to minimum to avoid having to increase the session buffer size.
-        // Read setSendBufferSizeLimit() Javadoc to get some insight.
-        // For example: "In general WebSocket servers expect that messages to a single WebSocket session are sent
-        // from a single thread at a time."
-        // FIXME Remove this temporary workaround.
-        registry.setSendBufferSizeLimit(2 * 1024 * 1024);
+        // Messages to a slow session are buffered until one of the limits is exceeded. Then the session is closed
+        // (see WebSocketEventLogger) and the client reconnects to get a fresh snapshot instead of a growing backlog.
+        registry.setSendTimeLimit(Math.toIntExact(properties.getSendTimeLimit().toMillis()));
+        registry.setSendBufferSizeLimit(Math.toIntExact(properties.getSendBufferSizeLimit().toBytes()));
     }
 }
@@ -22,13 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.optaweb.vehiclerouting.domain.Coordinates;
-import org.optaweb.vehiclerouting.domain.RoutingPlan;
 import org.optaweb.vehiclerouting.service.demo.DemoService;
 import org.optaweb.vehiclerouting.service.error.ErrorEvent;
 import org.optaweb.vehiclerouting.service.location.LocationService;
 import org.optaweb.vehiclerouting.service.region.BoundingBox;
 import org.optaweb.vehiclerouting.service.region.RegionService;
-import org.optaweb.vehiclerouting.service.route.RouteListener;
 import org.optaweb.vehiclerouting.service.vehicle.VehicleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,7 +48,8 @@ class WebSocketController {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketController.class);
 
-    private final RouteListener routeListener;
+    private final WebSocketRoutingPlanSender routingPlanSender;
+    private final WebSocketRoutingPlanSummarySender summarySender;
     private final RegionService regionService;
     private final LocationService locationService;
     private final VehicleService vehicleService;
@@ -59,13 +58,15 @@ class WebSocketController {
 
     @Autowired
     WebSocketController(
-            RouteListener routeListener,
+            WebSocketRoutingPlanSender routingPlanSender,
+            WebSocketRoutingPlanSummarySender summarySender,
             RegionService regionService,
             LocationService locationService,
             VehicleService vehicleService,
             DemoService demoService,
             ApplicationEventPublisher eventPublisher) {
-        this.routeListener = routeListener;
+        this.routingPlanSender = routingPlanSender;
+        this.summarySender = summarySender;
         this.regionService = regionService;
         this.locationService = locationService;
         this.vehicleService = vehicleService;
@@ -99,14 +100,77 @@ class WebSocketController {
     }
 
     /**
-     * Subscribe for updates of the VRP route.
+     * Subscribe for updates of the VRP route. Updates are {@link PortableRoutingPlanDelta deltas} against
+     * the snapshot returned here.
      *
      * @return route message
      */
     @SubscribeMapping("/route")
-    PortableRoutingPlan subscribeToRouteTopic() {
-        RoutingPlan routingPlan = routeListener.getBestRoutingPlan();
-        return PortableRoutingPlanFactory.fromRoutingPlan(routingPlan);
+    SerializedJson subscribeToRouteTopic() {
+        return routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE);
+    }
+
+    /**
+     * Subscribe for updates of the VRP route in the compact format, where tracks are encoded polylines.
+     *
+     * @return route message
+     */
+    @SubscribeMapping("/route/polyline")
+    SerializedJson subscribeToEncodedRouteTopic() {
+        return routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE);
+    }
+
+    /**
+     * Subscribe for updates of the VRP route in the compact format with tracks simplified for the given detail level.
+     *
+     * @param detail {@link TrackDetail detail level}, for example {@code medium}
+     * @return route message
+     */
+    @SubscribeMapping("/route/polyline/{detail}")
+    SerializedJson subscribeToSimplifiedRouteTopic(@DestinationVariable String detail) {
+        return routingPlanSender.jsonSnapshot(TrackDetail.fromName(detail).topic());
+    }
+
+    /**
+     * Subscribe for updates of the VRP route summary, which only contains totals and no geometry.
+     *
+     * @return route summary
+     */
+    @SubscribeMapping("/route/summary")
+    PortableRoutingPlanSummary subscribeToRouteSummaryTopic() {
+        return summarySender.summary();
+    }
+
+    /**
+     * Subscribe for updates of the VRP route in CBOR.
+     *
+     * @return route message
+     * @see WebSocketRoutingPlanSender#cborTopic(String)
+     */
+    @SubscribeMapping("/cbor/route")
+    byte[] subscribeToCborRouteTopic() {
+        return routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE);
+    }
+
+    /**
+     * Subscribe for updates of the VRP route in the compact format in CBOR.
+     *
+     * @return route message
+     */
+    @SubscribeMapping("/cbor/route/polyline")
+    byte[] subscribeToCborEncodedRouteTopic() {
+        return routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE);
+    }
+
+    /**
+     * Subscribe for updates of the VRP route in the compact format with simplified tracks in CBOR.
+     *
+     * @param detail {@link TrackDetail detail level}
+     * @return route message
+     */
+    @SubscribeMapping("/cbor/route/polyline/{detail}")
+    byte[] subscribeToCborSimplifiedRouteTopic(@DestinationVariable String detail) {
+        return routingPlanSender.cborSnapshot(TrackDetail.fromName(detail).topic());
     }
 
     /**
@@ -20,12 +20,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 /**
  * Logs WebSocket events, such as {@link SessionConnectEvent} and {@link SessionSubscribeEvent}, on DEBUG level.
+ * Sessions closed because they couldn't keep up with outgoing messages are logged on WARN level.
  */
 @Component
 class WebSocketEventLogger implements ApplicationListener<AbstractSubProtocolEvent> {
@@ -35,5 +38,16 @@ class WebSocketEventLogger implements ApplicationListener<AbstractSubProtocolEve
     @Override
     public void onApplicationEvent(AbstractSubProtocolEvent event) {
         logger.debug("{}", event);
+        if (isSlowConsumer(event)) {
+            logger.warn("Closed session {} because it couldn't keep up with outgoing messages. "
+                    + "Consider increasing app.websocket.send-buffer-size-limit or app.websocket.send-time-limit.",
+                    ((SessionDisconnectEvent) event).getSessionId());
+        }
+    }
+
+    private static boolean isSlowConsumer(AbstractSubProtocolEvent event) {
+        // The session decorator closes sessions that exceed the send time or buffer size limit with this status.
+        return event instanceof SessionDisconnectEvent
+                && CloseStatus.SESSION_NOT_RELIABLE.equals(((SessionDisconnectEvent) event).getCloseStatus());
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties("app.websocket")
+class WebSocketProperties {
+
+    /**
+     * Minimum time between two route updates. Plans found in the meantime are conflated into the next update.
+     * Zero disables throttling.
+     */
+    private Duration routeUpdateInterval = Duration.ofMillis(250);
+
+    /**
+     * How long sending a message to a single session may take before the session is considered too slow and closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /**
+     * How much data may be buffered for a single session before it is considered too slow and closed.
+     */
+    private DataSize sendBufferSizeLimit = DataSize.ofMegabytes(2);
+
+    public Duration getRouteUpdateInterval() {
+        return routeUpdateInterval;
+    }
+
+    public void setRouteUpdateInterval(Duration routeUpdateInterval) {
+        this.routeUpdateInterval = routeUpdateInterval;
+    }
+
+    public Duration getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    public void setSendTimeLimit(Duration sendTimeLimit) {
+        this.sendTimeLimit = sendTimeLimit;
+    }
+
+    public DataSize getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public void setSendBufferSizeLimit(DataSize sendBufferSizeLimit) {
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+    }
+}
@@ -16,29 +16,187 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
+import java.util.function.Supplier;
+
 import org.optaweb.vehiclerouting.domain.RoutingPlan;
-import org.optaweb.vehiclerouting.service.route.RoutingPlanConsumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 /**
  * Broadcasts updated route to interested clients over WebSocket.
+ * <p>
+ * Clients get the full {@link #snapshot() snapshot} when they subscribe. After that, each new plan is broadcast
+ * as a {@link PortableRoutingPlanDelta delta} against the previous one, which usually only contains a few routes.
+ * The {@link RouteBroadcastScheduler} decides which plans are broadcast and when.
+ * <p>
+ * Plans are published in two formats. Clients choose one by subscribing to the corresponding topic. The compact
+ * format replaces track coordinates with {@link PolylineEncoding encoded polylines}. The compact format is also
+ * published with simplified tracks at each {@link TrackDetail detail level}.
+ * <p>
+ * Each topic has a {@link #cborTopic(String) CBOR twin} for clients that prefer a binary payload. Messages are only
+ * created for topics that have {@link TopicSubscriptions subscribers}.
+ * <p>
+ * The latest plan is kept as an immutable {@link PlanSnapshot snapshot}. Each of its formats is serialized once and
+ * the bytes are shared by all new subscriptions and HTTP requests until the next plan is broadcast.
  */
 @Component
-class WebSocketRoutingPlanSender implements RoutingPlanConsumer {
+class WebSocketRoutingPlanSender {
 
     static final String TOPIC_ROUTE = "/topic/route";
+    static final String TOPIC_ROUTE_POLYLINE = "/topic/route/polyline";
+    private static final String TOPIC_PREFIX = "/topic";
+    private static final String CBOR_TOPIC_PREFIX = "/topic/cbor";
 
     private final SimpMessagingTemplate webSocket;
+    private final TopicSubscriptions topicSubscriptions;
+    private final SerializedJsonMessageConverter jsonMessageConverter;
+    private final CborMessageConverter cborMessageConverter;
+    private final SimplifiedTrackCache simplifiedTrackCache = new SimplifiedTrackCache(
+            SimplifiedTrackCache.DEFAULT_CAPACITY);
+    // Distinguishes ETags issued before and after a restart because plan sequence numbers start over.
+    private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private PlanSnapshot lastSnapshot = newSnapshot(PortableRoutingPlanFactory.fromRoutingPlan(RoutingPlan.empty(), 0));
 
     @Autowired
-    WebSocketRoutingPlanSender(SimpMessagingTemplate webSocket) {
+    WebSocketRoutingPlanSender(
+            SimpMessagingTemplate webSocket,
+            TopicSubscriptions topicSubscriptions,
+            SerializedJsonMessageConverter jsonMessageConverter,
+            CborMessageConverter cborMessageConverter) {
         this.webSocket = webSocket;
+        this.topicSubscriptions = topicSubscriptions;
+        this.jsonMessageConverter = jsonMessageConverter;
+        this.cborMessageConverter = cborMessageConverter;
+    }
+
+    /**
+     * Topic where the same messages as in the given topic are published as CBOR. Messages are sent with the
+     * {@code application/octet-stream} content type, which makes them go in binary WebSocket frames. SockJS only
+     * supports text frames so CBOR topics require a raw WebSocket connection.
+     *
+     * @param topic JSON topic
+     * @return CBOR topic
+     */
+    static String cborTopic(String topic) {
+        return CBOR_TOPIC_PREFIX + topic.substring(TOPIC_PREFIX.length());
+    }
+
+    /**
+     * Broadcast the plan as a delta against the previously broadcast plan.
+     *
+     * @param routingPlan new routing plan
+     */
+    synchronized void broadcast(RoutingPlan routingPlan) {
+        PortableRoutingPlan lastPlan = lastSnapshot.plan();
+        PortableRoutingPlan plan = PortableRoutingPlanFactory.fromRoutingPlan(routingPlan, lastPlan.getSequence() + 1);
+        PortableRoutingPlanDelta delta = PortableRoutingPlanDelta.between(lastPlan, plan);
+        lastSnapshot = newSnapshot(plan);
+        // Sending while holding the lock guarantees that deltas are broadcast in sequence order.
+        publish(TOPIC_ROUTE, () -> delta);
+        publish(TOPIC_ROUTE_POLYLINE, delta::withEncodedTracks);
+        for (TrackDetail detail : TrackDetail.values()) {
+            publish(detail.topic(), () -> delta.mapRoutes(route -> simplified(route, detail)));
+        }
+    }
+
+    private void publish(String topic, Supplier<Object> message) {
+        String cborTopic = cborTopic(topic);
+        boolean json = topicSubscriptions.hasSubscribers(topic);
+        boolean cbor = topicSubscriptions.hasSubscribers(cborTopic);
+        if (!json && !cbor) {
+            return;
+        }
+        Object payload = message.get();
+        if (json) {
+            webSocket.convertAndSend(topic, payload);
+        }
+        if (cbor) {
+            webSocket.convertAndSend(cborTopic, cborMessageConverter.toCbor(payload));
+        }
+    }
+
+    /**
+     * Snapshot of the latest plan that has been broadcast. Deltas broadcast after this call are based on it.
+     *
+     * @return latest snapshot
+     */
+    synchronized PlanSnapshot snapshot() {
+        return lastSnapshot;
+    }
+
+    /**
+     * {@link #snapshot() Latest plan} serialized to JSON for the given topic.
+     *
+     * @param topic JSON topic, for example {@link #TOPIC_ROUTE}
+     * @return serialized plan
+     */
+    SerializedJson jsonSnapshot(String topic) {
+        return new SerializedJson(json(snapshot(), topic));
+    }
+
+    /**
+     * {@link #snapshot() Latest plan} serialized to CBOR for the given topic.
+     *
+     * @param topic JSON topic, for example {@link #TOPIC_ROUTE}
+     * @return serialized plan
+     */
+    byte[] cborSnapshot(String topic) {
+        return cbor(snapshot(), topic);
+    }
+
+    /**
+     * Serialize the snapshot to JSON in the format published to the given topic. The result is cached in the snapshot.
+     *
+     * @param snapshot snapshot
+     * @param topic JSON topic
+     * @return UTF-8 encoded JSON, must not be modified
+     */
+    byte[] json(PlanSnapshot snapshot, String topic) {
+        return snapshot.payload(topic, () -> jsonMessageConverter.toJson(format(snapshot.plan(), topic)));
+    }
+
+    /**
+     * Serialize the snapshot to CBOR in the format published to the given topic. The result is cached in the snapshot.
+     *
+     * @param snapshot snapshot
+     * @param topic JSON topic
+     * @return CBOR bytes, must not be modified
+     */
+    byte[] cbor(PlanSnapshot snapshot, String topic) {
+        return snapshot.payload(
+                cborTopic(topic),
+                () -> cborMessageConverter.toCbor(format(snapshot.plan(), topic)));
+    }
+
+    /**
+     * Convert the plan to the format published to the given topic.
+     *
+     * @param plan plan with full tracks
+     * @param topic JSON topic
+     * @return plan in the topic's format
+     * @throws IllegalArgumentException if the topic isn't a route topic
+     */
+    synchronized PortableRoutingPlan format(PortableRoutingPlan plan, String topic) {
+        if (TOPIC_ROUTE.equals(topic)) {
+            return plan;
+        }
+        if (TOPIC_ROUTE_POLYLINE.equals(topic)) {
+            return plan.withEncodedTracks();
+        }
+        for (TrackDetail detail : TrackDetail.values()) {
+            if (detail.topic().equals(topic)) {
+                return plan.mapRoutes(route -> simplified(route, detail));
+            }
+        }
+        throw new IllegalArgumentException("Unknown route topic: " + topic);
+    }
+
+    private PlanSnapshot newSnapshot(PortableRoutingPlan plan) {
+        return new PlanSnapshot(plan, "\"" + instanceId + "-" + plan.getSequence() + "\"");
     }
 
-    @Override
-    public void consumePlan(RoutingPlan routingPlan) {
-        webSocket.convertAndSend(TOPIC_ROUTE, PortableRoutingPlanFactory.fromRoutingPlan(routingPlan));
+    private PortableRoute simplified(PortableRoute route, TrackDetail detail) {
+        return simplifiedTrackCache.simplify(route, detail).withEncodedTrack();
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+import org.optaweb.vehiclerouting.service.route.RoutingPlanSummaryConsumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts routing plan summaries to clients that only display totals, such as wallboards and KPI widgets.
+ * Summaries don't contain locations or tracks so they are sent in full every time.
+ */
+@Component
+class WebSocketRoutingPlanSummarySender implements RoutingPlanSummaryConsumer {
+
+    static final String TOPIC_ROUTE_SUMMARY = "/topic/route/summary";
+
+    private final SimpMessagingTemplate webSocket;
+    private final TopicSubscriptions topicSubscriptions;
+    private volatile PortableRoutingPlanSummary lastSummary =
+            PortableRoutingPlanSummary.fromRoutingPlanSummary(RoutingPlanSummary.empty());
+
+    @Autowired
+    WebSocketRoutingPlanSummarySender(SimpMessagingTemplate webSocket, TopicSubscriptions topicSubscriptions) {
+        this.webSocket = webSocket;
+        this.topicSubscriptions = topicSubscriptions;
+    }
+
+    @Override
+    public void consumeSummary(RoutingPlanSummary summary) {
+        lastSummary = PortableRoutingPlanSummary.fromRoutingPlanSummary(summary);
+        if (topicSubscriptions.hasSubscribers(TOPIC_ROUTE_SUMMARY)) {
+            webSocket.convertAndSend(TOPIC_ROUTE_SUMMARY, lastSummary);
+        }
+    }
+
+    /**
+     * Latest summary.
+     *
+     * @return latest summary
+     */
+    PortableRoutingPlanSummary summary() {
+        return lastSummary;
+    }
+}
@@ -75,7 +75,9 @@ public class DemoService {
         routingProblem.depot().ifPresent(depot -> addWithRetry(depot.coordinates(), depot.description()));
 
         // TODO start randomizing only after using all available cities (=> reproducibility for small demos)
-        routingProblem.visits().forEach(visit -> addWithRetry(visit.coordinates(), visit.description()));
+        // Add visits in bulk and retry those that have been discarded one by one.
+        locationService.createLocations(routingProblem.visits())
+                .forEach(visit -> addWithRetry(visit.coordinates(), visit.description()));
         routingProblem.vehicles().forEach(vehicleService::createVehicle);
     }
 
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Maps location IDs to column indexes of the distance matrix.
+ * <p>
+ * Lookups are lock-free and don't allocate, so they can be used on the solver's score calculation hot path.
+ * Updates replace the whole (immutable) table, which costs O(N). That's negligible compared to calculating
+ * the N distances needed to add a location to the matrix. Locations added in bulk are put in one update so that
+ * the table is copied once per bulk, not once per location. Updates must not be called concurrently.
+ */
+class ColumnIndexes {
+
+    static final int NONE = -1;
+
+    private volatile Table table = Table.EMPTY;
+
+    /**
+     * Column index of the given location.
+     *
+     * @param locationId location ID
+     * @return column index or {@link #NONE} if the location isn't in the matrix
+     */
+    int indexOf(long locationId) {
+        return table.indexOf(locationId);
+    }
+
+    void put(long locationId, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index (" + index + ") must not be negative");
+        }
+        table = table.with(locationId, index);
+    }
+
+    /**
+     * Put multiple indexes with a single table update.
+     *
+     * @param locationIds location IDs
+     * @param indexes column indexes in the order of location IDs
+     */
+    void putAll(long[] locationIds, int[] indexes) {
+        if (locationIds.length != indexes.length) {
+            throw new IllegalArgumentException(
+                    "Location IDs (" + locationIds.length + ") and indexes (" + indexes.length + ") must match");
+        }
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Index (" + index + ") must not be negative");
+            }
+        }
+        table = table.withAll(locationIds, indexes);
+    }
+
+    void remove(long locationId) {
+        table = table.without(locationId);
+    }
+
+    void clear() {
+        table = Table.EMPTY;
+    }
+
+    int size() {
+        return table.size;
+    }
+
+    @Override
+    public String toString() {
+        return table.toString();
+    }
+
+    /**
+     * Immutable open-addressing hash table with primitive keys and values.
+     */
+    private static final class Table {
+
+        private static final Table EMPTY = new Table(new long[1], newValues(1), 0);
+
+        private final long[] keys;
+        // NONE marks an empty slot.
+        private final int[] values;
+        private final int size;
+        private final int mask;
+
+        private Table(long[] keys, int[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.mask = keys.length - 1;
+        }
+
+        int indexOf(long key) {
+            int slot = slot(key);
+            while (values[slot] != NONE) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NONE;
+        }
+
+        Table with(long key, int value) {
+            Table copy = copyWithout(key, indexOf(key) == NONE ? size + 1 : size);
+            copy.insertNew(key, value);
+            return copy;
+        }
+
+        Table withAll(long[] addedKeys, int[] addedValues) {
+            long[] sortedKeys = addedKeys.clone();
+            Arrays.sort(sortedKeys);
+            int distinctKeys = 0;
+            for (int i = 0; i < sortedKeys.length; i++) {
+                if (i == 0 || sortedKeys[i] != sortedKeys[i - 1]) {
+                    distinctKeys++;
+                }
+            }
+            int keptKeys = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != NONE && Arrays.binarySearch(sortedKeys, keys[i]) < 0) {
+                    keptKeys++;
+                }
+            }
+            int newSize = keptKeys + distinctKeys;
+            int capacity = capacity(newSize);
+            Table copy = new Table(new long[capacity], newValues(capacity), newSize);
+            forEachEntry((k, v) -> {
+                if (Arrays.binarySearch(sortedKeys, k) < 0) {
+                    copy.insertNew(k, v);
+                }
+            });
+            for (int i = 0; i < addedKeys.length; i++) {
+                copy.insertOrReplace(addedKeys[i], addedValues[i]);
+            }
+            return copy;
+        }
+
+        Table without(long key) {
+            if (indexOf(key) == NONE) {
+                return this;
+            }
+            return copyWithout(key, size - 1);
+        }
+
+        private Table copyWithout(long key, int newSize) {
+            int capacity = capacity(newSize);
+            Table copy = new Table(new long[capacity], newValues(capacity), newSize);
+            forEachEntry((k, v) -> {
+                if (k != key) {
+                    copy.insertNew(k, v);
+                }
+            });
+            return copy;
+        }
+
+        // Only used while building a new table, before it's published.
+        private void insertNew(long key, int value) {
+            int slot = slot(key);
+            while (values[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        // Only used while building a new table, before it's published.
+        private void insertOrReplace(long key, int value) {
+            int slot = slot(key);
+            while (values[slot] != NONE && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void forEachEntry(EntryConsumer consumer) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != NONE) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private static int capacity(int size) {
+            // Keep the load factor at or below 0.5 to keep probe sequences short.
+            return Integer.highestOneBit(Math.max(2, size * 2) - 1) << 1;
+        }
+
+        private static int[] newValues(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, NONE);
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return IntStream.range(0, values.length)
+                    .filter(i -> values[i] != NONE)
+                    .mapToObj(i -> Long.toString(keys[i]))
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer {
+
+        void accept(long key, int value);
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.optaweb.vehiclerouting.service.distance;
 
+import java.util.List;
+
 import org.optaweb.vehiclerouting.domain.Coordinates;
 
 /**
@@ -32,4 +34,48 @@ public interface DistanceCalculator {
      * @throws DistanceCalculationException when the distance between given coordinates cannot be calculated
      */
     long travelTimeMillis(Coordinates from, Coordinates to);
+
+    /**
+     * Identifies the data (for example a road network graph) that travel times are calculated from.
+     * Travel times calculated from different data versions may differ.
+     *
+     * @return data version
+     */
+    default String dataVersion() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Calculate travel times from one origin to many destinations. Implementations should override this if they
+     * can calculate all travel times at once more efficiently than one by one.
+     *
+     * @param from origin
+     * @param destinations destinations
+     * @return travel times in milliseconds in the order of destinations
+     * @throws DistanceCalculationException when the distance to any of the destinations cannot be calculated
+     */
+    default long[] travelTimesMillisFrom(Coordinates from, List<Coordinates> destinations) {
+        long[] travelTimes = new long[destinations.size()];
+        for (int i = 0; i < travelTimes.length; i++) {
+            travelTimes[i] = travelTimeMillis(from, destinations.get(i));
+        }
+        return travelTimes;
+    }
+
+    /**
+     * Calculate travel times from many origins to one destination. Implementations should override this if they
+     * can calculate all travel times at once more efficiently than one by one.
+     *
+     * @param origins origins
+     * @param to destination
+     * @return travel times in milliseconds in the order of origins
+     * @throws DistanceCalculationException when the distance from any of the origins cannot be calculated
+     */
+    default long[] travelTimesMillisTo(List<Coordinates> origins, Coordinates to) {
+        long[] travelTimes = new long[origins.size()];
+        for (int i = 0; i < travelTimes.length; i++) {
+            travelTimes[i] = travelTimeMillis(origins.get(i), to);
+        }
+        return travelTimes;
+    }
 }
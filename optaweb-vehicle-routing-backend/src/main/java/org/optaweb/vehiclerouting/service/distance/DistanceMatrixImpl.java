@@ -16,11 +16,24 @@
 
 package org.optaweb.vehiclerouting.service.distance;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
 import org.optaweb.vehiclerouting.service.location.DistanceMatrix;
 import org.optaweb.vehiclerouting.service.location.DistanceMatrixRow;
@@ -32,12 +45,24 @@ class DistanceMatrixImpl implements DistanceMatrix {
 
     private final DistanceCalculator distanceCalculator;
     private final DistanceRepository distanceRepository;
-    private final Map<Location, Map<Long, Distance>> matrix = new HashMap<>();
+    private final DistanceWriter distanceWriter;
+    private final Map<Location, DistanceMatrixRowImpl> matrix = new HashMap<>();
+    // Location ID -> column index. Shared by all rows. Read from the solver thread.
+    private ColumnIndexes columnIndexes = new ColumnIndexes();
+    // Indexes of released columns that can be reused by new locations.
+    private final Deque<Integer> freeIndexes = new ArrayDeque<>();
+    // Released locations are queued from other threads and reclaimed on the thread that adds locations.
+    private final Queue<Location> releasedLocations = new ConcurrentLinkedQueue<>();
+    private int nextIndex = 0;
 
     @Autowired
-    DistanceMatrixImpl(DistanceCalculator distanceCalculator, DistanceRepository distanceRepository) {
+    DistanceMatrixImpl(
+            DistanceCalculator distanceCalculator,
+            DistanceRepository distanceRepository,
+            DistanceWriter distanceWriter) {
         this.distanceCalculator = distanceCalculator;
         this.distanceRepository = distanceRepository;
+        this.distanceWriter = distanceWriter;
     }
 
     @Override
@@ -46,66 +71,235 @@ class DistanceMatrixImpl implements DistanceMatrix {
         // We're adding a whole new row with distances from the new location to existing ones.
         // We're also creating a new column by "appending" a new cell to each existing row.
         // This new column contains distances from each existing location to the new one.
+        // Each location gets a dense index, which is both its row's index and its column index in other rows.
+        // Indexes of released columns are reused before the matrix grows.
+        reclaimReleasedColumns();
+        int newIndex = freeIndexes.isEmpty() ? nextIndex : freeIndexes.peek();
+        DistanceMatrixRowImpl distancesToOthers = new DistanceMatrixRowImpl( // the new row
+                newLocation,
+                newIndex,
+                columnIndexes,
+                nextIndex + 1);
+
+        // Grow existing rows sequentially so that the parallel tasks below only write to distinct array cells.
+        List<DistanceMatrixRowImpl> existingRows = new ArrayList<>(matrix.values());
+        existingRows.forEach(distanceRow -> distanceRow.ensureCapacity(newIndex));
 
-        // The map must be thread-safe because:
-        // - we're updating it from the parallel stream below
-        // - it is accessed from solver thread!
-        Map<Long, Distance> distancesToOthers = new ConcurrentHashMap<>(); // the new row
-
-        // distance to self is 0
-        distancesToOthers.put(newLocation.id(), Distance.ZERO);
-
-        // For all entries (rows) in the matrix:
-        matrix.entrySet().stream().parallel().forEach(distanceRow -> {
-            // Entry key is the existing (other) location.
-            Location other = distanceRow.getKey();
-            // Entry value is the data (cells) in the row (distances from the entry key location to any other).
-            Map<Long, Distance> distancesFromOther = distanceRow.getValue();
-            // Add a new cell to the row with the distance from the entry key location to the new location
-            // (results in a new column at the end of the loop).
-            distancesFromOther.put(newLocation.id(), calculateOrRestoreDistance(other, newLocation));
-            // Add a cell to the new distance's row.
-            distancesToOthers.put(other.id(), calculateOrRestoreDistance(newLocation, other));
-        });
+        // Fill the new row (distances from the new location to existing ones) and the new column (distances from
+        // existing locations to the new one). This overwrites stale cells if the column is being reused.
+        // Each of them needs a single one-to-many calculation.
+        Map<Location, Map<Location, Long>> calculatedDistances = new ConcurrentHashMap<>();
+        runInParallel(Arrays.asList(
+                () -> fillRow(distancesToOthers, existingRows, calculatedDistances),
+                () -> fillColumn(distancesToOthers, existingRows, calculatedDistances)));
+        saveCalculatedDistances(calculatedDistances);
 
+        // Only register the new location when all distances have been calculated successfully.
+        columnIndexes.put(newLocation.id(), newIndex);
         matrix.put(newLocation, distancesToOthers);
+        if (newIndex == nextIndex) {
+            nextIndex++;
+        } else {
+            freeIndexes.pop();
+        }
 
-        return locationId -> {
-            if (!distancesToOthers.containsKey(locationId)) {
-                throw new IllegalArgumentException(
-                        "Distance from " + newLocation
-                                + " to " + locationId
-                                + " hasn't been recorded.\n"
-                                + "We only know distances to " + distancesToOthers.keySet());
+        return distancesToOthers;
+    }
+
+    @Override
+    public Map<Location, DistanceMatrixRow> addLocations(Collection<Location> newLocations) {
+        if (newLocations.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // Assign indexes to all new locations up front. Released columns are reused first, then the matrix grows.
+        // Nothing is committed until all distances have been calculated successfully.
+        reclaimReleasedColumns();
+        Iterator<Integer> freeIndexIterator = freeIndexes.iterator();
+        int grownNextIndex = nextIndex;
+        int reusedIndexCount = 0;
+        int[] newIndexes = new int[newLocations.size()];
+        for (int i = 0; i < newIndexes.length; i++) {
+            if (freeIndexIterator.hasNext()) {
+                newIndexes[i] = freeIndexIterator.next();
+                reusedIndexCount++;
+            } else {
+                newIndexes[i] = grownNextIndex++;
             }
-            return distancesToOthers.get(locationId);
-        };
+        }
+        int capacity = grownNextIndex;
+
+        List<DistanceMatrixRowImpl> existingRows = new ArrayList<>(matrix.values());
+        List<DistanceMatrixRowImpl> newRows = new ArrayList<>(newLocations.size());
+        int i = 0;
+        for (Location newLocation : newLocations) {
+            newRows.add(new DistanceMatrixRowImpl(newLocation, newIndexes[i++], columnIndexes, capacity));
+        }
+        existingRows.forEach(distanceRow -> distanceRow.ensureCapacity(capacity - 1));
+
+        List<DistanceMatrixRowImpl> allRows = new ArrayList<>(existingRows);
+        allRows.addAll(newRows);
+        Map<Location, Map<Location, Long>> calculatedDistances = new ConcurrentHashMap<>();
+
+        // Each new location needs two one-to-many calculations, one for its row (all columns)
+        // and one for its column in existing rows. No two tasks write to the same array cell.
+        List<Runnable> tasks = new ArrayList<>(2 * newRows.size());
+        for (DistanceMatrixRowImpl newRow : newRows) {
+            tasks.add(() -> fillRow(newRow, allRows, calculatedDistances));
+            tasks.add(() -> fillColumn(newRow, existingRows, calculatedDistances));
+        }
+        runInParallel(tasks);
+        saveCalculatedDistances(calculatedDistances);
+
+        Map<Location, DistanceMatrixRow> addedRows = new LinkedHashMap<>();
+        long[] newLocationIds = new long[newRows.size()];
+        i = 0;
+        for (DistanceMatrixRowImpl newRow : newRows) {
+            newLocationIds[i++] = newRow.location().id();
+            matrix.put(newRow.location(), newRow);
+            addedRows.put(newRow.location(), newRow);
+        }
+        columnIndexes.putAll(newLocationIds, newIndexes);
+        for (int reused = 0; reused < reusedIndexCount; reused++) {
+            freeIndexes.pop();
+        }
+        nextIndex = grownNextIndex;
+        return addedRows;
     }
 
-    private Distance calculateOrRestoreDistance(Location from, Location to) {
-        long distance = distanceRepository.getDistance(from, to);
-        if (distance < 0) {
-            distance = distanceCalculator.travelTimeMillis(from.coordinates(), to.coordinates());
-            distanceRepository.saveDistance(from, to, distance);
+    /**
+     * Fill the row with distances to the given columns. Distances are restored from the repository in one query.
+     * Missing distances are calculated at once and collected in {@code calculatedDistances}.
+     */
+    private void fillRow(
+            DistanceMatrixRowImpl row,
+            List<DistanceMatrixRowImpl> columns,
+            Map<Location, Map<Location, Long>> calculatedDistances) {
+        List<DistanceMatrixRowImpl> others = without(columns, row);
+        if (others.isEmpty()) {
+            return;
+        }
+        Map<Location, Long> restoredDistances = distanceRepository.getDistancesFrom(row.location(), locations(others));
+        List<DistanceMatrixRowImpl> missing = new ArrayList<>();
+        for (DistanceMatrixRowImpl column : others) {
+            Long distance = restoredDistances.get(column.location());
+            if (distance == null) {
+                missing.add(column);
+            } else {
+                row.put(column.index(), distance);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long[] distances = distanceCalculator.travelTimesMillisFrom(row.location().coordinates(), coordinates(missing));
+        for (int i = 0; i < distances.length; i++) {
+            DistanceMatrixRowImpl column = missing.get(i);
+            row.put(column.index(), distances[i]);
+            calculatedDistances(calculatedDistances, row.location()).put(column.location(), distances[i]);
+        }
+    }
+
+    /**
+     * Fill the column with distances from the given rows. Distances are restored from the repository in one query.
+     * Missing distances are calculated at once and collected in {@code calculatedDistances}.
+     */
+    private void fillColumn(
+            DistanceMatrixRowImpl column,
+            List<DistanceMatrixRowImpl> rows,
+            Map<Location, Map<Location, Long>> calculatedDistances) {
+        List<DistanceMatrixRowImpl> others = without(rows, column);
+        if (others.isEmpty()) {
+            return;
+        }
+        Map<Location, Long> restoredDistances = distanceRepository.getDistancesTo(locations(others), column.location());
+        List<DistanceMatrixRowImpl> missing = new ArrayList<>();
+        for (DistanceMatrixRowImpl row : others) {
+            Long distance = restoredDistances.get(row.location());
+            if (distance == null) {
+                missing.add(row);
+            } else {
+                row.put(column.index(), distance);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long[] distances = distanceCalculator.travelTimesMillisTo(
+                coordinates(missing),
+                column.location().coordinates());
+        for (int i = 0; i < distances.length; i++) {
+            DistanceMatrixRowImpl row = missing.get(i);
+            row.put(column.index(), distances[i]);
+            calculatedDistances(calculatedDistances, row.location()).put(column.location(), distances[i]);
+        }
+    }
+
+    private static List<DistanceMatrixRowImpl> without(List<DistanceMatrixRowImpl> rows, DistanceMatrixRowImpl row) {
+        return rows.stream().filter(other -> other != row).collect(toList());
+    }
+
+    private static List<Location> locations(List<DistanceMatrixRowImpl> rows) {
+        return rows.stream().map(DistanceMatrixRowImpl::location).collect(toList());
+    }
+
+    private static List<Coordinates> coordinates(List<DistanceMatrixRowImpl> rows) {
+        return rows.stream().map(row -> row.location().coordinates()).collect(toList());
+    }
+
+    private static Map<Location, Long> calculatedDistances(
+            Map<Location, Map<Location, Long>> calculatedDistances,
+            Location from) {
+        return calculatedDistances.computeIfAbsent(from, location -> new ConcurrentHashMap<>());
+    }
+
+    private static void runInParallel(List<Runnable> tasks) {
+        tasks.stream().parallel().forEach(Runnable::run);
+    }
+
+    private void saveCalculatedDistances(Map<Location, Map<Location, Long>> calculatedDistances) {
+        // Persist all newly calculated distances in the background.
+        if (!calculatedDistances.isEmpty()) {
+            distanceWriter.saveDistances(calculatedDistances);
         }
-        return Distance.ofMillis(distance);
     }
 
     @Override
     public void removeLocation(Location location) {
         // Remove the distance matrix row (distances from the removed location to others).
         matrix.remove(location);
-        // TODO also remove the "column" of the matrix (distances from others to the removed location) to avoid memory
-        //  leak.
-        //  But this probably requires making DistanceMatrixRow immutable (otherwise there's a risk of NPEs in solver)
-        //  and update PlanningLocations' distance maps through problem fact changes.
-        distanceRepository.deleteDistances(location);
+        // The column (distances from others to the removed location) must stay readable until the location
+        // is released because the solver may still ask for distances to the removed location.
+        distanceWriter.deleteDistances(location);
+    }
+
+    @Override
+    public void releaseLocation(Location location) {
+        releasedLocations.add(location);
+    }
+
+    private void reclaimReleasedColumns() {
+        Location released;
+        while ((released = releasedLocations.poll()) != null) {
+            int index = columnIndexes.indexOf(released.id());
+            // Ignore locations that have been cleared or re-added in the meantime.
+            if (index != ColumnIndexes.NONE && !matrix.containsKey(released)) {
+                columnIndexes.remove(released.id());
+                freeIndexes.push(index);
+            }
+        }
     }
 
     @Override
     public void clear() {
         matrix.clear();
-        distanceRepository.deleteAll();
+        // Rows that have already been handed out keep the old index map. Empty it so that they don't resolve
+        // locations added after this point to stale cells.
+        columnIndexes.clear();
+        columnIndexes = new ColumnIndexes();
+        freeIndexes.clear();
+        releasedLocations.clear();
+        nextIndex = 0;
+        distanceWriter.deleteAll();
     }
 
     /**
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.service.location.DistanceMatrixRow;
+
+/**
+ * Matrix row that stores distances in a primitive array. Each cell is addressed by the column index of the target
+ * location. Column indexes are shared by all rows of the matrix.
+ */
+class DistanceMatrixRowImpl implements DistanceMatrixRow {
+
+    static final long MISSING = -1;
+
+    private final Location location;
+    private final int index;
+    private final ColumnIndexes columnIndexes;
+    // Replaced (never modified in place) when the row grows so that the solver thread never sees a partial copy.
+    private volatile long[] cells;
+
+    DistanceMatrixRowImpl(Location location, int index, ColumnIndexes columnIndexes, int initialCapacity) {
+        this.location = Objects.requireNonNull(location);
+        this.index = index;
+        this.columnIndexes = Objects.requireNonNull(columnIndexes);
+        this.cells = newCells(Math.max(initialCapacity, index + 1));
+        this.cells[index] = 0; // distance to self is 0
+    }
+
+    Location location() {
+        return location;
+    }
+
+    int index() {
+        return index;
+    }
+
+    /**
+     * Make sure the row can hold a cell with the given column index. Must not be called concurrently with
+     * {@link #put(int, long)}.
+     *
+     * @param columnIndex column index
+     */
+    void ensureCapacity(int columnIndex) {
+        long[] current = cells;
+        if (columnIndex < current.length) {
+            return;
+        }
+        long[] grown = newCells(Math.max(columnIndex + 1, current.length * 2));
+        System.arraycopy(current, 0, grown, 0, current.length);
+        cells = grown;
+    }
+
+    /**
+     * Set distance to the location with the given column index. The row must have enough
+     * {@link #ensureCapacity(int) capacity}. Cells with different column indexes may be set concurrently.
+     *
+     * @param columnIndex column index of the target location
+     * @param millis distance in milliseconds
+     */
+    void put(int columnIndex, long millis) {
+        cells[columnIndex] = millis;
+    }
+
+    @Override
+    public Distance distanceTo(long locationId) {
+        return Distance.ofMillis(millisTo(locationId));
+    }
+
+    @Override
+    public long millisTo(long locationId) {
+        int columnIndex = columnIndexes.indexOf(locationId);
+        long millis = columnIndex == ColumnIndexes.NONE ? MISSING : cellAt(columnIndex);
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                    "Distance from " + location
+                            + " to " + locationId
+                            + " hasn't been recorded.\n"
+                            + "We only know distances to " + columnIndexes);
+        }
+        return millis;
+    }
+
+    private long cellAt(int columnIndex) {
+        long[] current = cells;
+        return columnIndex < current.length ? current[columnIndex] : MISSING;
+    }
+
+    private static long[] newCells(int capacity) {
+        long[] cells = new long[capacity];
+        Arrays.fill(cells, MISSING);
+        return cells;
+    }
+}
@@ -16,6 +16,9 @@
 
 package org.optaweb.vehiclerouting.service.distance;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.optaweb.vehiclerouting.domain.Location;
 
 /**
@@ -25,8 +28,33 @@ public interface DistanceRepository {
 
     void saveDistance(Location from, Location to, long distance);
 
+    /**
+     * Save multiple distances in one batch.
+     *
+     * @param distances distances in milliseconds from origins (outer key) to destinations (inner key)
+     */
+    void saveDistances(Map<Location, Map<Location, Long>> distances);
+
     long getDistance(Location from, Location to);
 
+    /**
+     * Get distances from one location to many destinations at once.
+     *
+     * @param from origin
+     * @param destinations destinations
+     * @return distances in milliseconds keyed by destination, destinations with unknown distance are missing
+     */
+    Map<Location, Long> getDistancesFrom(Location from, Collection<Location> destinations);
+
+    /**
+     * Get distances from many origins to one location at once.
+     *
+     * @param origins origins
+     * @param to destination
+     * @return distances in milliseconds keyed by origin, origins with unknown distance are missing
+     */
+    Map<Location, Long> getDistancesTo(Collection<Location> origins, Location to);
+
     void deleteDistances(Location location);
 
     void deleteAll();
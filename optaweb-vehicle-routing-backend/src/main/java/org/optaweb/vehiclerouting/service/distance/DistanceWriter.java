@@ -0,0 +1,280 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import static org.optaweb.vehiclerouting.BackgroundTasksConfig.BACKGROUND_TASK_SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PreDestroy;
+
+import org.optaweb.vehiclerouting.BackgroundTasksConfig;
+import org.optaweb.vehiclerouting.domain.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind stage between the distance matrix and the {@link DistanceRepository}.
+ * <p>
+ * Modifications are queued and applied in order by a task running on the
+ * {@link BackgroundTasksConfig background task scheduler}. At most one such task runs at a time and it ends when
+ * the queue is empty. Consecutive saves are merged into one batch. The number of distances waiting to be saved is
+ * bounded: callers block when the limit is reached. All queued modifications are applied before the writer shuts down.
+ * <p>
+ * Reads go directly to the repository without looking at the queue. That's safe because queued distances always
+ * belong to locations that are already in the matrix and the matrix only restores distances of new locations.
+ */
+@Component
+class DistanceWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistanceWriter.class);
+    static final int DEFAULT_MAX_PENDING_DISTANCES = 100_000;
+
+    private final DistanceRepository distanceRepository;
+    private final int maxPendingDistances;
+    private final Semaphore pendingDistances;
+    private final BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+    private final Executor executor;
+    private final Object lock = new Object();
+    // guarded by lock
+    private boolean draining = false;
+    private volatile boolean closed = false;
+
+    @Autowired
+    DistanceWriter(
+            DistanceRepository distanceRepository,
+            @Qualifier(BACKGROUND_TASK_SCHEDULER) Executor executor) {
+        this(distanceRepository, executor, DEFAULT_MAX_PENDING_DISTANCES);
+    }
+
+    DistanceWriter(DistanceRepository distanceRepository, Executor executor, int maxPendingDistances) {
+        if (maxPendingDistances < 1) {
+            throw new IllegalArgumentException("Max pending distances (" + maxPendingDistances + ") must be positive");
+        }
+        this.distanceRepository = distanceRepository;
+        this.executor = executor;
+        this.maxPendingDistances = maxPendingDistances;
+        this.pendingDistances = new Semaphore(maxPendingDistances);
+    }
+
+    /**
+     * Queue distances to be saved. Blocks if too many distances are waiting to be saved.
+     *
+     * @param distances distances in milliseconds from origins (outer key) to destinations (inner key)
+     */
+    void saveDistances(Map<Location, Map<Location, Long>> distances) {
+        int count = distances.values().stream().mapToInt(Map::size).sum();
+        if (count == 0) {
+            return;
+        }
+        // A batch larger than the limit waits until the queue is empty.
+        int permits = Math.min(count, maxPendingDistances);
+        pendingDistances.acquireUninterruptibly(permits);
+        enqueue(new SaveOperation(distances, permits));
+    }
+
+    void deleteDistances(Location location) {
+        enqueue(new Operation(0) {
+            @Override
+            void apply() {
+                distanceRepository.deleteDistances(location);
+            }
+        });
+    }
+
+    void deleteAll() {
+        enqueue(new Operation(0) {
+            @Override
+            void apply() {
+                distanceRepository.deleteAll();
+            }
+        });
+    }
+
+    /**
+     * Wait until all modifications queued so far have been applied.
+     */
+    void flush() {
+        CountDownLatch flushed = new CountDownLatch(1);
+        enqueue(new Operation(0) {
+            @Override
+            void apply() {
+                flushed.countDown();
+            }
+        });
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting modifications and apply all queued modifications.
+     */
+    @PreDestroy
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (lock) {
+            while (draining) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    // the running task applies the rest of the queue
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        // Apply operations that raced with closing and were queued after the last task ended.
+        List<Operation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        apply(remaining);
+    }
+
+    private void enqueue(Operation operation) {
+        if (closed) {
+            operation.release();
+            throw new IllegalStateException("Distance writer is closed");
+        }
+        queue.add(operation);
+        synchronized (lock) {
+            if (draining) {
+                // the running task picks up the operation
+                return;
+            }
+            draining = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor rejected the distance writer task, writing distances on the calling thread", e);
+            drain();
+        }
+    }
+
+    /**
+     * Apply queued operations until the queue is empty.
+     */
+    private void drain() {
+        List<Operation> operations = new ArrayList<>();
+        while (true) {
+            queue.drainTo(operations);
+            if (operations.isEmpty()) {
+                synchronized (lock) {
+                    // checked under the lock so that an operation queued meanwhile either sees this task running
+                    // or starts a new one
+                    if (queue.isEmpty()) {
+                        draining = false;
+                        lock.notifyAll();
+                        return;
+                    }
+                }
+                continue;
+            }
+            apply(operations);
+            operations.clear();
+        }
+    }
+
+    /**
+     * Apply operations in order.
+     */
+    private void apply(List<Operation> operations) {
+        for (Operation operation : merge(operations)) {
+            try {
+                operation.apply();
+            } catch (RuntimeException e) {
+                // Distances that haven't been saved will be calculated again next time they are needed.
+                logger.error("Failed to write distances", e);
+            } finally {
+                operation.release();
+            }
+        }
+    }
+
+    /**
+     * Merge consecutive saves into one batch. Other operations keep their position.
+     */
+    private List<Operation> merge(List<Operation> operations) {
+        List<Operation> merged = new ArrayList<>(operations.size());
+        SaveOperation batch = null;
+        for (Operation operation : operations) {
+            if (operation instanceof SaveOperation) {
+                if (batch == null) {
+                    batch = new SaveOperation(new HashMap<>(), 0);
+                    merged.add(batch);
+                }
+                batch.add((SaveOperation) operation);
+            } else {
+                batch = null;
+                merged.add(operation);
+            }
+        }
+        return merged;
+    }
+
+    private abstract class Operation {
+
+        int permits;
+
+        Operation(int permits) {
+            this.permits = permits;
+        }
+
+        abstract void apply();
+
+        void release() {
+            pendingDistances.release(permits);
+        }
+    }
+
+    private class SaveOperation extends Operation {
+
+        private final Map<Location, Map<Location, Long>> distances;
+
+        SaveOperation(Map<Location, Map<Location, Long>> distances, int permits) {
+            super(permits);
+            this.distances = distances;
+        }
+
+        void add(SaveOperation other) {
+            other.distances.forEach((from, row) -> distances.computeIfAbsent(from, k -> new HashMap<>()).putAll(row));
+            permits += other.permits;
+        }
+
+        @Override
+        void apply() {
+            distanceRepository.saveDistances(distances);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package org.optaweb.vehiclerouting.service.location;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.optaweb.vehiclerouting.domain.Location;
 
 /**
@@ -25,7 +28,33 @@ public interface DistanceMatrix {
 
     DistanceMatrixRow addLocation(Location location);
 
+    /**
+     * Add multiple locations at once. Distances between the new locations and all other locations are calculated
+     * in one parallel pass and newly calculated distances are persisted in one batch. This is much faster than
+     * adding the locations one by one.
+     * <p>
+     * If any distance cannot be calculated, none of the locations is added.
+     *
+     * @param locations new locations
+     * @return distance matrix rows of the new locations (in the iteration order of the given collection)
+     */
+    Map<Location, DistanceMatrixRow> addLocations(Collection<Location> locations);
+
+    /**
+     * Remove the location's row from the matrix. The location's column stays readable until it is
+     * {@link #releaseLocation(Location) released} because the optimizer may still read distances to the location.
+     *
+     * @param location removed location
+     */
     void removeLocation(Location location);
 
+    /**
+     * Release the removed location's column so that it can be reused by another location. Call this when the
+     * optimizer no longer reads distances to the location. May be called from any thread.
+     *
+     * @param location removed location
+     */
+    void releaseLocation(Location location);
+
     void clear();
 }
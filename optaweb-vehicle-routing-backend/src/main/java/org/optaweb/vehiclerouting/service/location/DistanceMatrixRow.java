@@ -30,4 +30,15 @@ public interface DistanceMatrixRow {
      * @return time it takes to travel to the given location
      */
     Distance distanceTo(long locationId);
+
+    /**
+     * Distance in milliseconds from this row's location to the given location. Unlike {@link #distanceTo(long)},
+     * implementations should not allocate any objects because this is called from the solver's score calculation.
+     *
+     * @param locationId target location
+     * @return time in milliseconds it takes to travel to the given location
+     */
+    default long millisTo(long locationId) {
+        return distanceTo(locationId).millis();
+    }
 }
@@ -18,12 +18,17 @@ package org.optaweb.vehiclerouting.service.location;
 
 import static java.util.Comparator.comparingLong;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.domain.LocationData;
 import org.optaweb.vehiclerouting.service.error.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +72,69 @@ public class LocationService {
         return submitToPlanner(Objects.requireNonNull(location));
     }
 
+    /**
+     * Create multiple locations at once. Distances are calculated in bulk, which is much faster than creating
+     * the locations one by one. If the bulk calculation fails, locations are submitted one by one so that only
+     * the locations with unreachable coordinates are discarded.
+     *
+     * @param locationData data of new locations
+     * @return data of locations that have been discarded (empty if all locations have been created)
+     */
+    public synchronized List<LocationData> createLocations(List<LocationData> locationData) {
+        List<Location> locations = new ArrayList<>(locationData.size());
+        for (LocationData data : locationData) {
+            locations.add(repository.createLocation(data.coordinates(), data.description()));
+        }
+        List<LocationData> discarded = new ArrayList<>();
+        Set<Location> failed = submitToPlanner(locations);
+        for (int i = 0; i < locations.size(); i++) {
+            if (failed.contains(locations.get(i))) {
+                discarded.add(locationData.get(i));
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Add multiple existing locations at once. Distances are calculated in bulk.
+     *
+     * @param locations existing locations
+     */
+    public synchronized void addLocations(List<Location> locations) {
+        submitToPlanner(Objects.requireNonNull(locations));
+    }
+
+    private Set<Location> submitToPlanner(List<Location> locations) {
+        Map<Location, DistanceMatrixRow> distanceMatrixRows;
+        try {
+            distanceMatrixRows = distanceMatrix.addLocations(locations);
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to calculate distances for {} locations in bulk, submitting them one by one",
+                    locations.size(), e);
+            Set<Location> failed = new HashSet<>();
+            for (Location location : locations) {
+                if (!submitToPlanner(location)) {
+                    failed.add(location);
+                }
+            }
+            return failed;
+        }
+        try {
+            optimizer.bulkEdit(() -> locations.forEach(
+                    location -> optimizer.addLocation(location, distanceMatrixRows.get(location))));
+        } catch (Exception e) {
+            logger.error("Failed to submit {} locations to the optimizer, they will be discarded", locations.size(), e);
+            eventPublisher.publishEvent(new ErrorEvent(
+                    this,
+                    "Failed to submit " + locations.size() + " locations to the optimizer,"
+                            + " they will be discarded.\n" + e.toString()));
+            locations.forEach(location -> repository.removeLocation(location.id()));
+            return new HashSet<>(locations);
+        }
+        return new HashSet<>();
+    }
+
     private boolean submitToPlanner(Location location) {
         try {
             DistanceMatrixRow distanceMatrixRow = distanceMatrix.addLocation(location);
@@ -109,6 +177,8 @@ public class LocationService {
         optimizer.removeLocation(removedLocation);
         repository.removeLocation(id);
         distanceMatrix.removeLocation(removedLocation);
+        // The solver reads distances to the removed location until it processes the removal.
+        optimizer.runWhenChangesApplied(() -> distanceMatrix.releaseLocation(removedLocation));
     }
 
     public synchronized void removeAll() {
@@ -37,4 +37,20 @@ public interface RouteOptimizer {
     void removeAllVehicles();
 
     void changeCapacity(Vehicle vehicle);
+
+    /**
+     * Apply all changes requested by the given edits together. Use this to add or remove many locations or vehicles
+     * at once. The optimizer restarts once after all the edits instead of after each of them.
+     *
+     * @param edits code that requests changes using other methods of the optimizer
+     */
+    void bulkEdit(Runnable edits);
+
+    /**
+     * Run the callback once the optimizer has applied all changes requested so far. From that point on, the optimizer
+     * no longer reads distances to removed locations.
+     *
+     * @param callback callback (may run on a different thread)
+     */
+    void runWhenChangesApplied(Runnable callback);
 }
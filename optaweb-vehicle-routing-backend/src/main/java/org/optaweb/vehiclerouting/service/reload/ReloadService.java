@@ -51,6 +51,6 @@ public class ReloadService {
     @EventListener
     public synchronized void reload(ApplicationStartedEvent event) {
         vehicleRepository.vehicles().forEach(vehicleService::addVehicle);
-        locationRepository.locations().forEach(locationService::addLocation);
+        locationService.addLocations(locationRepository.locations());
     }
 }
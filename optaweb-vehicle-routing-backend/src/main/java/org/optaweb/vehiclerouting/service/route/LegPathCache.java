@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.route;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+
+/**
+ * Bounded cache of paths between pairs of locations. When the cache is full, the least recently used path is evicted.
+ * <p>
+ * Paths are keyed by location IDs. A location never changes its coordinates so a cached path stays valid until
+ * one of its locations is removed.
+ */
+class LegPathCache {
+
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final Map<Leg, List<Coordinates>> paths;
+
+    LegPathCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity (" + capacity + ") must be positive");
+        }
+        this.capacity = capacity;
+        this.paths = new LinkedHashMap<Leg, List<Coordinates>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Leg, List<Coordinates>> eldest) {
+                return size() > LegPathCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the cached path between two locations or calculate it and put it in the cache.
+     * The path is calculated outside of the cache lock.
+     *
+     * @param from origin
+     * @param to destination
+     * @param pathSupplier calculates the path if it isn't cached
+     * @return path from origin to destination
+     */
+    List<Coordinates> get(Location from, Location to, Supplier<List<Coordinates>> pathSupplier) {
+        Leg leg = new Leg(from.id(), to.id());
+        List<Coordinates> path;
+        synchronized (paths) {
+            path = paths.get(leg);
+        }
+        if (path == null) {
+            path = Objects.requireNonNull(pathSupplier.get());
+            synchronized (paths) {
+                paths.put(leg, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Evict all paths that start or end at one of the given locations.
+     *
+     * @param locationIds IDs of removed locations
+     */
+    void removeLocations(Collection<Long> locationIds) {
+        if (locationIds.isEmpty()) {
+            return;
+        }
+        synchronized (paths) {
+            paths.keySet().removeIf(leg -> locationIds.contains(leg.fromId) || locationIds.contains(leg.toId));
+        }
+    }
+
+    int size() {
+        synchronized (paths) {
+            return paths.size();
+        }
+    }
+
+    private static final class Leg {
+
+        private final long fromId;
+        private final long toId;
+
+        private Leg(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Leg leg = (Leg) o;
+            return fromId == leg.fromId &&
+                    toId == leg.toId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromId, toId);
+        }
+    }
+}
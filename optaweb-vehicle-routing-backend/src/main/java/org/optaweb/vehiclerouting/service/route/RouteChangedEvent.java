@@ -30,6 +30,7 @@ import org.springframework.context.ApplicationEvent;
  */
 public class RouteChangedEvent extends ApplicationEvent {
 
+    private final long revision;
     private final Distance distance;
     private final List<Long> vehicleIds;
     private final Long depotId;
@@ -40,6 +41,7 @@ public class RouteChangedEvent extends ApplicationEvent {
      * Create a new ApplicationEvent.
      *
      * @param source the object on which the event initially occurred (never {@code null})
+     * @param revision revision of the planning problem that the routes solve
      * @param distance total distance of all vehicle routes
      * @param vehicleIds vehicle IDs
      * @param depotId depot ID (may be {@code null} if there are no locations)
@@ -48,12 +50,14 @@ public class RouteChangedEvent extends ApplicationEvent {
      */
     public RouteChangedEvent(
             Object source,
+            long revision,
             Distance distance,
             List<Long> vehicleIds,
             Long depotId,
             List<Long> visitIds,
             Collection<ShallowRoute> routes) {
         super(source);
+        this.revision = revision;
         this.distance = Objects.requireNonNull(distance);
         this.vehicleIds = Objects.requireNonNull(vehicleIds);
         this.depotId = depotId; // may be null (no depot)
@@ -61,6 +65,15 @@ public class RouteChangedEvent extends ApplicationEvent {
         this.routes = Objects.requireNonNull(routes);
     }
 
+    /**
+     * Revision of the planning problem. Increases with every modification of the problem.
+     *
+     * @return problem revision
+     */
+    public long revision() {
+        return revision;
+    }
+
     /**
      * IDs of all vehicles.
      *
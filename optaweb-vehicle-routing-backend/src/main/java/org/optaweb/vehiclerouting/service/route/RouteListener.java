@@ -22,8 +22,10 @@ import static org.optaweb.vehiclerouting.Profiles.NOT_TEST;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
@@ -53,6 +55,9 @@ public class RouteListener implements ApplicationListener<RouteChangedEvent> {
     private final RoutingPlanConsumer routingPlanConsumer;
     private final VehicleRepository vehicleRepository;
     private final LocationRepository locationRepository;
+    // Most legs of the new best solution were already in the previous one.
+    private final LegPathCache legPathCache = new LegPathCache(LegPathCache.DEFAULT_CAPACITY);
+    private Set<Long> plannedLocationIds = Collections.emptySet();
 
     // TODO maybe remove state from the service and get best route from a repository
     private RoutingPlan bestRoutingPlan;
@@ -75,9 +80,8 @@ public class RouteListener implements ApplicationListener<RouteChangedEvent> {
         // TODO persist the best solution
         Location depot = event.depotId().flatMap(locationRepository::find).orElse(null);
         try {
-            // TODO Introduce problem revision (every modification increases revision number, event will only
-            //  be published if revision numbers match) to avoid looking for missing/extra vehicles/visits.
-            //  This will also make it possible to get rid of the try-catch approach.
+            // Outdated events are discarded by the publisher but the problem can still change while the event
+            // is being processed.
             Map<Long, Vehicle> vehicleMap = event.vehicleIds().stream()
                     .collect(toMap(vehicleId -> vehicleId, this::findVehicleById));
             Map<Long, Location> visitMap = event.visitIds().stream()
@@ -100,6 +104,7 @@ public class RouteListener implements ApplicationListener<RouteChangedEvent> {
                     depot,
                     new ArrayList<>(visitMap.values()),
                     routes);
+            evictRemovedLocations(depot, visitMap.keySet());
             routingPlanConsumer.consumePlan(bestRoutingPlan);
         } catch (IllegalStateException e) {
             logger.warn("Discarding an outdated routing plan: {}", e.toString());
@@ -116,6 +121,20 @@ public class RouteListener implements ApplicationListener<RouteChangedEvent> {
                 "Location {id=" + id + "} not found in the repository"));
     }
 
+    /**
+     * Evict cached paths of locations that were in the previous routing plan but aren't in the current one.
+     */
+    private void evictRemovedLocations(Location depot, Set<Long> visitIds) {
+        Set<Long> locationIds = new HashSet<>(visitIds);
+        if (depot != null) {
+            locationIds.add(depot.id());
+        }
+        Set<Long> removedLocationIds = new HashSet<>(plannedLocationIds);
+        removedLocationIds.removeAll(locationIds);
+        legPathCache.removeLocations(removedLocationIds);
+        plannedLocationIds = locationIds;
+    }
+
     private List<List<Coordinates>> track(Location depot, List<Location> route) {
         if (route.isEmpty()) {
             return Collections.emptyList();
@@ -128,7 +147,10 @@ public class RouteListener implements ApplicationListener<RouteChangedEvent> {
         for (int i = 0; i < itinerary.size() - 1; i++) {
             Location fromLocation = itinerary.get(i);
             Location toLocation = itinerary.get(i + 1);
-            List<Coordinates> path = router.getPath(fromLocation.coordinates(), toLocation.coordinates());
+            List<Coordinates> path = legPathCache.get(
+                    fromLocation,
+                    toLocation,
+                    () -> router.getPath(fromLocation.coordinates(), toLocation.coordinates()));
             paths.add(path);
         }
         return paths;
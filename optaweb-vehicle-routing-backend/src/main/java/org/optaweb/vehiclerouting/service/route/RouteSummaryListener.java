@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.route;
+
+import static java.util.stream.Collectors.toList;
+import static org.optaweb.vehiclerouting.Profiles.NOT_TEST;
+
+import java.util.List;
+
+import org.optaweb.vehiclerouting.domain.RouteSummary;
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Summarizes route updates emitted by optimization plugin.
+ * <p>
+ * The summary is computed from IDs, distances and loads carried by the {@link RouteChangedEvent} alone. No
+ * repository lookups and no {@link Router#getPath routing} are needed so this listener runs before
+ * the {@link RouteListener} and the summary isn't delayed by track computation. A summary is only passed on
+ * when it differs from the previous one.
+ */
+@Service
+@Profile(NOT_TEST)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RouteSummaryListener implements ApplicationListener<RouteChangedEvent> {
+
+    private final RoutingPlanSummaryConsumer summaryConsumer;
+    private RoutingPlanSummary lastSummary = RoutingPlanSummary.empty();
+
+    @Autowired
+    RouteSummaryListener(RoutingPlanSummaryConsumer summaryConsumer) {
+        this.summaryConsumer = summaryConsumer;
+    }
+
+    @Override
+    public void onApplicationEvent(RouteChangedEvent event) {
+        RoutingPlanSummary summary = summarize(event);
+        if (summary.equals(lastSummary)) {
+            return;
+        }
+        lastSummary = summary;
+        summaryConsumer.consumeSummary(summary);
+    }
+
+    static RoutingPlanSummary summarize(RouteChangedEvent event) {
+        List<RouteSummary> routes = event.routes().stream()
+                .map(route -> new RouteSummary(route.vehicleId, route.visitIds.size(), route.load, route.distance))
+                .collect(toList());
+        return new RoutingPlanSummary(event.distance(), event.vehicleIds().size(), event.visitIds().size(), routes);
+    }
+}
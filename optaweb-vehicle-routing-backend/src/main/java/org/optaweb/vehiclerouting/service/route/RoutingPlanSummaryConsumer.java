@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.route;
+
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+
+/**
+ * Consumes routing plan summaries.
+ */
+public interface RoutingPlanSummaryConsumer {
+
+    /**
+     * Consume a routing plan summary.
+     *
+     * @param summary routing plan summary
+     */
+    void consumeSummary(RoutingPlanSummary summary);
+}
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import org.optaweb.vehiclerouting.domain.Distance;
+
 // TODO maybe remove this once we fork planning domain from optaplanner-examples
 // because then we can hold a reference to the original location
 
@@ -49,6 +51,14 @@ public class ShallowRoute {
      * Visit IDs (immutable, never {@code null}).
      */
     public final List<Long> visitIds;
+    /**
+     * Travel time from the depot through all visits and back to the depot (never {@code null}).
+     */
+    public final Distance distance;
+    /**
+     * Total demand of all visits.
+     */
+    public final int load;
 
     /**
      * Create shallow route.
@@ -56,11 +66,15 @@ public class ShallowRoute {
      * @param vehicleId vehicle ID
      * @param depotId depot ID
      * @param visitIds visit IDs
+     * @param distance travel time of the whole route
+     * @param load total demand of all visits
      */
-    public ShallowRoute(long vehicleId, long depotId, List<Long> visitIds) {
+    public ShallowRoute(long vehicleId, long depotId, List<Long> visitIds, Distance distance, int load) {
         this.vehicleId = vehicleId;
         this.depotId = depotId;
         this.visitIds = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(visitIds)));
+        this.distance = Objects.requireNonNull(distance);
+        this.load = load;
     }
 
     @Override
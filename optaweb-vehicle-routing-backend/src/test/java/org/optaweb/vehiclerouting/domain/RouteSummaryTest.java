@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+import org.junit.jupiter.api.Test;
+
+class RouteSummaryTest {
+
+    @Test
+    void constructor_args_must_be_valid() {
+        assertThatNullPointerException().isThrownBy(() -> new RouteSummary(1, 0, 0, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RouteSummary(1, -1, 0, Distance.ZERO));
+    }
+
+    @Test
+    void equal_summaries_should_be_equal() {
+        RouteSummary summary = new RouteSummary(1, 2, 3, Distance.ofMillis(4));
+        assertThat(summary)
+                .isEqualTo(new RouteSummary(1, 2, 3, Distance.ofMillis(4)))
+                .hasSameHashCodeAs(new RouteSummary(1, 2, 3, Distance.ofMillis(4)))
+                .isNotEqualTo(new RouteSummary(1, 2, 4, Distance.ofMillis(4)))
+                .isNotEqualTo(new RouteSummary(1, 2, 3, Distance.ofMillis(5)));
+    }
+}
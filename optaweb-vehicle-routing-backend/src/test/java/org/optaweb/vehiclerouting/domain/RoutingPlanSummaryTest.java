@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RoutingPlanSummaryTest {
+
+    @Test
+    void constructor_args_must_not_be_null() {
+        assertThatNullPointerException().isThrownBy(() -> new RoutingPlanSummary(null, 0, 0, Collections.emptyList()));
+        assertThatNullPointerException().isThrownBy(() -> new RoutingPlanSummary(Distance.ZERO, 0, 0, null));
+    }
+
+    @Test
+    void summary_should_not_be_affected_by_changes_of_route_list() {
+        List<RouteSummary> routes = new ArrayList<>();
+        routes.add(new RouteSummary(1, 2, 3, Distance.ofMillis(4)));
+        RoutingPlanSummary summary = new RoutingPlanSummary(Distance.ofMillis(4), 1, 2, routes);
+        routes.clear();
+        assertThat(summary.routes()).hasSize(1);
+    }
+
+    @Test
+    void empty_summary() {
+        RoutingPlanSummary empty = RoutingPlanSummary.empty();
+        assertThat(empty.distance()).isEqualTo(Distance.ZERO);
+        assertThat(empty.vehicleCount()).isZero();
+        assertThat(empty.visitCount()).isZero();
+        assertThat(empty.routes()).isEmpty();
+        assertThat(empty).isEqualTo(RoutingPlanSummary.empty());
+    }
+}
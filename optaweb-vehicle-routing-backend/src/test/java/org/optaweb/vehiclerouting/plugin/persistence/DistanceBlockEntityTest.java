@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.optaweb.vehiclerouting.plugin.persistence.DistanceBlockEntity.BLOCK_SIZE;
+
+import org.junit.jupiter.api.Test;
+
+class DistanceBlockEntityTest {
+
+    @Test
+    void new_block_should_be_empty() {
+        DistanceBlockEntity block = new DistanceBlockEntity(new DistanceBlockKey(1, 0));
+        assertThat(block.getKey().getFromId()).isEqualTo(1);
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            assertThat(block.getDistance(i)).isNegative();
+        }
+    }
+
+    @Test
+    void new_block_should_be_persisted_without_merging() {
+        DistanceBlockEntity block = new DistanceBlockEntity(new DistanceBlockKey(1, 0));
+        assertThat(block.getId()).isEqualTo(block.getKey());
+        assertThat(block.isNew()).isTrue();
+        block.markNotNew();
+        assertThat(block.isNew()).isFalse();
+    }
+
+    @Test
+    void should_set_and_clear_distances_in_block() {
+        DistanceBlockEntity block = new DistanceBlockEntity(new DistanceBlockKey(1, 2));
+        int first = 2 * BLOCK_SIZE;
+        int last = 3 * BLOCK_SIZE - 1;
+        block.setDistance(first, 0);
+        block.setDistance(last, Long.MAX_VALUE);
+
+        assertThat(block.getDistance(first)).isZero();
+        assertThat(block.getDistance(last)).isEqualTo(Long.MAX_VALUE);
+        assertThat(block.getDistance(first + 1)).isNegative();
+
+        block.clearDistance(last);
+        assertThat(block.getDistance(last)).isNegative();
+    }
+
+    @Test
+    void block_index_should_group_consecutive_columns() {
+        assertThat(DistanceBlockEntity.blockIndex(0)).isZero();
+        assertThat(DistanceBlockEntity.blockIndex(BLOCK_SIZE - 1)).isZero();
+        assertThat(DistanceBlockEntity.blockIndex(BLOCK_SIZE)).isOne();
+    }
+
+    @Test
+    void should_reject_invalid_arguments() {
+        DistanceBlockEntity block = new DistanceBlockEntity(new DistanceBlockKey(1, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> block.setDistance(BLOCK_SIZE, -1));
+        // column index in another block
+        assertThatIllegalArgumentException().isThrownBy(() -> block.setDistance(0, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> block.getDistance(2 * BLOCK_SIZE));
+        assertThatIllegalArgumentException().isThrownBy(() -> DistanceBlockEntity.blockIndex(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new DistanceBlockKey(1, -1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new DistanceColumnEntity(-1, 1));
+    }
+}
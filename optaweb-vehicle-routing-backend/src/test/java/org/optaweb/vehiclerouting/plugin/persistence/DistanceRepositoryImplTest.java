@@ -17,10 +17,18 @@
 package org.optaweb.vehiclerouting.plugin.persistence;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -32,16 +40,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class DistanceRepositoryImplTest {
 
     @Mock
     private DistanceCrudRepository crudRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
     @InjectMocks
     private DistanceRepositoryImpl repository;
     @Captor
     private ArgumentCaptor<DistanceEntity> distanceEntityArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rowsArgumentCaptor;
 
     private final Location from = new Location(1, Coordinates.valueOf(7, -4.0));
     private final Location to = new Location(2, Coordinates.valueOf(5, 9.0));
@@ -57,6 +70,42 @@ class DistanceRepositoryImplTest {
         assertThat(distanceEntity.getKey().getToId()).isEqualTo(to.id());
     }
 
+    @Test
+    void should_insert_distances_in_jdbc_batches() {
+        Map<Location, Map<Location, Long>> distances = new HashMap<>();
+        distances.put(from, Collections.singletonMap(to, 12L));
+        distances.put(to, Collections.singletonMap(from, 21L));
+        repository.saveDistances(distances);
+        verify(jdbcTemplate).batchUpdate(
+                eq(DistanceRepositoryImpl.INSERT_SQL),
+                rowsArgumentCaptor.capture(),
+                eq(DistanceRepositoryImpl.BATCH_SIZE),
+                any());
+        assertThat(rowsArgumentCaptor.getValue()).containsExactlyInAnyOrder(
+                new Object[] { from.id(), to.id(), 12L },
+                new Object[] { to.id(), from.id(), 21L });
+        verifyNoInteractions(crudRepository);
+    }
+
+    @Test
+    void should_fetch_distances_from_location_in_one_query() {
+        Location other = new Location(3, Coordinates.valueOf(1, 1));
+        when(crudRepository.findByKeyFromId(from.id())).thenReturn(Arrays.asList(
+                new DistanceEntity(new DistanceKey(from.id(), to.id()), 12L),
+                new DistanceEntity(new DistanceKey(from.id(), other.id()), 13L),
+                // not requested
+                new DistanceEntity(new DistanceKey(from.id(), 4), 14L)));
+        assertThat(repository.getDistancesFrom(from, Arrays.asList(to, other)))
+                .containsOnly(entry(to, 12L), entry(other, 13L));
+    }
+
+    @Test
+    void should_fetch_distances_to_location_in_one_query() {
+        when(crudRepository.findByKeyToId(to.id())).thenReturn(Collections.singletonList(
+                new DistanceEntity(new DistanceKey(from.id(), to.id()), 12L)));
+        assertThat(repository.getDistancesTo(Collections.singletonList(from), to)).containsOnly(entry(from, 12L));
+    }
+
     @Test
     void should_return_distance_when_entity_is_found() {
         DistanceKey distanceKey = new DistanceKey(from.id(), to.id());
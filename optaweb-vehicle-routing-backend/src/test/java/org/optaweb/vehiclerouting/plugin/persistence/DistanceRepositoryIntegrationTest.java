@@ -17,6 +17,12 @@
 package org.optaweb.vehiclerouting.plugin.persistence;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +31,7 @@ import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @DataJpaTest
@@ -33,11 +40,13 @@ class DistanceRepositoryIntegrationTest {
 
     @Autowired
     private DistanceCrudRepository crudRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private DistanceRepositoryImpl repository;
 
     @BeforeEach
     void setUp() {
-        repository = new DistanceRepositoryImpl(crudRepository);
+        repository = new DistanceRepositoryImpl(crudRepository, jdbcTemplate);
     }
 
     @Test
@@ -94,4 +103,25 @@ class DistanceRepositoryIntegrationTest {
 
         assertThat(repository.getDistance(location1, location2)).isNegative();
     }
+
+    @Test
+    void should_insert_distances_in_batch_and_fetch_rows_and_columns() {
+        Location location1 = new Location(1, Coordinates.valueOf(7, -4.0));
+        Location location2 = new Location(2, Coordinates.valueOf(5, 9.0));
+        Location location3 = new Location(3, Coordinates.valueOf(1, 1.0));
+        Map<Location, Map<Location, Long>> distances = new HashMap<>();
+        distances.put(location1, new HashMap<>());
+        distances.get(location1).put(location2, 12L);
+        distances.get(location1).put(location3, 13L);
+        distances.put(location2, Collections.singletonMap(location1, 21L));
+
+        repository.saveDistances(distances);
+
+        assertThat(crudRepository.count()).isEqualTo(3);
+        assertThat(repository.getDistance(location1, location3)).isEqualTo(13L);
+        assertThat(repository.getDistancesFrom(location1, Arrays.asList(location2, location3)))
+                .containsOnly(entry(location2, 12L), entry(location3, 13L));
+        assertThat(repository.getDistancesTo(Arrays.asList(location2, location3), location1))
+                .containsOnly(entry(location2, 21L));
+    }
 }
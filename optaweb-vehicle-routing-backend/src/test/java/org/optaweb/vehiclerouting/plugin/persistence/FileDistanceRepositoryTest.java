@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+
+class FileDistanceRepositoryTest {
+
+    private static final long DATABASE = 42;
+
+    @TempDir
+    Path tempDir;
+
+    private final Location from = new Location(1, Coordinates.valueOf(7, -4.0));
+    private final Location to = new Location(2, Coordinates.valueOf(5, 9.0));
+
+    @Test
+    void should_save_and_restore_distances_of_the_same_data_version() throws IOException {
+        FileDistanceRepository repository = new FileDistanceRepository(tempDir, "graph@2020-01-01", DATABASE);
+        repository.saveDistance(from, to, 12);
+        repository.saveDistances(Collections.singletonMap(to, Collections.singletonMap(from, 21L)));
+        repository.close();
+
+        FileDistanceRepository reopened = new FileDistanceRepository(tempDir, "graph@2020-01-01", DATABASE);
+        assertThat(reopened.getDistance(from, to)).isEqualTo(12);
+        assertThat(reopened.getDistance(to, from)).isEqualTo(21);
+
+        reopened.deleteDistances(from);
+        assertThat(reopened.getDistance(from, to)).isNegative();
+        assertThat(reopened.getDistance(to, from)).isNegative();
+        reopened.close();
+    }
+
+    @Test
+    void should_discard_distances_of_other_data_versions() throws IOException {
+        FileDistanceRepository repository = new FileDistanceRepository(tempDir, "graph@2020-01-01", DATABASE);
+        repository.saveDistance(from, to, 12);
+        repository.close();
+
+        FileDistanceRepository newVersion = new FileDistanceRepository(tempDir, "graph@2020-02-02", DATABASE);
+        assertThat(newVersion.getDistance(from, to)).isNegative();
+        newVersion.close();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(tempDir.resolve(FileDistanceRepository.fileName("graph@2020-02-02")));
+        }
+    }
+
+    @Test
+    void should_discard_distances_from_another_database() throws IOException {
+        FileDistanceRepository repository = new FileDistanceRepository(tempDir, "graph@2020-01-01", DATABASE);
+        repository.saveDistance(from, to, 12);
+        repository.close();
+
+        // location IDs have been issued by a different database, so the same ID may identify a different location
+        FileDistanceRepository otherDatabase = new FileDistanceRepository(tempDir, "graph@2020-01-01", DATABASE + 1);
+        assertThat(otherDatabase.getDistance(from, to)).isNegative();
+        otherDatabase.close();
+    }
+
+    @Test
+    void file_name_should_be_safe() {
+        assertThat(FileDistanceRepository.fileName("belgium-latest@2020-03-04T05:06:07+0100"))
+                .isEqualTo("distances-belgium-latest_2020-03-04T05_06_07_0100.bin");
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedDistanceTableTest {
+
+    private static final long OWNER = 0x0123_4567_89AB_CDEFL;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void should_put_get_and_overwrite_distances() throws IOException {
+        try (MappedDistanceTable table = MappedDistanceTable.open(tempDir.resolve("t.bin"), OWNER)) {
+            assertThat(table.get(1, 2)).isNegative();
+            table.put(1, 2, 0);
+            table.put(2, 1, 21);
+            assertThat(table.get(1, 2)).isZero();
+            assertThat(table.get(2, 1)).isEqualTo(21);
+            table.put(2, 1, 210);
+            assertThat(table.get(2, 1)).isEqualTo(210);
+            assertThat(table.size()).isEqualTo(2);
+            assertThatIllegalArgumentException().isThrownBy(() -> table.put(3, 4, -1));
+        }
+    }
+
+    @Test
+    void should_keep_distances_when_reopened() throws IOException {
+        Path file = tempDir.resolve("t.bin");
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            table.put(1, 2, 12);
+        }
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            assertThat(table.size()).isEqualTo(1);
+            assertThat(table.get(1, 2)).isEqualTo(12);
+        }
+    }
+
+    @Test
+    void should_grow_and_keep_distances() throws IOException {
+        int count = MappedDistanceTable.INITIAL_CAPACITY * 2;
+        Path file = tempDir.resolve("t.bin");
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            for (int i = 0; i < count; i++) {
+                table.put(i, i + 1, i);
+            }
+            assertThat(table.size()).isEqualTo(count);
+        }
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            assertThat(table.size()).isEqualTo(count);
+            for (int i = 0; i < count; i++) {
+                assertThat(table.get(i, i + 1)).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void should_remove_distances_from_and_to_location() throws IOException {
+        try (MappedDistanceTable table = MappedDistanceTable.open(tempDir.resolve("t.bin"), OWNER)) {
+            table.put(1, 2, 12);
+            table.put(2, 1, 21);
+            table.put(2, 3, 23);
+            table.put(3, 1, 31);
+
+            table.removeAll(1);
+
+            assertThat(table.size()).isEqualTo(1);
+            assertThat(table.get(1, 2)).isNegative();
+            assertThat(table.get(2, 1)).isNegative();
+            assertThat(table.get(3, 1)).isNegative();
+            assertThat(table.get(2, 3)).isEqualTo(23);
+            // removed entries can be added again
+            table.put(1, 2, 120);
+            assertThat(table.get(1, 2)).isEqualTo(120);
+
+            table.clear();
+            assertThat(table.size()).isZero();
+            assertThat(table.get(2, 3)).isNegative();
+        }
+    }
+
+    @Test
+    void should_remove_distances_of_location_after_table_has_grown() throws IOException {
+        int count = MappedDistanceTable.INITIAL_CAPACITY;
+        try (MappedDistanceTable table = MappedDistanceTable.open(tempDir.resolve("t.bin"), OWNER)) {
+            for (int i = 1; i <= count; i++) {
+                table.put(0, i, i);
+                table.put(i, 0, i);
+                table.put(i, i + 1, i);
+            }
+            assertThat(table.size()).isEqualTo(count * 3);
+
+            table.removeAll(0);
+
+            assertThat(table.size()).isEqualTo(count);
+            assertThat(table.get(0, 1)).isNegative();
+            assertThat(table.get(count, 0)).isNegative();
+            assertThat(table.get(count, count + 1)).isEqualTo(count);
+            // removing a location that has no distances does nothing
+            table.removeAll(0);
+            table.removeAll(-5);
+            assertThat(table.size()).isEqualTo(count);
+        }
+    }
+
+    @Test
+    void should_discard_table_of_another_owner() throws IOException {
+        Path file = tempDir.resolve("t.bin");
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            table.put(1, 2, 12);
+        }
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER + 1)) {
+            assertThat(table.size()).isZero();
+            assertThat(table.get(1, 2)).isNegative();
+        }
+    }
+
+    @Test
+    void should_replace_invalid_file_with_empty_table() throws IOException {
+        Path file = tempDir.resolve("t.bin");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        try (MappedDistanceTable table = MappedDistanceTable.open(file, OWNER)) {
+            assertThat(table.size()).isZero();
+            table.put(1, 2, 12);
+            assertThat(table.get(1, 2)).isEqualTo(12);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+class PackedDistanceRepositoryIntegrationTest {
+
+    @Autowired
+    private DistanceBlockCrudRepository blockRepository;
+    @Autowired
+    private DistanceColumnCrudRepository columnRepository;
+    private PackedDistanceRepository repository;
+
+    private final Location location1 = new Location(1, Coordinates.valueOf(7, -4.0));
+    private final Location location2 = new Location(2, Coordinates.valueOf(5, 9.0));
+    private final Location location3 = new Location(3, Coordinates.valueOf(1, 1.0));
+
+    @BeforeEach
+    void setUp() {
+        repository = new PackedDistanceRepository(blockRepository, columnRepository);
+    }
+
+    @Test
+    void should_return_saved_distance() {
+        long distance = 956766417;
+        repository.saveDistance(location1, location2, distance);
+        assertThat(repository.getDistance(location1, location2)).isEqualTo(distance);
+        assertThat(blockRepository.count()).isOne();
+        assertThat(columnRepository.count()).isOne();
+    }
+
+    @Test
+    void should_return_negative_number_when_distance_not_found() {
+        assertThat(repository.getDistance(location1, location2)).isNegative();
+        repository.saveDistance(location1, location3, 13);
+        assertThat(repository.getDistance(location1, location2)).isNegative();
+        assertThat(repository.getDistance(location2, location3)).isNegative();
+    }
+
+    @Test
+    void should_save_distances_in_one_block_per_origin_and_fetch_rows_and_columns() {
+        Map<Location, Map<Location, Long>> distances = new HashMap<>();
+        distances.put(location1, new HashMap<>());
+        distances.get(location1).put(location2, 12L);
+        distances.get(location1).put(location3, 13L);
+        distances.put(location2, Collections.singletonMap(location1, 21L));
+
+        repository.saveDistances(distances);
+
+        assertThat(blockRepository.count()).isEqualTo(2);
+        assertThat(columnRepository.count()).isEqualTo(3);
+        assertThat(repository.getDistance(location1, location3)).isEqualTo(13L);
+        assertThat(repository.getDistancesFrom(location1, Arrays.asList(location2, location3)))
+                .containsOnly(entry(location2, 12L), entry(location3, 13L));
+        assertThat(repository.getDistancesTo(Arrays.asList(location2, location3), location1))
+                .containsOnly(entry(location2, 21L));
+    }
+
+    @Test
+    void should_add_distances_to_existing_block() {
+        repository.saveDistance(location1, location2, 12);
+        repository.saveDistance(location1, location3, 13);
+
+        assertThat(blockRepository.count()).isOne();
+        assertThat(repository.getDistancesFrom(location1, Arrays.asList(location2, location3)))
+                .containsOnly(entry(location2, 12L), entry(location3, 13L));
+    }
+
+    @Test
+    void should_store_columns_in_separate_blocks() {
+        Map<Location, Long> row = new HashMap<>();
+        for (int i = 0; i <= DistanceBlockEntity.BLOCK_SIZE; i++) {
+            row.put(new Location(100 + i, Coordinates.valueOf(i, i)), (long) i);
+        }
+        repository.saveDistances(Collections.singletonMap(location1, row));
+
+        assertThat(blockRepository.count()).isEqualTo(2);
+        assertThat(repository.getDistancesFrom(location1, row.keySet())).isEqualTo(row);
+        row.forEach((to, distance) -> assertThat(repository.getDistancesTo(Collections.singletonList(location1), to))
+                .containsOnly(entry(location1, distance)));
+    }
+
+    @Test
+    void deleted_location_should_not_be_reachable_and_its_column_index_should_be_reused() {
+        repository.saveDistance(location2, location1, 21);
+        repository.saveDistance(location1, location2, 12);
+        repository.saveDistance(location3, location2, 32);
+        int deletedColumnIndex = columnRepository.findByLocationId(location2.id()).get().getColumnIndex();
+        assertThat(deletedColumnIndex).isEqualTo(columnRepository.findMaxColumnIndex());
+
+        repository.deleteDistances(location2);
+
+        assertThat(blockRepository.findByKeyFromId(location2.id())).isEmpty();
+        assertThat(columnRepository.findByLocationId(location2.id())).isEmpty();
+        assertThat(columnRepository.findById(deletedColumnIndex)).get()
+                .extracting(DistanceColumnEntity::getLocationId).isNull();
+        assertThat(repository.getDistance(location1, location2)).isNegative();
+        assertThat(repository.getDistancesTo(Arrays.asList(location1, location3), location2)).isEmpty();
+
+        // Location 3 reuses the released column. Cells of location 2 have been cleared so they are not visible.
+        repository.saveDistance(location2, location3, 23);
+        assertThat(columnRepository.findByLocationId(location3.id()).get().getColumnIndex())
+                .isEqualTo(deletedColumnIndex);
+        assertThat(repository.getDistance(location1, location3)).isNegative();
+        assertThat(repository.getDistancesTo(Arrays.asList(location1, location2), location3))
+                .containsOnly(entry(location2, 23L));
+        assertThat(columnRepository.findMaxColumnIndex()).isEqualTo(deletedColumnIndex);
+    }
+
+    @Test
+    void should_ignore_empty_input() {
+        repository.saveDistances(Collections.emptyMap());
+        repository.saveDistances(Collections.singletonMap(location1, Collections.emptyMap()));
+        assertThat(blockRepository.count()).isZero();
+        assertThat(repository.getDistancesFrom(location1, Collections.emptyList())).isEmpty();
+        assertThat(repository.getDistancesTo(Collections.emptyList(), location1)).isEmpty();
+    }
+
+    @Test
+    void delete_all() {
+        repository.saveDistance(location1, location2, 12);
+        repository.saveDistance(location2, location1, 21);
+
+        repository.deleteAll();
+
+        assertThat(blockRepository.count()).isZero();
+        assertThat(columnRepository.count()).isZero();
+        assertThat(columnRepository.findMaxColumnIndex()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LatestWinsMailboxTest {
+
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstMessageStarted = new CountDownLatch(1);
+    private final CountDownLatch firstMessageReleased = new CountDownLatch(1);
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "worker"));
+    private LatestWinsMailbox<String> mailbox;
+
+    @AfterEach
+    void tearDown() {
+        if (mailbox != null) {
+            mailbox.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void blockOnFirstMessage(String message) {
+        if (processed.isEmpty()) {
+            firstMessageStarted.countDown();
+            try {
+                firstMessageReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        processed.add(message);
+    }
+
+    @Test
+    void should_process_message_on_executor_thread() throws InterruptedException {
+        List<String> threadNames = new CopyOnWriteArrayList<>();
+        mailbox = new LatestWinsMailbox<>(message -> threadNames.add(Thread.currentThread().getName()), executor);
+
+        mailbox.post("a");
+        mailbox.awaitIdle();
+
+        assertThat(threadNames).containsExactly("worker");
+    }
+
+    @Test
+    void should_drop_superseded_messages_without_blocking_the_poster() throws InterruptedException {
+        mailbox = new LatestWinsMailbox<>(this::blockOnFirstMessage, executor);
+
+        mailbox.post("first");
+        assertThat(firstMessageStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        // the worker is busy, these must not block
+        mailbox.post("second");
+        mailbox.post("third");
+        mailbox.post("latest");
+        firstMessageReleased.countDown();
+        mailbox.awaitIdle();
+
+        assertThat(processed).containsExactly("first", "latest");
+    }
+
+    @Test
+    void should_keep_working_after_consumer_failure() throws InterruptedException {
+        mailbox = new LatestWinsMailbox<>(message -> {
+            if (message.equals("bad")) {
+                throw new IllegalStateException("failure");
+            }
+            processed.add(message);
+        }, executor);
+
+        mailbox.post("bad");
+        mailbox.awaitIdle();
+        mailbox.post("good");
+        mailbox.awaitIdle();
+
+        assertThat(processed).containsExactly("good");
+    }
+
+    @Test
+    void should_ignore_messages_posted_after_closing() throws InterruptedException {
+        mailbox = new LatestWinsMailbox<>(processed::add, executor);
+        mailbox.close();
+
+        mailbox.post("late");
+        mailbox.awaitIdle();
+
+        assertThat(processed).isEmpty();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaweb.vehiclerouting.plugin.planner.change.SetRevision;
+import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+class ProblemFactChangeBatcherTest {
+
+    private final BlockingQueue<List<ProblemFactChange<VehicleRoutingSolution>>> submitted =
+            new LinkedBlockingQueue<>();
+    private final ProblemFactChange<VehicleRoutingSolution> change1 = new SetRevision(1);
+    private final ProblemFactChange<VehicleRoutingSolution> change2 = new SetRevision(2);
+    private final ProblemFactChange<VehicleRoutingSolution> change3 = new SetRevision(3);
+    private ThreadPoolTaskScheduler taskScheduler;
+    private ProblemFactChangeBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        taskScheduler.shutdown();
+    }
+
+    private ProblemFactChangeBatcher batcher(Duration window) {
+        return new ProblemFactChangeBatcher(submitted::add, taskScheduler, window);
+    }
+
+    @Test
+    void window_must_not_be_negative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> batcher(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void zero_window_should_submit_each_change_immediately() {
+        batcher = batcher(Duration.ZERO);
+
+        batcher.add(change1);
+        batcher.add(change2);
+
+        assertThat(submitted).containsExactly(singletonList(change1), singletonList(change2));
+    }
+
+    @Test
+    void changes_added_within_window_should_be_submitted_together() throws InterruptedException {
+        batcher = batcher(Duration.ofSeconds(1));
+
+        batcher.add(change1);
+        batcher.add(change2);
+        batcher.add(change3);
+        assertThat(submitted).isEmpty();
+
+        assertThat(submitted.poll(10, TimeUnit.SECONDS)).containsExactly(change1, change2, change3);
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    void explicit_batch_should_hold_changes_until_outermost_batch_is_committed() {
+        batcher = batcher(Duration.ZERO);
+
+        batcher.begin();
+        batcher.add(change1);
+        batcher.begin();
+        batcher.add(change2);
+        batcher.flush(); // doesn't break the batch
+        batcher.commit();
+        assertThat(submitted).isEmpty();
+        batcher.add(change3);
+        batcher.commit();
+
+        assertThat(submitted).containsExactly(asList(change1, change2, change3));
+    }
+
+    @Test
+    void commit_without_begin_should_fail() {
+        batcher = batcher(Duration.ZERO);
+        assertThatIllegalStateException().isThrownBy(() -> batcher.commit());
+    }
+
+    @Test
+    void flush_should_submit_without_waiting_for_window() {
+        batcher = batcher(Duration.ofHours(1));
+
+        batcher.add(change1);
+        batcher.add(change2);
+        batcher.flush();
+
+        assertThat(submitted).containsExactly(asList(change1, change2));
+    }
+
+    @Test
+    void discarded_changes_should_not_be_submitted() throws InterruptedException {
+        batcher = batcher(Duration.ofMillis(10));
+
+        batcher.add(change1);
+        batcher.discard();
+        batcher.add(change2);
+
+        assertThat(submitted.poll(10, TimeUnit.SECONDS)).containsExactly(change2);
+        // the window of the discarded change has elapsed long ago
+        assertThat(submitted.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+}
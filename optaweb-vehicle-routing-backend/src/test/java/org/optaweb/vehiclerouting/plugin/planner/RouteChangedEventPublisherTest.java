@@ -22,15 +22,23 @@ import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocationFactory.testLocation;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory.testVehicle;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.fromLocation;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.testVisit;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.SolutionFactory.solutionFromVisits;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
@@ -49,13 +57,49 @@ class RouteChangedEventPublisherTest {
 
     @Mock
     private ApplicationEventPublisher publisher;
-    @InjectMocks
+    @Mock
+    private ProblemRevision problemRevision;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private RouteChangedEventPublisher routeChangedEventPublisher;
 
+    @BeforeEach
+    void setUp() {
+        routeChangedEventPublisher = new RouteChangedEventPublisher(publisher, problemRevision, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routeChangedEventPublisher.close();
+        executor.shutdownNow();
+    }
+
     @Test
     void should_covert_solution_to_event_and_publish_it() {
         routeChangedEventPublisher.publishSolution(SolutionFactory.emptySolution());
-        verify(publisher).publishEvent(any(RouteChangedEvent.class));
+        verify(publisher, timeout(10_000)).publishEvent(any(RouteChangedEvent.class));
+    }
+
+    @Test
+    void should_discard_outdated_solution() {
+        VehicleRoutingSolution solution = SolutionFactory.emptySolution();
+        solution.setRevision(3);
+        when(problemRevision.isOutdated(3)).thenReturn(true);
+
+        routeChangedEventPublisher.publishSolution(solution);
+
+        verify(problemRevision, timeout(10_000)).isOutdated(3);
+        routeChangedEventPublisher.close();
+        verify(publisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void event_should_carry_solution_revision() {
+        VehicleRoutingSolution solution = SolutionFactory.emptySolution();
+        solution.setRevision(42);
+
+        RouteChangedEvent event = RouteChangedEventPublisher.solutionToEvent(solution, this);
+
+        assertThat(event.revision()).isEqualTo(42);
     }
 
     @Test
@@ -115,9 +159,10 @@ class RouteChangedEventPublisherTest {
         long depotId = 1;
         long visitId1 = 2;
         long visitId2 = 3;
-        PlanningDepot depot = new PlanningDepot(testLocation(depotId));
-        PlanningVisit visit1 = testVisit(visitId1);
-        PlanningVisit visit2 = testVisit(visitId2);
+        // depot -10-> visit1 -20-> visit2 -30-> depot
+        PlanningDepot depot = new PlanningDepot(testLocation(depotId, location -> 10));
+        PlanningVisit visit1 = fromLocation(testLocation(visitId1, location -> 20), 4);
+        PlanningVisit visit2 = fromLocation(testLocation(visitId2, location -> 30), 5);
 
         VehicleRoutingSolution solution = solutionFromVisits(
                 asList(vehicle1, vehicle2),
@@ -152,6 +197,8 @@ class RouteChangedEventPublisherTest {
             assertThat(route.depotId).isEqualTo(depot.getId());
             // visits shouldn't include the depot
             assertThat(route.visitIds).containsExactly(visitId1, visitId2);
+            assertThat(route.distance).isEqualTo(Distance.ofMillis(10 + 20 + 30));
+            assertThat(route.load).isEqualTo(4 + 5);
         }
 
         assertThat(event.vehicleIds()).containsExactlyInAnyOrder(vehicleId1, vehicleId2);
@@ -22,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -35,8 +36,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Distance;
@@ -65,6 +68,8 @@ class RouteOptimizerImplTest {
     private SolverManager solverManager;
     @Mock
     private RouteChangedEventPublisher routeChangedEventPublisher;
+    @Spy
+    private ProblemRevision problemRevision = new ProblemRevision();
     @InjectMocks
     private RouteOptimizerImpl routeOptimizer;
 
@@ -495,6 +500,112 @@ class RouteOptimizerImplTest {
         assertThat(solution.getVisitList()).hasSize(2);
     }
 
+    @Test
+    void every_modification_should_increase_revision_of_published_solution() {
+        routeOptimizer.addVehicle(testVehicle(1));
+        assertThat(verifyPublishingPreliminarySolution().getRevision()).isEqualTo(1);
+
+        clearInvocations(routeChangedEventPublisher);
+        routeOptimizer.addLocation(location1, matrixRow);
+        assertThat(verifyPublishingPreliminarySolution().getRevision()).isEqualTo(2);
+
+        // failed modification doesn't change the revision
+        assertThatIllegalArgumentException().isThrownBy(() -> routeOptimizer.removeLocation(location2));
+        assertThat(problemRevision.current()).isEqualTo(2);
+    }
+
+    @Test
+    void solver_should_mark_solutions_with_revision_after_each_problem_fact_change() {
+        routeOptimizer.addVehicle(testVehicle(1));
+        routeOptimizer.addLocation(location1, matrixRow);
+        routeOptimizer.addLocation(location2, matrixRow);
+        assertThat(verifySolverStartedWithSolution().getRevision()).isEqualTo(3);
+
+        routeOptimizer.addLocation(location3, matrixRow);
+        routeOptimizer.removeLocation(location3);
+
+        InOrder inOrder = inOrder(solverManager);
+        inOrder.verify(solverManager).addVisit(any(PlanningVisit.class));
+        inOrder.verify(solverManager).updateRevision(4);
+        inOrder.verify(solverManager).removeVisit(any(PlanningVisit.class));
+        inOrder.verify(solverManager).updateRevision(5);
+    }
+
+    @Test
+    void bulk_edit_should_submit_changes_together_and_update_revision_once() {
+        routeOptimizer.addVehicle(testVehicle(1));
+        routeOptimizer.addLocation(location1, matrixRow);
+        routeOptimizer.addLocation(location2, matrixRow);
+        clearInvocations(solverManager);
+
+        routeOptimizer.bulkEdit(() -> {
+            routeOptimizer.addLocation(location3, matrixRow);
+            routeOptimizer.addVehicle(testVehicle(2));
+        });
+
+        InOrder inOrder = inOrder(solverManager);
+        inOrder.verify(solverManager).beginChanges();
+        inOrder.verify(solverManager).addVisit(any(PlanningVisit.class));
+        inOrder.verify(solverManager).addVehicle(any(PlanningVehicle.class));
+        inOrder.verify(solverManager).commitChanges();
+        inOrder.verify(solverManager).updateRevision(5);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void bulk_edit_should_publish_once_when_solver_is_not_running() {
+        routeOptimizer.bulkEdit(() -> {
+            routeOptimizer.addLocation(location1, matrixRow);
+            routeOptimizer.addLocation(location2, matrixRow);
+            routeOptimizer.addLocation(location3, matrixRow);
+        });
+
+        VehicleRoutingSolution solution = verifyPublishingPreliminarySolution();
+        assertThat(solution.getRevision()).isEqualTo(3);
+        assertThat(solution.getVisitList()).hasSize(2);
+        verify(solverManager, never()).startSolver(any());
+    }
+
+    @Test
+    void bulk_edit_should_not_publish_when_solver_starts() {
+        routeOptimizer.addVehicle(testVehicle(1));
+        clearInvocations(routeChangedEventPublisher);
+
+        routeOptimizer.bulkEdit(() -> {
+            routeOptimizer.addLocation(location1, matrixRow);
+            routeOptimizer.addLocation(location2, matrixRow);
+            routeOptimizer.addLocation(location3, matrixRow);
+        });
+
+        assertThat(verifySolverStartedWithSolution().getVisitList()).hasSize(1);
+        verify(solverManager).addVisit(any(PlanningVisit.class));
+        verify(solverManager).updateRevision(4);
+        verifyNoInteractions(routeChangedEventPublisher);
+    }
+
+    @Test
+    void bulk_edit_should_commit_changes_when_edits_fail() {
+        routeOptimizer.addVehicle(testVehicle(1));
+        routeOptimizer.addLocation(location1, matrixRow);
+        routeOptimizer.addLocation(location2, matrixRow);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> routeOptimizer.bulkEdit(() -> {
+            routeOptimizer.addLocation(location3, matrixRow);
+            routeOptimizer.removeVehicle(testVehicle(2));
+        }));
+
+        verify(solverManager).commitChanges();
+        verify(solverManager).updateRevision(4);
+    }
+
+    @Test
+    void should_delegate_callback_to_solver_manager() {
+        Runnable callback = () -> {
+        };
+        routeOptimizer.runWhenChangesApplied(callback);
+        verify(solverManager).runWhenChangesApplied(callback);
+    }
+
     @Test
     void removing_all_locations_should_not_fail_when_solver_is_not_solving() {
         assertThatCode(() -> routeOptimizer.removeAllLocations()).doesNotThrowAnyException();
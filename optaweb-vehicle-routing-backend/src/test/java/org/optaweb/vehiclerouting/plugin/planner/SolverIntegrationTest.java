@@ -19,6 +19,7 @@ package org.optaweb.vehiclerouting.plugin.planner;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocationFactory.testLocation;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.fromLocation;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.testVisit;
@@ -38,16 +39,22 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.ProblemFactChange;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
 import org.optaplanner.core.api.solver.event.SolverEventListener;
 import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaweb.vehiclerouting.plugin.planner.change.AddVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.change.AddVisit;
+import org.optaweb.vehiclerouting.plugin.planner.change.ChangeVehicleCapacity;
+import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVisit;
+import org.optaweb.vehiclerouting.plugin.planner.change.SetRevision;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningDepot;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
 import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,7 +90,7 @@ class SolverIntegrationTest {
         assertThat(solver.solve(emptySolution())).isNotNull();
     }
 
-    // TODO remove vehicle, change capacity, change demand...
+    // TODO change demand...
 
     @Test
     void removing_visits_should_not_fail() {
@@ -125,6 +132,58 @@ class SolverIntegrationTest {
         assertThat(terminateSolver(solver)).isNotNull();
     }
 
+    @Test
+    void problem_fact_changes_should_work_with_multithreaded_solving() {
+        solverConfig.setMoveThreadCount("2");
+        long distance = 1;
+        PlanningDepot depot = new PlanningDepot(testLocation(1, location -> distance));
+        VehicleRoutingSolution solution = solutionFromVisits(
+                Arrays.asList(PlanningVehicleFactory.testVehicle(1), PlanningVehicleFactory.testVehicle(2)),
+                depot,
+                singletonList(fromLocation(testLocation(2, location -> distance))));
+
+        Solver<VehicleRoutingSolution> solver =
+                SolverFactory.<VehicleRoutingSolution> create(solverConfig).buildSolver();
+        solver.addEventListener(monitor);
+        startSolver(solver, solution);
+
+        for (int id = 3; id < 7; id++) {
+            changeAndWait(solver, new AddVisit(fromLocation(testLocation(id, location -> distance))));
+        }
+        PlanningVehicle addedVehicle = PlanningVehicleFactory.testVehicle(3);
+        addedVehicle.setDepot(depot);
+        changeAndWait(solver, new AddVehicle(addedVehicle));
+        changeAndWait(solver, new ChangeVehicleCapacity(PlanningVehicleFactory.testVehicle(1, 10)));
+        changeAndWait(solver, new RemoveVisit(testVisit(4)));
+        changeAndWait(solver, new RemoveVehicle(PlanningVehicleFactory.testVehicle(2)));
+        changeAndWait(solver, new SetRevision(1));
+
+        VehicleRoutingSolution bestSolution = terminateSolver(solver);
+        assertThat(bestSolution.getRevision()).isEqualTo(1);
+        assertThat(bestSolution.getVehicleList())
+                .extracting(PlanningVehicle::getId, PlanningVehicle::getCapacity)
+                .containsExactlyInAnyOrder(tuple(1L, 10), tuple(3L, 0));
+        assertThat(bestSolution.getVisitList())
+                .extracting(PlanningVisit::getId)
+                .containsExactlyInAnyOrder(2L, 3L, 5L, 6L);
+        assertThat(bestSolution.getVisitList()).allSatisfy(visit -> {
+            assertThat(visit.getPreviousStandstill()).isNotNull();
+            assertThat(bestSolution.getVehicleList()).contains(visit.getVehicle());
+        });
+    }
+
+    private void changeAndWait(
+            Solver<VehicleRoutingSolution> solver,
+            ProblemFactChange<VehicleRoutingSolution> change) {
+        logger.info("Apply {}", change.getClass().getSimpleName());
+        monitor.beforeProblemFactChange();
+        solver.addProblemFactChange(change);
+        if (!monitor.awaitAllProblemFactChanges(5000)) {
+            assertThat(terminateSolver(solver)).isNotNull();
+            fail("Problem fact change hasn't been completed");
+        }
+    }
+
     private void startSolver(Solver<VehicleRoutingSolution> solver, VehicleRoutingSolution solution) {
         futureSolution = executor.submit(() -> solver.solve(solution));
     }
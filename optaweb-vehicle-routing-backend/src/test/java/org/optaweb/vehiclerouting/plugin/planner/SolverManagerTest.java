@@ -21,11 +21,14 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.AdditionalAnswers.answer;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.testVisit;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -37,6 +40,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer1;
+import org.optaplanner.core.api.solver.ProblemFactChange;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
 import org.optaweb.vehiclerouting.plugin.planner.change.AddVehicle;
@@ -44,6 +48,8 @@ import org.optaweb.vehiclerouting.plugin.planner.change.AddVisit;
 import org.optaweb.vehiclerouting.plugin.planner.change.ChangeVehicleCapacity;
 import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.change.RemoveVisit;
+import org.optaweb.vehiclerouting.plugin.planner.change.RunCallback;
+import org.optaweb.vehiclerouting.plugin.planner.change.SetRevision;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory;
 import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
@@ -51,6 +57,7 @@ import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory;
 import org.optaweb.vehiclerouting.plugin.planner.domain.SolutionFactory;
 import org.optaweb.vehiclerouting.plugin.planner.domain.VehicleRoutingSolution;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.concurrent.ListenableFuture;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,6 +69,10 @@ class SolverManagerTest {
 
     @Captor
     private ArgumentCaptor<VehicleRoutingSolution> solutionArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<List<ProblemFactChange<VehicleRoutingSolution>>> changesCaptor;
+    @Captor
+    private ArgumentCaptor<Runnable> scheduledSubmitCaptor;
     @Mock
     private BestSolutionChangedEvent<VehicleRoutingSolution> bestSolutionChangedEvent;
     @Mock
@@ -73,6 +84,8 @@ class SolverManagerTest {
     private AsyncListenableTaskExecutor executor;
     @Mock
     private RouteChangedEventPublisher routeChangedEventPublisher;
+    @Mock
+    private TaskScheduler taskScheduler;
     @InjectMocks
     private SolverManager solverManager;
 
@@ -209,19 +222,95 @@ class SolverManagerTest {
         solverManager.startSolver(solution);
         when(solverFuture.isDone()).thenReturn(false);
 
+        solverManager.beginChanges();
         solverManager.addVehicle(testVehicle);
-        verify(solver).addProblemFactChange(any(AddVehicle.class));
-
         solverManager.removeVehicle(testVehicle);
-        verify(solver).addProblemFactChange(any(RemoveVehicle.class));
-
         solverManager.changeCapacity(testVehicle);
-        verify(solver).addProblemFactChange(any(ChangeVehicleCapacity.class));
+        solverManager.addVisit(testVisit);
+        solverManager.removeVisit(testVisit);
+        solverManager.updateRevision(5);
+        verify(solver, never()).addProblemFactChanges(any());
+        solverManager.commitChanges();
+
+        // all changes are submitted at once, in order
+        verify(solver).addProblemFactChanges(changesCaptor.capture());
+        assertThat(changesCaptor.getValue()).extracting(Object::getClass).containsExactly(
+                AddVehicle.class,
+                RemoveVehicle.class,
+                ChangeVehicleCapacity.class,
+                AddVisit.class,
+                RemoveVisit.class,
+                SetRevision.class);
+    }
+
+    @Test
+    void change_should_be_submitted_when_batch_window_elapses() {
+        returnSolverFutureWhenSolverIsStarted();
+        solverManager.startSolver(solution);
+        when(solverFuture.isDone()).thenReturn(false);
 
         solverManager.addVisit(testVisit);
-        verify(solver).addProblemFactChange(any(AddVisit.class));
 
-        solverManager.removeVisit(testVisit);
-        verify(solver).addProblemFactChange(any(RemoveVisit.class));
+        verify(solver, never()).addProblemFactChanges(any());
+        verify(taskScheduler).schedule(scheduledSubmitCaptor.capture(), any(Instant.class));
+        scheduledSubmitCaptor.getValue().run();
+        verify(solver).addProblemFactChanges(changesCaptor.capture());
+        assertThat(changesCaptor.getValue()).extracting(Object::getClass).containsExactly(AddVisit.class);
+    }
+
+    @Test
+    void stopping_solver_should_discard_changes_that_have_not_been_submitted() {
+        returnSolverFutureWhenSolverIsStarted();
+        solverManager.startSolver(solution);
+        when(solverFuture.isDone()).thenReturn(false);
+
+        solverManager.beginChanges();
+        solverManager.addVisit(testVisit);
+        solverManager.stopSolver();
+        solverManager.commitChanges();
+
+        verify(solver, never()).addProblemFactChanges(any());
+    }
+
+    @Test
+    void callback_should_run_immediately_when_solver_is_not_running() {
+        Runnable callback = mock(Runnable.class);
+        solverManager.runWhenChangesApplied(callback);
+        verify(callback).run();
+        verify(solver, never()).addProblemFactChanges(any());
+    }
+
+    @Test
+    void callback_should_run_after_problem_fact_changes_are_applied() {
+        returnSolverFutureWhenSolverIsStarted();
+        solverManager.startSolver(solution);
+        when(solverFuture.isDone()).thenReturn(false);
+        Runnable callback = mock(Runnable.class);
+
+        solverManager.runWhenChangesApplied(callback);
+
+        // the callback is submitted right away, without waiting for the batch window
+        verify(callback, never()).run();
+        verify(solver).addProblemFactChanges(changesCaptor.capture());
+        assertThat(changesCaptor.getValue()).extracting(Object::getClass).containsExactly(RunCallback.class);
+        changesCaptor.getValue().get(0).doChange(null);
+        verify(callback).run();
+    }
+
+    @Test
+    void pending_callbacks_should_run_when_solver_stops() {
+        returnSolverFutureWhenSolverIsStarted();
+        solverManager.startSolver(solution);
+        when(solverFuture.isDone()).thenReturn(false);
+        Runnable callback = mock(Runnable.class);
+
+        solverManager.runWhenChangesApplied(callback);
+        solverManager.stopSolver();
+
+        verify(callback).run();
+        // the solver didn't process the change but if it did, the callback wouldn't run again
+        verify(solver).addProblemFactChanges(changesCaptor.capture());
+        changesCaptor.getValue().get(0).doChange(null);
+        verify(callback).run();
     }
 }
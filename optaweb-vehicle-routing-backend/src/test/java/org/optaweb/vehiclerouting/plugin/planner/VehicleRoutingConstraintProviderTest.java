@@ -37,6 +37,7 @@ class VehicleRoutingConstraintProviderTest {
                     new VehicleRoutingConstraintProvider(),
                     VehicleRoutingSolution.class,
                     Standstill.class,
+                    PlanningVehicle.class,
                     PlanningVisit.class);
 
     private static DistanceMap distanceToAll(long distance) {
@@ -45,13 +46,18 @@ class VehicleRoutingConstraintProviderTest {
 
     private static void route(PlanningVehicle vehicle, PlanningVisit... visits) {
         Standstill previousStandstill = vehicle;
+        int load = 0;
 
         for (PlanningVisit visit : visits) {
             visit.setVehicle(vehicle);
             visit.setPreviousStandstill(previousStandstill);
             previousStandstill.setNextVisit(visit);
             previousStandstill = visit;
+            // Constraint verifier doesn't trigger variable listeners so shadow variables have to be set manually.
+            load += visit.getDemand();
+            visit.setCumulativeLoad(load);
         }
+        vehicle.setLoad(load);
     }
 
     @Test
@@ -67,7 +73,7 @@ class VehicleRoutingConstraintProviderTest {
         route(vehicle, visit);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit)
+                .given(vehicle, visit)
                 .penalizesBy(demand - capacity);
     }
 
@@ -88,7 +94,7 @@ class VehicleRoutingConstraintProviderTest {
         route(vehicle, visit1, visit2, visit3);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit1, visit2, visit3)
+                .given(vehicle, visit1, visit2, visit3)
                 .penalizesBy(demand1 + demand2 + demand3 - capacity);
     }
 
@@ -109,13 +115,13 @@ class VehicleRoutingConstraintProviderTest {
         route(vehicle, visit1, visit2, visit3);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit1, visit2, visit3)
+                .given(vehicle, visit1, visit2, visit3)
                 .penalizesBy(0);
 
         // test values near the constraint boundary
         vehicle.setCapacity(totalDemand + 1);
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit1, visit2, visit3)
+                .given(vehicle, visit1, visit2, visit3)
                 .penalizesBy(0);
     }
 
@@ -148,14 +154,14 @@ class VehicleRoutingConstraintProviderTest {
         route(vehicle2, visit4, visit5, visit6);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit1, visit2, visit3, visit4, visit5, visit6)
+                .given(vehicle1, vehicle2, visit1, visit2, visit3, visit4, visit5, visit6)
                 .penalizesBy(0);
 
         vehicle1.setCapacity(capacity1 - 3);
         vehicle2.setCapacity(capacity2 - 7);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
-                .given(visit1, visit2, visit3, visit4, visit5, visit6)
+                .given(vehicle1, vehicle2, visit1, visit2, visit3, visit4, visit5, visit6)
                 .penalizesBy(10);
     }
 
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocationFactory.testLocation;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory.testVehicle;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.fromLocation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleLoadUpdatingVariableListenerTest {
+
+    @Mock
+    private ScoreDirector<VehicleRoutingSolution> scoreDirector;
+
+    private final VehicleLoadUpdatingVariableListener listener = new VehicleLoadUpdatingVariableListener();
+
+    private static PlanningVisit visit(long id, int demand) {
+        return fromLocation(testLocation(id), demand);
+    }
+
+    private static void link(Standstill previousStandstill, PlanningVisit visit) {
+        visit.setPreviousStandstill(previousStandstill);
+        previousStandstill.setNextVisit(visit);
+    }
+
+    private static PlanningVehicle anchor(Standstill standstill) {
+        return standstill instanceof PlanningVehicle
+                ? (PlanningVehicle) standstill
+                : ((PlanningVisit) standstill).getVehicle();
+    }
+
+    private void moveAfter(Standstill previousStandstill, PlanningVisit visit) {
+        listener.beforeVariableChanged(scoreDirector, visit);
+        Standstill oldPreviousStandstill = visit.getPreviousStandstill();
+        if (oldPreviousStandstill != null) {
+            oldPreviousStandstill.setNextVisit(visit.getNextVisit());
+        }
+        if (previousStandstill == null) {
+            visit.setPreviousStandstill(null);
+            visit.setVehicle(null);
+        } else {
+            link(previousStandstill, visit);
+            // The anchor is a source of the listener's shadow variable so it's updated before the listener runs.
+            visit.setVehicle(anchor(previousStandstill));
+        }
+        listener.afterVariableChanged(scoreDirector, visit);
+    }
+
+    @Test
+    void should_update_cumulative_load_and_vehicle_load_when_visit_is_added_to_route() {
+        PlanningVehicle vehicle = testVehicle(1);
+        PlanningVisit visit1 = visit(1, 3);
+        PlanningVisit visit2 = visit(2, 5);
+
+        moveAfter(vehicle, visit1);
+        moveAfter(visit1, visit2);
+
+        assertThat(visit1.getCumulativeLoad()).isEqualTo(3);
+        assertThat(visit2.getCumulativeLoad()).isEqualTo(8);
+        assertThat(vehicle.getLoad()).isEqualTo(8);
+        verify(scoreDirector).beforeVariableChanged(visit2, "cumulativeLoad");
+        verify(scoreDirector).afterVariableChanged(visit2, "cumulativeLoad");
+    }
+
+    @Test
+    void should_update_both_routes_when_visit_moves_to_another_vehicle() {
+        PlanningVehicle vehicle1 = testVehicle(1);
+        PlanningVehicle vehicle2 = testVehicle(2);
+        PlanningVisit visit1 = visit(1, 3);
+        PlanningVisit visit2 = visit(2, 5);
+        PlanningVisit visit3 = visit(3, 7);
+        moveAfter(vehicle1, visit1);
+        moveAfter(visit1, visit2);
+        moveAfter(vehicle2, visit3);
+
+        // move the first visit of vehicle 1 to the end of vehicle 2's route
+        listener.beforeVariableChanged(scoreDirector, visit1);
+        listener.beforeVariableChanged(scoreDirector, visit2);
+        link(vehicle1, visit2);
+        link(visit3, visit1);
+        visit1.setNextVisit(null);
+        visit1.setVehicle(vehicle2);
+        listener.afterVariableChanged(scoreDirector, visit1);
+        listener.afterVariableChanged(scoreDirector, visit2);
+
+        assertThat(visit2.getCumulativeLoad()).isEqualTo(5);
+        assertThat(vehicle1.getLoad()).isEqualTo(5);
+        assertThat(visit3.getCumulativeLoad()).isEqualTo(7);
+        assertThat(visit1.getCumulativeLoad()).isEqualTo(10);
+        assertThat(vehicle2.getLoad()).isEqualTo(10);
+    }
+
+    @Test
+    void should_update_both_vehicles_when_tail_of_route_moves_to_another_vehicle() {
+        PlanningVehicle vehicle1 = testVehicle(1);
+        PlanningVehicle vehicle2 = testVehicle(2);
+        PlanningVisit visit1 = visit(1, 3);
+        PlanningVisit visit2 = visit(2, 5);
+        PlanningVisit visit3 = visit(3, 2);
+        PlanningVisit visit4 = visit(4, 7);
+        moveAfter(vehicle1, visit1);
+        moveAfter(visit1, visit2);
+        moveAfter(visit2, visit3);
+        moveAfter(vehicle2, visit4);
+
+        // move visit2 together with visit3 to the end of vehicle 2's route, only visit3's anchor changes
+        listener.beforeVariableChanged(scoreDirector, visit2);
+        listener.beforeVariableChanged(scoreDirector, visit3);
+        link(visit4, visit2);
+        visit1.setNextVisit(null);
+        visit2.setVehicle(vehicle2);
+        visit3.setVehicle(vehicle2);
+        listener.afterVariableChanged(scoreDirector, visit2);
+        listener.afterVariableChanged(scoreDirector, visit3);
+
+        assertThat(vehicle1.getLoad()).isEqualTo(3);
+        assertThat(visit2.getCumulativeLoad()).isEqualTo(12);
+        assertThat(visit3.getCumulativeLoad()).isEqualTo(14);
+        assertThat(vehicle2.getLoad()).isEqualTo(14);
+    }
+
+    @Test
+    void should_not_walk_past_visit_whose_cumulative_load_has_not_changed() {
+        PlanningVehicle vehicle = testVehicle(1);
+        PlanningVisit visit1 = visit(1, 3);
+        PlanningVisit visit2 = visit(2, 5);
+        PlanningVisit visit3 = visit(3, 7);
+        PlanningVisit zeroDemandVisit = visit(4, 0);
+        moveAfter(vehicle, visit1);
+        moveAfter(visit1, visit2);
+        moveAfter(visit2, visit3);
+        clearInvocations(scoreDirector);
+
+        // insert a visit without demand at the beginning of the route
+        listener.beforeVariableChanged(scoreDirector, zeroDemandVisit);
+        listener.beforeVariableChanged(scoreDirector, visit1);
+        link(vehicle, zeroDemandVisit);
+        link(zeroDemandVisit, visit1);
+        zeroDemandVisit.setVehicle(vehicle);
+        listener.afterVariableChanged(scoreDirector, zeroDemandVisit);
+        listener.afterVariableChanged(scoreDirector, visit1);
+
+        assertThat(visit3.getCumulativeLoad()).isEqualTo(15);
+        assertThat(vehicle.getLoad()).isEqualTo(15);
+        verifyNoInteractions(scoreDirector);
+    }
+
+    @Test
+    void should_update_previous_vehicle_when_last_visit_leaves_route() {
+        PlanningVehicle vehicle = testVehicle(1);
+        PlanningVisit visit1 = visit(1, 3);
+        PlanningVisit visit2 = visit(2, 5);
+        moveAfter(vehicle, visit1);
+        moveAfter(visit1, visit2);
+        clearInvocations(scoreDirector);
+
+        moveAfter(null, visit2);
+
+        assertThat(visit2.getCumulativeLoad()).isZero();
+        assertThat(vehicle.getLoad()).isEqualTo(3);
+        verify(scoreDirector).beforeVariableChanged(vehicle, "load");
+    }
+
+    @Test
+    void should_update_previous_vehicle_when_visit_is_removed() {
+        PlanningVehicle vehicle = testVehicle(1);
+        PlanningVisit visit = visit(1, 3);
+        moveAfter(vehicle, visit);
+        assertThat(vehicle.getLoad()).isEqualTo(3);
+
+        listener.beforeEntityRemoved(scoreDirector, visit);
+        vehicle.setNextVisit(null);
+        listener.afterEntityRemoved(scoreDirector, visit);
+
+        assertThat(vehicle.getLoad()).isZero();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.domain;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocationFactory.testLocation;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory.testVehicle;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory.fromLocation;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+class VehicleRoutingSolutionClonerTest {
+
+    private final VehicleRoutingSolutionCloner cloner = new VehicleRoutingSolutionCloner();
+    private final PlanningDepot depot = new PlanningDepot(testLocation(1));
+    private final PlanningVehicle vehicle1 = testVehicle(1, 10);
+    private final PlanningVehicle vehicle2 = testVehicle(2, 20);
+    private final PlanningVisit visit1 = fromLocation(testLocation(2), 3);
+    private final PlanningVisit visit2 = fromLocation(testLocation(3), 4);
+    private final PlanningVisit visit3 = fromLocation(testLocation(4), 5);
+    private final PlanningVisit unassignedVisit = fromLocation(testLocation(5), 6);
+    private VehicleRoutingSolution original;
+
+    @BeforeEach
+    void setUp() {
+        original = SolutionFactory.solutionFromVisits(
+                asList(vehicle1, vehicle2),
+                depot,
+                asList(visit1, visit2, visit3, unassignedVisit));
+        original.setScore(HardSoftLongScore.of(-1, -100));
+        original.setRevision(7);
+        // vehicle1 -> visit1 -> visit2, vehicle2 -> visit3
+        link(vehicle1, visit1);
+        link(visit1, visit2);
+        link(vehicle2, visit3);
+    }
+
+    private static void link(Standstill previous, PlanningVisit visit) {
+        visit.setPreviousStandstill(previous);
+        previous.setNextVisit(visit);
+        visit.setVehicle(previous instanceof PlanningVehicle
+                ? (PlanningVehicle) previous
+                : ((PlanningVisit) previous).getVehicle());
+    }
+
+    @Test
+    void clone_should_copy_solution_properties_and_share_problem_facts() {
+        VehicleRoutingSolution clone = cloner.cloneSolution(original);
+
+        assertThat(clone).isNotSameAs(original);
+        assertThat(clone.getScore()).isEqualTo(original.getScore());
+        assertThat(clone.getRevision()).isEqualTo(7);
+        assertThat(clone.getDepotList()).isNotSameAs(original.getDepotList()).containsExactly(depot);
+        assertThat(clone.getVisitList())
+                .extracting(PlanningVisit::getLocation)
+                .containsExactly(
+                        visit1.getLocation(),
+                        visit2.getLocation(),
+                        visit3.getLocation(),
+                        unassignedVisit.getLocation());
+        assertThat(clone.getVehicleList()).extracting(PlanningVehicle::getDepot).containsExactly(depot, depot);
+    }
+
+    @Test
+    void clone_should_clone_entities() {
+        VehicleRoutingSolution clone = cloner.cloneSolution(original);
+
+        assertThat(clone.getVehicleList()).doesNotContainAnyElementsOf(original.getVehicleList());
+        assertThat(clone.getVisitList()).doesNotContainAnyElementsOf(original.getVisitList());
+        assertThat(clone.getVehicleList())
+                .extracting(PlanningVehicle::getId, PlanningVehicle::getCapacity)
+                .containsExactly(
+                        tuple(1L, 10),
+                        tuple(2L, 20));
+        assertThat(clone.getVisitList())
+                .extracting(PlanningVisit::getId)
+                .containsExactly(visit1.getId(), visit2.getId(), visit3.getId(), unassignedVisit.getId());
+        assertThat(clone.getVisitList()).extracting(PlanningVisit::getDemand).containsExactly(3, 4, 5, 6);
+    }
+
+    @Test
+    void clone_should_rebuild_chains_between_clones() {
+        VehicleRoutingSolution clone = cloner.cloneSolution(original);
+        PlanningVehicle vehicle1Clone = clone.getVehicleList().get(0);
+        PlanningVehicle vehicle2Clone = clone.getVehicleList().get(1);
+        PlanningVisit visit1Clone = clone.getVisitList().get(0);
+        PlanningVisit visit2Clone = clone.getVisitList().get(1);
+        PlanningVisit visit3Clone = clone.getVisitList().get(2);
+        PlanningVisit unassignedVisitClone = clone.getVisitList().get(3);
+
+        assertThat(vehicle1Clone.getNextVisit()).isSameAs(visit1Clone);
+        assertThat(visit1Clone.getPreviousStandstill()).isSameAs(vehicle1Clone);
+        assertThat(visit1Clone.getNextVisit()).isSameAs(visit2Clone);
+        assertThat(visit1Clone.getVehicle()).isSameAs(vehicle1Clone);
+        assertThat(visit2Clone.getPreviousStandstill()).isSameAs(visit1Clone);
+        assertThat(visit2Clone.getNextVisit()).isNull();
+        assertThat(visit2Clone.getVehicle()).isSameAs(vehicle1Clone);
+
+        assertThat(vehicle2Clone.getNextVisit()).isSameAs(visit3Clone);
+        assertThat(visit3Clone.getPreviousStandstill()).isSameAs(vehicle2Clone);
+        assertThat(visit3Clone.getVehicle()).isSameAs(vehicle2Clone);
+
+        assertThat(unassignedVisitClone.getPreviousStandstill()).isNull();
+        assertThat(unassignedVisitClone.getNextVisit()).isNull();
+        assertThat(unassignedVisitClone.getVehicle()).isNull();
+    }
+
+    @Test
+    void changing_clone_should_not_affect_original() {
+        VehicleRoutingSolution clone = cloner.cloneSolution(original);
+        clone.getVisitList().get(1).setPreviousStandstill(clone.getVehicleList().get(1));
+        clone.getVehicleList().get(0).setCapacity(100);
+        clone.getVisitList().remove(3);
+
+        assertThat(visit2.getPreviousStandstill()).isSameAs(visit1);
+        assertThat(vehicle1.getCapacity()).isEqualTo(10);
+        assertThat(original.getVisitList()).hasSize(4);
+    }
+
+    @Test
+    void should_fail_when_chain_refers_to_entity_outside_of_solution() {
+        original.setVehicleList(Collections.singletonList(vehicle1));
+        assertThatIllegalStateException().isThrownBy(() -> cloner.cloneSolution(original));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.planner.nearby;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocationFactory.testLocation;
+import static org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicleFactory.testVehicle;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningDepot;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningLocation;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVehicle;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisit;
+import org.optaweb.vehiclerouting.plugin.planner.domain.PlanningVisitFactory;
+
+class VisitNearbyDistanceMeterTest {
+
+    private final VisitNearbyDistanceMeter meter = new VisitNearbyDistanceMeter();
+
+    @Test
+    void should_measure_distance_from_destination_to_origin() {
+        // Each location is 100 away from location 1 and 1 away from any other location.
+        PlanningLocation location1 = testLocation(1, location -> 1);
+        PlanningLocation location2 = testLocation(2, location -> location.getId() == 1 ? 100 : 1);
+        PlanningVisit origin = PlanningVisitFactory.fromLocation(location1);
+        PlanningVisit destination = PlanningVisitFactory.fromLocation(location2);
+
+        assertThat(meter.getNearbyDistance(origin, destination)).isEqualTo(100.0);
+        assertThat(meter.getNearbyDistance(destination, origin)).isEqualTo(1.0);
+    }
+
+    @Test
+    void vehicle_should_be_as_near_as_its_depot() {
+        PlanningLocation depotLocation = testLocation(1, location -> 7);
+        PlanningVehicle vehicle = testVehicle(1);
+        vehicle.setDepot(new PlanningDepot(depotLocation));
+        PlanningVisit origin = PlanningVisitFactory.fromLocation(testLocation(2, location -> 3));
+
+        assertThat(meter.getNearbyDistance(origin, vehicle)).isEqualTo(7.0);
+    }
+
+    @Test
+    void distance_to_self_should_be_zero() {
+        PlanningVisit visit = PlanningVisitFactory.fromLocation(testLocation(1, location -> 5));
+        assertThat(meter.getNearbyDistance(visit, visit)).isZero();
+    }
+}
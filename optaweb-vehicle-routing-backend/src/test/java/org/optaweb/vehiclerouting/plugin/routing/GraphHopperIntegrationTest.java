@@ -16,16 +16,27 @@
 
 package org.optaweb.vehiclerouting.plugin.routing;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.within;
 
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.optaweb.vehiclerouting.domain.Coordinates;
 
 import com.graphhopper.reader.osm.GraphHopperOSM;
+import com.graphhopper.routing.profiles.BooleanEncodedValue;
+import com.graphhopper.routing.util.AllEdgesIterator;
 import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.util.FlagEncoder;
 import com.graphhopper.routing.util.FlagEncoderFactory;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.storage.NodeAccess;
 
 class GraphHopperIntegrationTest {
 
@@ -33,11 +44,77 @@ class GraphHopperIntegrationTest {
 
     @Test
     void graphhopper_should_import_and_load_osm_file_successfully(@TempDir Path tempDir) {
+        GraphHopperOSM graphHopper = graphHopper(tempDir);
+        assertThatCode(graphHopper::importOrLoad).doesNotThrowAnyException();
+    }
+
+    @Test
+    void one_to_many_travel_times_should_match_point_to_point_travel_times(@TempDir Path tempDir) {
+        GraphHopperOSM graphHopper = graphHopper(tempDir);
+        graphHopper.importOrLoad();
+        GraphHopperRouter router = new GraphHopperRouter(graphHopper);
+
+        Coordinates root = Coordinates.valueOf(53.03, 12.05);
+        List<Coordinates> others = Arrays.asList(
+                Coordinates.valueOf(53.04, 12.08),
+                Coordinates.valueOf(53.025, 12.09),
+                Coordinates.valueOf(53.035, 12.06));
+
+        long[] timesFromRoot = router.travelTimesMillisFrom(root, others);
+        long[] timesToRoot = router.travelTimesMillisTo(others, root);
+
+        for (int i = 0; i < others.size(); i++) {
+            Coordinates other = others.get(i);
+            // forward and reverse tree expansions find the same paths
+            assertThat(timesFromRoot[i])
+                    .isEqualTo(router.travelTimesMillisTo(Collections.singletonList(root), other)[0]);
+            assertThat(timesToRoot[i])
+                    .isEqualTo(router.travelTimesMillisFrom(other, Collections.singletonList(root))[0]);
+            // snapping to the closest node only makes a small difference compared to point-to-point routing
+            assertThat(timesFromRoot[i]).isCloseTo(router.travelTimeMillis(root, other), within(60_000L));
+            assertThat(timesToRoot[i]).isCloseTo(router.travelTimeMillis(other, root), within(60_000L));
+        }
+    }
+
+    @Test
+    void one_to_many_travel_times_should_respect_one_way_streets(@TempDir Path tempDir) {
+        GraphHopperOSM graphHopper = graphHopper(tempDir);
+        graphHopper.importOrLoad();
+        GraphHopperRouter router = new GraphHopperRouter(graphHopper);
+
+        // find a one-way edge and use its end nodes so that both coordinates snap exactly to them
+        FlagEncoder flagEncoder = graphHopper.getEncodingManager().getEncoder(FlagEncoderFactory.CAR);
+        BooleanEncodedValue accessEnc = flagEncoder.getAccessEnc();
+        Graph graph = graphHopper.getGraphHopperStorage();
+        AllEdgesIterator edge = graph.getAllEdges();
+        boolean found = false;
+        while (!found && edge.next()) {
+            found = edge.getBaseNode() != edge.getAdjNode() && edge.get(accessEnc) != edge.getReverse(accessEnc);
+        }
+        assertThat(found).isTrue();
+        Coordinates a = nodeCoordinates(graph, edge.getBaseNode());
+        Coordinates b = nodeCoordinates(graph, edge.getAdjNode());
+
+        long aToB = router.travelTimeMillis(a, b);
+        long bToA = router.travelTimeMillis(b, a);
+        // the way back can't use the one-way edge, tree expansions must not use it either
+        assertThat(router.travelTimesMillisFrom(a, Collections.singletonList(b))[0]).isEqualTo(aToB);
+        assertThat(router.travelTimesMillisFrom(b, Collections.singletonList(a))[0]).isEqualTo(bToA);
+        assertThat(router.travelTimesMillisTo(Collections.singletonList(a), b)[0]).isEqualTo(aToB);
+        assertThat(router.travelTimesMillisTo(Collections.singletonList(b), a)[0]).isEqualTo(bToA);
+    }
+
+    private static Coordinates nodeCoordinates(Graph graph, int node) {
+        NodeAccess nodeAccess = graph.getNodeAccess();
+        return Coordinates.valueOf(nodeAccess.getLat(node), nodeAccess.getLon(node));
+    }
+
+    private static GraphHopperOSM graphHopper(Path tempDir) {
         Path graphhopperDir = tempDir.resolve("graphhopper");
         GraphHopperOSM graphHopper = ((GraphHopperOSM) new GraphHopperOSM().forServer());
         graphHopper.setGraphHopperLocation(graphhopperDir.toString());
         graphHopper.setOSMFile(GraphHopperIntegrationTest.class.getResource(OSM_PBF).getFile());
         graphHopper.setEncodingManager(EncodingManager.create(FlagEncoderFactory.CAR));
-        assertThatCode(graphHopper::importOrLoad).doesNotThrowAnyException();
+        return graphHopper;
     }
 }
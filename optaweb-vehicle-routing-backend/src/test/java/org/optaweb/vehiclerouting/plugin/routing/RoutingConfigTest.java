@@ -16,12 +16,17 @@
 
 package org.optaweb.vehiclerouting.plugin.routing;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.nio.file.Path;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.optaweb.vehiclerouting.plugin.routing.RoutingProperties.SpeedMode;
+
+import com.graphhopper.GraphHopper;
+import com.graphhopper.reader.osm.GraphHopperOSM;
 
 class RoutingConfigTest {
 
@@ -33,4 +38,30 @@ class RoutingConfigTest {
                 .isThrownBy(() -> RoutingConfig.downloadOsmFile(malformedUrl, osmFile))
                 .withMessageContaining("malformed");
     }
+
+    @Test
+    void ch_graph_should_stay_in_region_dir_and_other_modes_should_have_their_own_dir() {
+        assertThat(RoutingConfig.graphDirName("belgium-latest", SpeedMode.CH)).isEqualTo("belgium-latest");
+        assertThat(RoutingConfig.graphDirName("belgium-latest", SpeedMode.LM)).isEqualTo("belgium-latest-lm");
+        assertThat(RoutingConfig.graphDirName("belgium-latest", SpeedMode.FLEXIBLE))
+                .isEqualTo("belgium-latest-flexible");
+    }
+
+    @Test
+    void should_enable_preparation_according_to_speed_mode() {
+        GraphHopper ch = new GraphHopperOSM().forServer();
+        RoutingConfig.configureSpeedMode(ch, SpeedMode.CH, 16);
+        assertThat(ch.getCHFactoryDecorator().isEnabled()).isTrue();
+        assertThat(ch.getLMFactoryDecorator().isEnabled()).isFalse();
+
+        GraphHopper lm = new GraphHopperOSM().forServer();
+        RoutingConfig.configureSpeedMode(lm, SpeedMode.LM, 16);
+        assertThat(lm.getCHFactoryDecorator().isEnabled()).isFalse();
+        assertThat(lm.getLMFactoryDecorator().isEnabled()).isTrue();
+
+        GraphHopper flexible = new GraphHopperOSM().forServer();
+        RoutingConfig.configureSpeedMode(flexible, SpeedMode.FLEXIBLE, 16);
+        assertThat(flexible.getCHFactoryDecorator().isEnabled()).isFalse();
+        assertThat(flexible.getLMFactoryDecorator().isEnabled()).isFalse();
+    }
 }
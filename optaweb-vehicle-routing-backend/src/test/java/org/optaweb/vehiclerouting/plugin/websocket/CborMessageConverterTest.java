@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CborMessageConverterTest {
+
+    private final CborMessageConverter converter = new CborMessageConverter();
+
+    @Test
+    void should_read_cbor_payload() {
+        PortableLocation location = new PortableLocation(1, BigDecimal.valueOf(2.5), BigDecimal.valueOf(-7), "Home");
+        Message<byte[]> message = MessageBuilder.withPayload(converter.toCbor(location))
+                .setHeader(MessageHeaders.CONTENT_TYPE, CborMessageConverter.APPLICATION_CBOR)
+                .build();
+
+        assertThat(converter.fromMessage(message, PortableLocation.class)).isEqualTo(location);
+    }
+
+    @Test
+    void should_ignore_messages_that_are_not_cbor() {
+        Message<byte[]> json = MessageBuilder.withPayload("{}".getBytes())
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+        Message<byte[]> noContentType = MessageBuilder.withPayload("{}".getBytes()).build();
+
+        assertThat(converter.fromMessage(json, PortableLocation.class)).isNull();
+        assertThat(converter.fromMessage(noContentType, PortableLocation.class)).isNull();
+        assertThat(converter.toMessage(Collections.emptyMap(), null)).isNull();
+    }
+
+    @Test
+    void cbor_should_be_smaller_than_json() throws Exception {
+        PortableLocation location = new PortableLocation(1, BigDecimal.valueOf(2.5), BigDecimal.valueOf(-7), "Home");
+        byte[] json = new ObjectMapper().writeValueAsBytes(location);
+        assertThat(converter.toCbor(location).length).isLessThan(json.length);
+    }
+}
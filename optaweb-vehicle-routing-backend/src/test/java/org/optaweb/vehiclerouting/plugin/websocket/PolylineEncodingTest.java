@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+
+class PolylineEncodingTest {
+
+    @Test
+    void should_encode_reference_polyline() {
+        // Example from the algorithm description
+        assertThat(PolylineEncoding.encode(asList(
+                coordinates(38.5, -120.2),
+                coordinates(40.7, -120.95),
+                coordinates(43.252, -126.453))))
+                .isEqualTo("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+    }
+
+    @Test
+    void should_encode_full_precision_and_repeated_points() {
+        assertThat(PolylineEncoding.encode(asList(
+                coordinates(0.00001, -0.00001),
+                coordinates(0.00001, -0.00001))))
+                .isEqualTo("A@??");
+    }
+
+    @Test
+    void empty_segment_should_be_empty_string() {
+        assertThat(PolylineEncoding.encode(emptyList())).isEmpty();
+        assertThat(PolylineEncoding.encode(singletonList(coordinates(0, 0)))).isEqualTo("??");
+    }
+
+    private static PortableCoordinates coordinates(double latitude, double longitude) {
+        return PortableCoordinates.fromCoordinates(Coordinates.valueOf(latitude, longitude));
+    }
+}
@@ -43,12 +43,21 @@ class PortableRouteTest {
 
     @Test
     void marshal_to_json() throws IOException {
+        assertThat(json.write(portableRoute())).isStrictlyEqualToJson("portable-route.json");
+    }
+
+    @Test
+    void marshal_encoded_track_to_json() throws IOException {
+        assertThat(json.write(portableRoute().withEncodedTrack())).isStrictlyEqualToJson("portable-route-encoded.json");
+    }
+
+    private static PortableRoute portableRoute() {
         PortableVehicle vehicle = new PortableVehicle(13, "Vehicle", 45317);
         PortableLocation depot = visit(8, 42.6501218, -71.8835449, "Test depot");
         PortableLocation visit1 = visit(100, 42.7066596, -72.4934873, "Visit 1");
         PortableLocation visit2 = visit(200, 42.5543343, -71.4438280, "Visit 2");
 
-        PortableRoute portableRoute = new PortableRoute(
+        return new PortableRoute(
                 vehicle,
                 depot,
                 asList(visit1, visit2),
@@ -59,7 +68,6 @@ class PortableRouteTest {
                         asList(
                                 coordinates(42.64994, -71.88537),
                                 coordinates(42.64994, -71.88542))));
-        assertThat(json.write(portableRoute)).isStrictlyEqualToJson("portable-route.json");
     }
 
     private static PortableLocation visit(long id, double latitude, double longitude, String description) {
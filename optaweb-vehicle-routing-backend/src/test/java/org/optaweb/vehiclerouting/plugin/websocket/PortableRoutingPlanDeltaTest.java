@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.Location;
+
+class PortableRoutingPlanDeltaTest {
+
+    private final PortableDistance distance = PortableDistance.fromDistance(Distance.ofMillis(60_000));
+    private final PortableVehicle vehicle1 = new PortableVehicle(1, "Vehicle 1", 10);
+    private final PortableVehicle vehicle2 = new PortableVehicle(2, "Vehicle 2", 10);
+    private final PortableLocation depot = location(100);
+    private final PortableLocation visit1 = location(101);
+    private final PortableLocation visit2 = location(102);
+
+    @Test
+    void should_only_contain_changed_routes() {
+        PortableRoute unchanged = route(vehicle1, visit1);
+        PortableRoute changed = route(vehicle2, visit2);
+        PortableRoutingPlan base = plan(4, asList(visit1, visit2), route(vehicle1, visit1), route(vehicle2));
+        PortableRoutingPlan target = plan(5, asList(visit1, visit2), unchanged, changed);
+
+        PortableRoutingPlanDelta delta = PortableRoutingPlanDelta.between(base, target);
+
+        assertThat(delta.getBaseSequence()).isEqualTo(4);
+        assertThat(delta.getSequence()).isEqualTo(5);
+        assertThat(delta.getDistance()).isEqualTo(distance);
+        assertThat(delta.getVehicles()).containsExactly(vehicle1, vehicle2);
+        assertThat(delta.getDepot()).isEqualTo(depot);
+        assertThat(delta.getVisits()).isNull();
+        assertThat(delta.getRoutes()).containsExactly(changed);
+        assertThat(delta.getRemovedRoutes()).isEmpty();
+    }
+
+    @Test
+    void should_contain_added_and_removed_routes_and_changed_visits() {
+        PortableRoutingPlan base = plan(1, singletonList(visit1), route(vehicle1, visit1));
+        PortableRoute added = route(vehicle2, visit2);
+        PortableRoutingPlan target = plan(2, singletonList(visit2), added);
+
+        PortableRoutingPlanDelta delta = PortableRoutingPlanDelta.between(base, target);
+
+        assertThat(delta.getVisits()).containsExactly(visit2);
+        assertThat(delta.getRoutes()).containsExactly(added);
+        assertThat(delta.getRemovedRoutes()).containsExactly(vehicle1.getId());
+    }
+
+    @Test
+    void delta_between_identical_plans_should_not_contain_routes() {
+        PortableRoutingPlan base = plan(1, singletonList(visit1), route(vehicle1, visit1));
+        PortableRoutingPlan target = plan(2, singletonList(visit1), route(vehicle1, visit1));
+
+        PortableRoutingPlanDelta delta = PortableRoutingPlanDelta.between(base, target);
+
+        assertThat(delta.getVisits()).isNull();
+        assertThat(delta.getRoutes()).isEmpty();
+        assertThat(delta.getRemovedRoutes()).isEmpty();
+    }
+
+    private PortableRoutingPlan plan(long sequence, List<PortableLocation> visits, PortableRoute... routes) {
+        return new PortableRoutingPlan(sequence, distance, asList(vehicle1, vehicle2), depot, visits, asList(routes));
+    }
+
+    private PortableRoute route(PortableVehicle vehicle, PortableLocation... visits) {
+        return new PortableRoute(vehicle, depot, asList(visits), emptyList());
+    }
+
+    private static PortableLocation location(long id) {
+        return PortableLocation.fromLocation(new Location(id, Coordinates.valueOf(id, id)));
+    }
+}
@@ -36,7 +36,8 @@ class PortableRoutingPlanFactoryTest {
 
     @Test
     void portable_routing_plan_empty() {
-        PortableRoutingPlan portablePlan = PortableRoutingPlanFactory.fromRoutingPlan(RoutingPlan.empty());
+        PortableRoutingPlan portablePlan = PortableRoutingPlanFactory.fromRoutingPlan(RoutingPlan.empty(), 0);
+        assertThat(portablePlan.getSequence()).isZero();
         assertThat(portablePlan.getDistance()).isEqualTo(PortableDistance.fromDistance(Distance.ZERO));
         assertThat(portablePlan.getVehicles()).isEmpty();
         assertThat(portablePlan.getDepot()).isNull();
@@ -81,9 +82,11 @@ class PortableRoutingPlanFactoryTest {
                 asList(route1, route2));
 
         // act
-        PortableRoutingPlan portableRoutingPlan = PortableRoutingPlanFactory.fromRoutingPlan(routingPlan);
+        PortableRoutingPlan portableRoutingPlan = PortableRoutingPlanFactory.fromRoutingPlan(routingPlan, 7);
 
         // assert
+        // -- plan.sequence
+        assertThat(portableRoutingPlan.getSequence()).isEqualTo(7);
         // -- plan.distance
         assertThat(portableRoutingPlan.getDistance()).isEqualTo(PortableDistance.fromDistance(distance));
         // -- plan.depot
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.RouteSummary;
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+import org.springframework.boot.test.json.JacksonTester;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PortableRoutingPlanSummaryTest {
+
+    private JacksonTester<PortableRoutingPlanSummary> json;
+
+    @BeforeEach
+    void setUp() {
+        JacksonTester.initFields(this, new ObjectMapper());
+    }
+
+    @Test
+    void marshall_to_json() throws IOException {
+        RoutingPlanSummary summary = new RoutingPlanSummary(
+                Distance.ofMillis(3_723_000),
+                1,
+                2,
+                singletonList(new RouteSummary(7, 2, 3, Distance.ofMillis(61_000))));
+
+        PortableRoutingPlanSummary portableSummary = PortableRoutingPlanSummary.fromRoutingPlanSummary(summary);
+
+        assertThat(json.write(portableSummary)).isEqualToJson("{"
+                + "\"distance\":\"1h 2m 3s\","
+                + "\"vehicleCount\":1,"
+                + "\"visitCount\":2,"
+                + "\"routes\":[{\"vehicleId\":7,\"visitCount\":2,\"load\":3,\"distance\":\"0h 1m 1s\"}]"
+                + "}");
+    }
+}
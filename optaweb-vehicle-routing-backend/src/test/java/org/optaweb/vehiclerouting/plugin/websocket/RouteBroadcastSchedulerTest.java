@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.RoutingPlan;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@ExtendWith(MockitoExtension.class)
+class RouteBroadcastSchedulerTest {
+
+    @Mock
+    private WebSocketRoutingPlanSender routingPlanSender;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private RouteBroadcastScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void should_broadcast_first_plan_immediately() throws InterruptedException {
+        scheduler = new RouteBroadcastScheduler(routingPlanSender, taskScheduler, Duration.ofHours(1));
+        RoutingPlan plan = plan(1);
+
+        scheduler.consumePlan(plan);
+        scheduler.awaitIdle();
+
+        verify(routingPlanSender).broadcast(plan);
+    }
+
+    @Test
+    void should_conflate_plans_consumed_during_broadcast() throws InterruptedException {
+        scheduler = new RouteBroadcastScheduler(routingPlanSender, taskScheduler, Duration.ZERO);
+        CountDownLatch broadcastStarted = new CountDownLatch(1);
+        CountDownLatch releaseBroadcast = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            broadcastStarted.countDown();
+            releaseBroadcast.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(routingPlanSender).broadcast(any());
+        RoutingPlan plan1 = plan(1);
+        RoutingPlan plan2 = plan(2);
+        RoutingPlan plan3 = plan(3);
+
+        scheduler.consumePlan(plan1);
+        assertThat(broadcastStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        scheduler.consumePlan(plan2);
+        scheduler.consumePlan(plan3);
+        releaseBroadcast.countDown();
+        scheduler.awaitIdle();
+
+        verify(routingPlanSender).broadcast(plan1);
+        verify(routingPlanSender, never()).broadcast(plan2);
+        verify(routingPlanSender).broadcast(plan3);
+    }
+
+    @Test
+    void should_keep_broadcasts_apart_by_route_update_interval() throws InterruptedException {
+        Duration interval = Duration.ofMillis(200);
+        scheduler = new RouteBroadcastScheduler(routingPlanSender, taskScheduler, interval);
+        List<Long> broadcastTimes = new ArrayList<>();
+        doAnswer(invocation -> broadcastTimes.add(System.nanoTime())).when(routingPlanSender).broadcast(any());
+
+        scheduler.consumePlan(plan(1));
+        scheduler.awaitIdle();
+        scheduler.consumePlan(plan(2));
+        scheduler.awaitIdle();
+
+        assertThat(broadcastTimes).hasSize(2);
+        assertThat(broadcastTimes.get(1) - broadcastTimes.get(0)).isGreaterThanOrEqualTo(interval.toNanos());
+    }
+
+    @Test
+    void should_drop_pending_plan_when_closed() throws InterruptedException {
+        scheduler = new RouteBroadcastScheduler(routingPlanSender, taskScheduler, Duration.ofHours(1));
+        RoutingPlan plan1 = plan(1);
+        RoutingPlan plan2 = plan(2);
+        scheduler.consumePlan(plan1);
+        scheduler.awaitIdle();
+
+        scheduler.consumePlan(plan2);
+        scheduler.close();
+        scheduler.awaitIdle();
+
+        verify(routingPlanSender).broadcast(plan1);
+        verify(routingPlanSender, never()).broadcast(plan2);
+    }
+
+    @Test
+    void should_not_broadcast_after_close() {
+        scheduler = new RouteBroadcastScheduler(routingPlanSender, taskScheduler, Duration.ZERO);
+        scheduler.close();
+
+        scheduler.consumePlan(plan(1));
+
+        verifyNoInteractions(routingPlanSender);
+    }
+
+    @Test
+    void interval_must_not_be_negative() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RouteBroadcastScheduler(routingPlanSender, taskScheduler, Duration.ofMillis(-1)));
+    }
+
+    private static RoutingPlan plan(long distanceMillis) {
+        return new RoutingPlan(Distance.ofMillis(distanceMillis), emptyList(), null, emptyList(), emptyList());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.RoutingPlan;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingPlanControllerTest {
+
+    private static final String ETAG = "\"abc-7\"";
+
+    @Mock
+    private WebSocketRoutingPlanSender routingPlanSender;
+    @InjectMocks
+    private RoutingPlanController controller;
+
+    private final PlanSnapshot snapshot = new PlanSnapshot(
+            PortableRoutingPlanFactory.fromRoutingPlan(RoutingPlan.empty(), 7),
+            ETAG);
+
+    @BeforeEach
+    void setUp() {
+        when(routingPlanSender.snapshot()).thenReturn(snapshot);
+    }
+
+    @Test
+    void should_return_serialized_snapshot_with_etag() {
+        byte[] json = "{}".getBytes();
+        when(routingPlanSender.json(snapshot, WebSocketRoutingPlanSender.TOPIC_ROUTE)).thenReturn(json);
+
+        ResponseEntity<byte[]> response = controller.routingPlan(null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(json);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    @Test
+    void should_return_not_modified_when_etag_matches() {
+        ResponseEntity<byte[]> response = controller.routingPlan("\"old-1\", W/" + ETAG);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        verify(routingPlanSender, never()).json(any(), anyString());
+    }
+
+    @Test
+    void should_return_new_snapshot_when_etag_is_outdated() {
+        byte[] json = "{}".getBytes();
+        when(routingPlanSender.json(snapshot, WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE)).thenReturn(json);
+
+        ResponseEntity<byte[]> response = controller.encodedRoutingPlan("\"abc-6\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(json);
+    }
+
+    @Test
+    void should_return_simplified_snapshot() {
+        byte[] json = "{}".getBytes();
+        when(routingPlanSender.json(snapshot, TrackDetail.LOW.topic())).thenReturn(json);
+
+        assertThat(controller.simplifiedRoutingPlan("low", null).getBody()).isSameAs(json);
+    }
+}
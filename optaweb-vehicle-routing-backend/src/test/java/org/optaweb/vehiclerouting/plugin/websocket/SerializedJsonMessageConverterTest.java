@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+class SerializedJsonMessageConverterTest {
+
+    private final SerializedJsonMessageConverter converter = new SerializedJsonMessageConverter();
+
+    @Test
+    void should_write_serialized_json_as_is() {
+        PortableLocation location = new PortableLocation(1, BigDecimal.valueOf(2.5), BigDecimal.valueOf(-7), "Home");
+        SerializedJson json = new SerializedJson(converter.toJson(location));
+
+        Message<?> message = converter.toMessage(json, null);
+
+        assertThat(message).isNotNull();
+        assertThat(message.getPayload()).isSameAs(json.bytes());
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString())
+                .startsWith(MimeTypeUtils.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void should_ignore_other_payloads() {
+        Message<byte[]> incoming = MessageBuilder.withPayload("{}".getBytes())
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+
+        assertThat(converter.toMessage(Collections.emptyMap(), null)).isNull();
+        assertThat(converter.fromMessage(incoming, PortableLocation.class)).isNull();
+    }
+}
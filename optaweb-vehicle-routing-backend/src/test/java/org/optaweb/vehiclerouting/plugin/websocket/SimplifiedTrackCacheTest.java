@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+
+class SimplifiedTrackCacheTest {
+
+    private final PortableVehicle vehicle = new PortableVehicle(1, "Vehicle", 10);
+    private final PortableLocation depot = location(1, 0, 0);
+    private final PortableLocation visit = location(2, 0, 0.01);
+
+    @Test
+    void should_simplify_each_leg() {
+        PortableRoute route = new PortableRoute(
+                vehicle,
+                depot,
+                singletonList(visit),
+                asList(straightLine(0, 0.01), straightLine(0.01, 0)));
+        SimplifiedTrackCache cache = new SimplifiedTrackCache(10);
+
+        PortableRoute simplified = cache.simplify(route, TrackDetail.LOW);
+
+        assertThat(simplified.getVehicle()).isEqualTo(vehicle);
+        assertThat(simplified.getDepot()).isEqualTo(depot);
+        assertThat(simplified.getVisits()).containsExactly(visit);
+        assertThat(simplified.getTrack()).hasSize(2);
+        assertThat(simplified.getTrack().get(0)).containsExactly(coordinates(0, 0), coordinates(0, 0.01));
+        assertThat(simplified.getTrack().get(1)).containsExactly(coordinates(0, 0.01), coordinates(0, 0));
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_reuse_simplified_legs_and_evict_least_recently_used() {
+        PortableRoute route = new PortableRoute(
+                vehicle,
+                depot,
+                singletonList(visit),
+                asList(straightLine(0, 0.01), straightLine(0.01, 0)));
+        SimplifiedTrackCache cache = new SimplifiedTrackCache(2);
+        cache.simplify(route, TrackDetail.HIGH);
+        // The cache is keyed by locations so a different path of the same legs is ignored.
+        PortableRoute samePlaces = new PortableRoute(
+                vehicle,
+                depot,
+                singletonList(visit),
+                asList(singletonList(coordinates(5, 5)), singletonList(coordinates(6, 6))));
+        assertThat(cache.simplify(samePlaces, TrackDetail.HIGH).getTrack().get(0)).hasSize(2);
+
+        PortableLocation otherVisit = location(3, 0.01, 0);
+        cache.simplify(new PortableRoute(
+                vehicle,
+                depot,
+                singletonList(otherVisit),
+                asList(singletonList(coordinates(7, 7)), singletonList(coordinates(8, 8)))), TrackDetail.HIGH);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.simplify(samePlaces, TrackDetail.HIGH).getTrack().get(0)).containsExactly(coordinates(5, 5));
+    }
+
+    @Test
+    void should_not_simplify_compact_route() {
+        PortableRoute compactRoute = new PortableRoute(
+                vehicle,
+                depot,
+                singletonList(visit),
+                asList(straightLine(0, 0.01), straightLine(0.01, 0)))
+                .withEncodedTrack();
+        SimplifiedTrackCache cache = new SimplifiedTrackCache(10);
+        assertThatIllegalArgumentException().isThrownBy(() -> cache.simplify(compactRoute, TrackDetail.HIGH));
+    }
+
+    private static List<PortableCoordinates> straightLine(double fromLongitude, double toLongitude) {
+        List<PortableCoordinates> line = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            line.add(coordinates(0, fromLongitude + (toLongitude - fromLongitude) * i / 10));
+        }
+        return line;
+    }
+
+    private static PortableLocation location(long id, double latitude, double longitude) {
+        return PortableLocation.fromLocation(new Location(id, Coordinates.valueOf(latitude, longitude)));
+    }
+
+    private static PortableCoordinates coordinates(double latitude, double longitude) {
+        return PortableCoordinates.fromCoordinates(Coordinates.valueOf(latitude, longitude));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+class TopicSubscriptionsTest {
+
+    private static final String TOPIC = "/topic/route";
+
+    private final TopicSubscriptions topicSubscriptions = new TopicSubscriptions();
+
+    @Test
+    void unsubscribe_should_remove_subscriber() {
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isFalse();
+
+        topicSubscriptions.onApplicationEvent(new SessionSubscribeEvent(this, subscribe("session1", "sub-0", TOPIC)));
+        topicSubscriptions.onApplicationEvent(new SessionSubscribeEvent(this, subscribe("session2", "sub-0", TOPIC)));
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isTrue();
+        assertThat(topicSubscriptions.hasSubscribers("/topic/other")).isFalse();
+
+        topicSubscriptions.onApplicationEvent(new SessionUnsubscribeEvent(this, unsubscribe("session1", "sub-0")));
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isTrue();
+        topicSubscriptions.onApplicationEvent(new SessionUnsubscribeEvent(this, unsubscribe("session2", "sub-0")));
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isFalse();
+    }
+
+    @Test
+    void disconnect_should_remove_all_subscriptions_of_the_session() {
+        topicSubscriptions.onApplicationEvent(new SessionSubscribeEvent(this, subscribe("session1", "sub-0", TOPIC)));
+        topicSubscriptions.onApplicationEvent(new SessionSubscribeEvent(this, subscribe("session1", "sub-1", "/t/x")));
+
+        Message<byte[]> disconnect = message(StompHeaderAccessor.create(StompCommand.DISCONNECT), "session1");
+        topicSubscriptions.onApplicationEvent(
+                new SessionDisconnectEvent(this, disconnect, "session1", CloseStatus.NORMAL));
+
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isFalse();
+        assertThat(topicSubscriptions.hasSubscribers("/t/x")).isFalse();
+    }
+
+    @Test
+    void unknown_unsubscribe_should_be_ignored() {
+        topicSubscriptions.onApplicationEvent(new SessionSubscribeEvent(this, subscribe("session1", "sub-0", TOPIC)));
+        topicSubscriptions.onApplicationEvent(new SessionUnsubscribeEvent(this, unsubscribe("session1", "sub-1")));
+        topicSubscriptions.onApplicationEvent(new SessionUnsubscribeEvent(this, unsubscribe("session2", "sub-0")));
+        assertThat(topicSubscriptions.hasSubscribers(TOPIC)).isTrue();
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        return message(headers, sessionId);
+    }
+
+    private static Message<byte[]> unsubscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        headers.setSubscriptionId(subscriptionId);
+        return message(headers, sessionId);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor headers, String sessionId) {
+        headers.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+class TrackDetailTest {
+
+    @Test
+    void topic_should_be_under_polyline_topic() {
+        assertThat(TrackDetail.HIGH.topic()).isEqualTo("/topic/route/polyline/high");
+        assertThat(TrackDetail.LOW.topic()).isEqualTo("/topic/route/polyline/low");
+    }
+
+    @Test
+    void should_parse_name_ignoring_case() {
+        assertThat(TrackDetail.fromName("medium")).isEqualTo(TrackDetail.MEDIUM);
+        assertThat(TrackDetail.fromName("Low")).isEqualTo(TrackDetail.LOW);
+        assertThatIllegalArgumentException().isThrownBy(() -> TrackDetail.fromName("ultra"));
+    }
+
+    @Test
+    void lower_detail_should_have_higher_tolerance() {
+        assertThat(TrackDetail.HIGH.toleranceMeters()).isLessThan(TrackDetail.MEDIUM.toleranceMeters());
+        assertThat(TrackDetail.MEDIUM.toleranceMeters()).isLessThan(TrackDetail.LOW.toleranceMeters());
+    }
+}
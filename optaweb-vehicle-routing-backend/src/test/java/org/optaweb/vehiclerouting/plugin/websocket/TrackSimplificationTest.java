@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+
+class TrackSimplificationTest {
+
+    // About 11 m at the equator.
+    private static final double STEP = 0.0001;
+
+    @Test
+    void should_keep_short_segments() {
+        List<PortableCoordinates> segment = asList(coordinates(0, 0), coordinates(1, 1));
+        assertThat(TrackSimplification.simplify(segment, 1000)).isEqualTo(segment);
+    }
+
+    @Test
+    void should_remove_points_on_straight_line() {
+        List<PortableCoordinates> segment = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            segment.add(coordinates(0, i * STEP));
+        }
+        assertThat(TrackSimplification.simplify(segment, 1)).containsExactly(segment.get(0), segment.get(100));
+    }
+
+    @Test
+    void should_keep_corners_farther_than_tolerance() {
+        PortableCoordinates start = coordinates(0, 0);
+        PortableCoordinates nearlyStraight = coordinates(STEP / 10, 5 * STEP); // about 1 m off the line
+        PortableCoordinates corner = coordinates(0, 10 * STEP);
+        PortableCoordinates end = coordinates(10 * STEP, 10 * STEP);
+        List<PortableCoordinates> segment = asList(start, nearlyStraight, corner, end);
+
+        assertThat(TrackSimplification.simplify(segment, 5)).containsExactly(start, corner, end);
+        assertThat(TrackSimplification.simplify(segment, 0.1)).containsExactly(start, nearlyStraight, corner, end);
+        assertThat(TrackSimplification.simplify(segment, 1000)).containsExactly(start, end);
+    }
+
+    private static PortableCoordinates coordinates(double latitude, double longitude) {
+        return PortableCoordinates.fromCoordinates(Coordinates.valueOf(latitude, longitude));
+    }
+}
@@ -16,8 +16,8 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
-import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,11 +31,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.optaweb.vehiclerouting.domain.Coordinates;
-import org.optaweb.vehiclerouting.domain.Distance;
 import org.optaweb.vehiclerouting.domain.Location;
-import org.optaweb.vehiclerouting.domain.Route;
-import org.optaweb.vehiclerouting.domain.RouteWithTrack;
-import org.optaweb.vehiclerouting.domain.RoutingPlan;
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
 import org.optaweb.vehiclerouting.domain.RoutingProblem;
 import org.optaweb.vehiclerouting.domain.Vehicle;
 import org.optaweb.vehiclerouting.domain.VehicleFactory;
@@ -44,7 +41,6 @@ import org.optaweb.vehiclerouting.service.error.ErrorEvent;
 import org.optaweb.vehiclerouting.service.location.LocationService;
 import org.optaweb.vehiclerouting.service.region.BoundingBox;
 import org.optaweb.vehiclerouting.service.region.RegionService;
-import org.optaweb.vehiclerouting.service.route.RouteListener;
 import org.optaweb.vehiclerouting.service.vehicle.VehicleService;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -52,7 +48,9 @@ import org.springframework.context.ApplicationEventPublisher;
 class WebSocketControllerTest {
 
     @Mock
-    private RouteListener routeListener;
+    private WebSocketRoutingPlanSender routingPlanSender;
+    @Mock
+    private WebSocketRoutingPlanSummarySender summarySender;
     @Mock
     private RegionService regionService;
     @Mock
@@ -74,31 +72,51 @@ class WebSocketControllerTest {
 
     @Test
     void subscribeToRouteTopic() {
-        // arrange
-        Distance distance = Distance.ofMillis(987_654_321);
-        Location depot = new Location(1, Coordinates.valueOf(3, 5));
-        Vehicle vehicle = VehicleFactory.createVehicle(1, "vehicle", 77);
-        Location visit = new Location(2, Coordinates.valueOf(321, 123));
-        Route route = new Route(vehicle, depot, singletonList(visit));
-        Coordinates pointOnTrack = Coordinates.valueOf(0, 0);
-        RouteWithTrack routeWithTrack = new RouteWithTrack(route, singletonList(singletonList(pointOnTrack)));
-        RoutingPlan plan = new RoutingPlan(
-                distance,
-                singletonList(vehicle),
-                depot,
-                singletonList(visit),
-                singletonList(routeWithTrack));
-        when(routeListener.getBestRoutingPlan()).thenReturn(plan);
+        SerializedJson snapshot = new SerializedJson("{}".getBytes());
+        when(routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE)).thenReturn(snapshot);
 
-        // act
-        PortableRoutingPlan portableRoutingPlan = webSocketController.subscribeToRouteTopic();
+        assertThat(webSocketController.subscribeToRouteTopic()).isSameAs(snapshot);
+    }
 
-        // assert
-        assertThat(portableRoutingPlan.getDistance()).isEqualTo(PortableDistance.fromDistance(distance));
-        assertThat(portableRoutingPlan.getVisits()).containsExactly(PortableLocation.fromLocation(visit));
-        assertThat(portableRoutingPlan.getVehicles()).containsExactly(PortableVehicle.fromVehicle(vehicle));
-        assertThat(portableRoutingPlan.getDepot()).isEqualTo(PortableLocation.fromLocation(depot));
-        assertThat(portableRoutingPlan.getRoutes()).hasSize(1);
+    @Test
+    void subscribeToEncodedRouteTopic() {
+        SerializedJson snapshot = new SerializedJson("{}".getBytes());
+        when(routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE)).thenReturn(snapshot);
+
+        assertThat(webSocketController.subscribeToEncodedRouteTopic()).isSameAs(snapshot);
+    }
+
+    @Test
+    void subscribeToSimplifiedRouteTopic() {
+        SerializedJson snapshot = new SerializedJson("{}".getBytes());
+        when(routingPlanSender.jsonSnapshot(TrackDetail.MEDIUM.topic())).thenReturn(snapshot);
+
+        assertThat(webSocketController.subscribeToSimplifiedRouteTopic("medium")).isSameAs(snapshot);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> webSocketController.subscribeToSimplifiedRouteTopic("extreme"));
+    }
+
+    @Test
+    void subscribeToRouteSummaryTopic() {
+        PortableRoutingPlanSummary summary = PortableRoutingPlanSummary.fromRoutingPlanSummary(
+                RoutingPlanSummary.empty());
+        when(summarySender.summary()).thenReturn(summary);
+
+        assertThat(webSocketController.subscribeToRouteSummaryTopic()).isSameAs(summary);
+    }
+
+    @Test
+    void subscribeToCborRouteTopics() {
+        byte[] cbor = { 1, 2, 3 };
+        byte[] encodedCbor = { 4, 5, 6 };
+        byte[] simplifiedCbor = { 7, 8, 9 };
+        when(routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE)).thenReturn(cbor);
+        when(routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE)).thenReturn(encodedCbor);
+        when(routingPlanSender.cborSnapshot(TrackDetail.LOW.topic())).thenReturn(simplifiedCbor);
+
+        assertThat(webSocketController.subscribeToCborRouteTopic()).isSameAs(cbor);
+        assertThat(webSocketController.subscribeToCborEncodedRouteTopic()).isSameAs(encodedCbor);
+        assertThat(webSocketController.subscribeToCborSimplifiedRouteTopic("low")).isSameAs(simplifiedCbor);
     }
 
     @Test
@@ -16,31 +16,231 @@
 
 package org.optaweb.vehiclerouting.plugin.websocket;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.domain.Route;
+import org.optaweb.vehiclerouting.domain.RouteWithTrack;
 import org.optaweb.vehiclerouting.domain.RoutingPlan;
+import org.optaweb.vehiclerouting.domain.Vehicle;
+import org.optaweb.vehiclerouting.domain.VehicleFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 @ExtendWith(MockitoExtension.class)
 class WebSocketRoutingPlanSenderTest {
 
     @Mock
     private SimpMessagingTemplate webSocket;
+    @Mock
+    private TopicSubscriptions topicSubscriptions;
+    @Spy
+    private SerializedJsonMessageConverter jsonMessageConverter = new SerializedJsonMessageConverter();
+    @Spy
+    private CborMessageConverter cborMessageConverter = new CborMessageConverter();
+    @Captor
+    private ArgumentCaptor<PortableRoutingPlanDelta> deltaCaptor;
     @InjectMocks
     private WebSocketRoutingPlanSender routingPlanSender;
 
     @Test
-    void should_send_consumed_routing_plan_over_websocket() {
-        routingPlanSender.consumePlan(RoutingPlan.empty());
-        verify(webSocket).convertAndSend(
-                eq(WebSocketRoutingPlanSender.TOPIC_ROUTE),
-                any(PortableRoutingPlan.class));
+    void should_broadcast_routing_plan_over_websocket() {
+        subscribeToAllTopics();
+        routingPlanSender.broadcast(RoutingPlan.empty());
+        verify(webSocket).convertAndSend(eq(WebSocketRoutingPlanSender.TOPIC_ROUTE), deltaCaptor.capture());
+        assertThat(deltaCaptor.getValue().getBaseSequence()).isZero();
+        assertThat(deltaCaptor.getValue().getSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void should_send_compact_delta_to_polyline_topic() {
+        subscribeToAllTopics();
+        Location depot = new Location(1, Coordinates.valueOf(1, 1));
+        Location visit = new Location(2, Coordinates.valueOf(2, 2));
+        Vehicle vehicle = VehicleFactory.testVehicle(1);
+        RouteWithTrack route = new RouteWithTrack(
+                new Route(vehicle, depot, singletonList(visit)),
+                asList(
+                        asList(depot.coordinates(), visit.coordinates()),
+                        asList(visit.coordinates(), depot.coordinates())));
+        routingPlanSender.broadcast(new RoutingPlan(
+                Distance.ZERO, singletonList(vehicle), depot, singletonList(visit), singletonList(route)));
+
+        verify(webSocket).convertAndSend(eq(WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE), deltaCaptor.capture());
+        PortableRoute compactRoute = deltaCaptor.getValue().getRoutes().get(0);
+        assertThat(compactRoute.getTrack()).isNull();
+        assertThat(compactRoute.getEncodedTrack()).hasSize(2);
+
+        PortableRoutingPlan snapshot = routingPlanSender.snapshot().plan();
+        PortableRoutingPlan encodedSnapshot = routingPlanSender.format(
+                snapshot, WebSocketRoutingPlanSender.TOPIC_ROUTE_POLYLINE);
+        assertThat(encodedSnapshot.getSequence()).isEqualTo(deltaCaptor.getValue().getSequence());
+        assertThat(encodedSnapshot.getRoutes().get(0).getEncodedTrack()).isEqualTo(compactRoute.getEncodedTrack());
+        assertThat(snapshot.getRoutes().get(0).getTrack()).hasSize(2);
+    }
+
+    @Test
+    void should_send_simplified_compact_delta_for_each_detail_level() {
+        subscribeToAllTopics();
+        Location depot = new Location(1, Coordinates.valueOf(0, 0));
+        Location visit = new Location(2, Coordinates.valueOf(0, 0.002));
+        Vehicle vehicle = VehicleFactory.testVehicle(1);
+        Coordinates halfway = Coordinates.valueOf(0, 0.001);
+        RouteWithTrack route = new RouteWithTrack(
+                new Route(vehicle, depot, singletonList(visit)),
+                asList(
+                        asList(depot.coordinates(), halfway, visit.coordinates()),
+                        asList(visit.coordinates(), halfway, depot.coordinates())));
+        routingPlanSender.broadcast(new RoutingPlan(
+                Distance.ZERO, singletonList(vehicle), depot, singletonList(visit), singletonList(route)));
+
+        for (TrackDetail detail : TrackDetail.values()) {
+            verify(webSocket).convertAndSend(eq(detail.topic()), deltaCaptor.capture());
+            PortableRoute simplifiedRoute = deltaCaptor.getValue().getRoutes().get(0);
+            assertThat(simplifiedRoute.getTrack()).isNull();
+            // the halfway point is on a straight line
+            assertThat(simplifiedRoute.getEncodedTrack()).containsExactly(
+                    PolylineEncoding.encode(asList(
+                            PortableCoordinates.fromCoordinates(depot.coordinates()),
+                            PortableCoordinates.fromCoordinates(visit.coordinates()))),
+                    PolylineEncoding.encode(asList(
+                            PortableCoordinates.fromCoordinates(visit.coordinates()),
+                            PortableCoordinates.fromCoordinates(depot.coordinates()))));
+
+            PortableRoutingPlan snapshot = routingPlanSender.format(
+                    routingPlanSender.snapshot().plan(), detail.topic());
+            assertThat(snapshot.getRoutes().get(0).getEncodedTrack()).isEqualTo(simplifiedRoute.getEncodedTrack());
+        }
+    }
+
+    @Test
+    void should_not_send_anything_when_nobody_is_subscribed() {
+        when(topicSubscriptions.hasSubscribers(anyString())).thenReturn(false);
+        routingPlanSender.broadcast(RoutingPlan.empty());
+        verifyNoInteractions(webSocket);
+        // the plan still becomes the new baseline
+        assertThat(routingPlanSender.snapshot().plan().getSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void should_send_cbor_to_cbor_topic() throws IOException {
+        String cborTopic = WebSocketRoutingPlanSender.cborTopic(WebSocketRoutingPlanSender.TOPIC_ROUTE);
+        assertThat(cborTopic).isEqualTo("/topic/cbor/route");
+        when(topicSubscriptions.hasSubscribers(anyString())).thenReturn(false);
+        when(topicSubscriptions.hasSubscribers(cborTopic)).thenReturn(true);
+
+        routingPlanSender.broadcast(RoutingPlan.empty());
+
+        ArgumentCaptor<byte[]> cborCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(webSocket).convertAndSend(eq(cborTopic), cborCaptor.capture());
+        verify(webSocket, never()).convertAndSend(eq(WebSocketRoutingPlanSender.TOPIC_ROUTE), any(Object.class));
+        JsonNode delta = cborMessageConverter.getObjectMapper().readTree(cborCaptor.getValue());
+        assertThat(delta.get("baseSequence").asLong()).isZero();
+        assertThat(delta.get("sequence").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot_should_be_empty_before_first_plan() {
+        PortableRoutingPlan snapshot = routingPlanSender.snapshot().plan();
+        assertThat(snapshot.getSequence()).isZero();
+        assertThat(snapshot.getRoutes()).isEmpty();
+    }
+
+    @Test
+    void deltas_should_be_based_on_previous_plan_and_only_contain_changed_routes() {
+        subscribeToAllTopics();
+        Location depot = new Location(1, Coordinates.valueOf(1, 1));
+        Location visit = new Location(2, Coordinates.valueOf(2, 2));
+        Vehicle vehicle1 = VehicleFactory.testVehicle(1);
+        Vehicle vehicle2 = VehicleFactory.testVehicle(2);
+        List<Vehicle> vehicles = asList(vehicle1, vehicle2);
+        RouteWithTrack emptyRoute1 = new RouteWithTrack(new Route(vehicle1, depot, emptyList()), emptyList());
+        RouteWithTrack emptyRoute2 = new RouteWithTrack(new Route(vehicle2, depot, emptyList()), emptyList());
+        RouteWithTrack route2 = new RouteWithTrack(
+                new Route(vehicle2, depot, singletonList(visit)),
+                singletonList(asList(depot.coordinates(), visit.coordinates())));
+
+        routingPlanSender.broadcast(new RoutingPlan(
+                Distance.ZERO, vehicles, depot, singletonList(visit),
+                asList(emptyRoute1, emptyRoute2)));
+        routingPlanSender.broadcast(new RoutingPlan(
+                Distance.ofMillis(1000), vehicles, depot, singletonList(visit),
+                asList(emptyRoute1, route2)));
+
+        verify(webSocket, times(2)).convertAndSend(eq(WebSocketRoutingPlanSender.TOPIC_ROUTE), deltaCaptor.capture());
+        PortableRoutingPlanDelta first = deltaCaptor.getAllValues().get(0);
+        assertThat(first.getRoutes()).hasSize(2);
+        assertThat(first.getVisits()).containsExactly(PortableLocation.fromLocation(visit));
+
+        PortableRoutingPlanDelta second = deltaCaptor.getAllValues().get(1);
+        assertThat(second.getBaseSequence()).isEqualTo(first.getSequence());
+        assertThat(second.getSequence()).isEqualTo(first.getSequence() + 1);
+        assertThat(second.getVisits()).isNull();
+        assertThat(second.getRoutes()).hasSize(1);
+        assertThat(second.getRoutes().get(0).getVehicle()).isEqualTo(PortableVehicle.fromVehicle(vehicle2));
+
+        PortableRoutingPlan snapshot = routingPlanSender.snapshot().plan();
+        assertThat(snapshot.getSequence()).isEqualTo(second.getSequence());
+        assertThat(snapshot.getDistance()).isEqualTo(second.getDistance());
+        assertThat(snapshot.getRoutes()).hasSize(2);
+    }
+
+    @Test
+    void snapshot_should_be_serialized_once_per_plan_and_format() throws IOException {
+        PlanSnapshot first = routingPlanSender.snapshot();
+        SerializedJson json = routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE);
+        assertThat(routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE).bytes())
+                .isSameAs(json.bytes());
+        assertThat(routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE))
+                .isSameAs(routingPlanSender.cborSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE));
+        verify(jsonMessageConverter).toJson(any());
+        verify(cborMessageConverter).toCbor(any());
+        assertThat(jsonMessageConverter.getObjectMapper().readTree(json.bytes()).get("sequence").asLong()).isZero();
+
+        when(topicSubscriptions.hasSubscribers(anyString())).thenReturn(false);
+        routingPlanSender.broadcast(RoutingPlan.empty());
+
+        PlanSnapshot second = routingPlanSender.snapshot();
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(routingPlanSender.jsonSnapshot(WebSocketRoutingPlanSender.TOPIC_ROUTE).bytes())
+                .isNotSameAs(json.bytes());
+        // the previous snapshot keeps its serialized form
+        assertThat(routingPlanSender.json(first, WebSocketRoutingPlanSender.TOPIC_ROUTE)).isSameAs(json.bytes());
+    }
+
+    @Test
+    void should_reject_unknown_topic() {
+        PortableRoutingPlan plan = routingPlanSender.snapshot().plan();
+        assertThatIllegalArgumentException().isThrownBy(() -> routingPlanSender.format(plan, "/topic/nothing"));
+    }
+
+    private void subscribeToAllTopics() {
+        when(topicSubscriptions.hasSubscribers(anyString())).thenReturn(true);
     }
 }
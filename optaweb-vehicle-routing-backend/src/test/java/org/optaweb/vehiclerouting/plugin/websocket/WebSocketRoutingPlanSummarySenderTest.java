@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.plugin.websocket;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.RouteSummary;
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketRoutingPlanSummarySenderTest {
+
+    @Mock
+    private SimpMessagingTemplate webSocket;
+    @Mock
+    private TopicSubscriptions topicSubscriptions;
+    @InjectMocks
+    private WebSocketRoutingPlanSummarySender summarySender;
+
+    private final RoutingPlanSummary summary = new RoutingPlanSummary(
+            Distance.ofMillis(60_000),
+            1,
+            2,
+            singletonList(new RouteSummary(7, 2, 3, Distance.ofMillis(60_000))));
+
+    @Test
+    void should_send_summary_to_summary_topic() {
+        when(topicSubscriptions.hasSubscribers(WebSocketRoutingPlanSummarySender.TOPIC_ROUTE_SUMMARY))
+                .thenReturn(true);
+
+        summarySender.consumeSummary(summary);
+
+        PortableRoutingPlanSummary sent = summarySender.summary();
+        verify(webSocket).convertAndSend(WebSocketRoutingPlanSummarySender.TOPIC_ROUTE_SUMMARY, sent);
+        PortableRoutingPlanSummary expected = PortableRoutingPlanSummary.fromRoutingPlanSummary(summary);
+        assertThat(sent.getVisitCount()).isEqualTo(expected.getVisitCount());
+        assertThat(sent.getRoutes()).isEqualTo(expected.getRoutes());
+    }
+
+    @Test
+    void should_keep_latest_summary_when_nobody_is_subscribed() {
+        when(topicSubscriptions.hasSubscribers(anyString())).thenReturn(false);
+
+        summarySender.consumeSummary(summary);
+
+        verify(webSocket, never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(summarySender.summary().getVehicleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void summary_should_be_empty_initially() {
+        assertThat(summarySender.summary().getVehicleCount()).isZero();
+        assertThat(summarySender.summary().getRoutes()).isEmpty();
+    }
+}
@@ -95,12 +95,25 @@ class DemoServiceTest {
         // act
         demoService.loadDemo(problemName);
         // assert
-        verify(locationService, times(routingProblem.visits().size() + 1))
-                .createLocation(any(Coordinates.class), anyString());
+        verify(locationService).createLocation(depot.coordinates(), depot.description());
+        verify(locationService).createLocations(routingProblem.visits());
         verify(vehicleService, times(routingProblem.vehicles().size()))
                 .createVehicle(any(VehicleData.class));
     }
 
+    @Test
+    void discarded_visits_should_be_retried_one_by_one() {
+        // arrange
+        when(routingProblems.byName(problemName)).thenReturn(routingProblem);
+        when(locationService.createLocations(routingProblem.visits())).thenReturn(routingProblem.visits());
+        when(locationService.createLocation(any(Coordinates.class), anyString())).thenReturn(true);
+        // act
+        demoService.loadDemo(problemName);
+        // assert
+        verify(locationService, times(routingProblem.visits().size() + 1))
+                .createLocation(any(Coordinates.class), anyString());
+    }
+
     @Test
     void retry_when_adding_location_fails() {
         when(routingProblems.byName(problemName)).thenReturn(routingProblem);
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnIndexesTest {
+
+    @Test
+    void should_return_none_for_unknown_location() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        assertThat(columnIndexes.indexOf(0)).isEqualTo(ColumnIndexes.NONE);
+        assertThat(columnIndexes.indexOf(Long.MAX_VALUE)).isEqualTo(ColumnIndexes.NONE);
+        assertThat(columnIndexes.size()).isZero();
+    }
+
+    @Test
+    void should_put_replace_and_remove_indexes() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        for (int i = 0; i < 1000; i++) {
+            columnIndexes.put(1000L + i * 7919L, i);
+        }
+        assertThat(columnIndexes.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(columnIndexes.indexOf(1000L + i * 7919L)).isEqualTo(i);
+        }
+
+        columnIndexes.put(1000, 5);
+        assertThat(columnIndexes.indexOf(1000)).isEqualTo(5);
+        assertThat(columnIndexes.size()).isEqualTo(1000);
+
+        columnIndexes.remove(1000);
+        assertThat(columnIndexes.indexOf(1000)).isEqualTo(ColumnIndexes.NONE);
+        assertThat(columnIndexes.indexOf(1000 + 7919)).isEqualTo(1);
+        assertThat(columnIndexes.size()).isEqualTo(999);
+
+        // removing a missing location is a no-op
+        columnIndexes.remove(-1);
+        assertThat(columnIndexes.size()).isEqualTo(999);
+
+        columnIndexes.clear();
+        assertThat(columnIndexes.indexOf(1000 + 7919)).isEqualTo(ColumnIndexes.NONE);
+        assertThat(columnIndexes.size()).isZero();
+    }
+
+    @Test
+    void should_put_all_indexes_at_once() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        columnIndexes.put(1, 0);
+        columnIndexes.put(2, 1);
+        long[] locationIds = new long[1000];
+        int[] indexes = new int[1000];
+        for (int i = 0; i < 1000; i++) {
+            locationIds[i] = 2L + i * 7919L;
+            indexes[i] = i + 1;
+        }
+
+        columnIndexes.putAll(locationIds, indexes);
+
+        assertThat(columnIndexes.size()).isEqualTo(1001);
+        assertThat(columnIndexes.indexOf(1)).isZero();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(columnIndexes.indexOf(locationIds[i])).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void index_must_not_be_negative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ColumnIndexes().put(1, -1));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ColumnIndexes().putAll(new long[] { 1 }, new int[] { -1 }));
+    }
+}
@@ -16,17 +16,25 @@
 
 package org.optaweb.vehiclerouting.service.distance;
 
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,13 +53,15 @@ class DistanceMatrixImplTest {
     private DistanceCalculator distanceCalculator;
     @Mock
     private DistanceRepository distanceRepository;
+    @Mock
+    private DistanceWriter distanceWriter;
     @InjectMocks
     private DistanceMatrixImpl distanceMatrix;
 
     @Test
     void should_calculate_distance_map() {
-        when(distanceRepository.getDistance(any(), any())).thenReturn(-1L); // empty repository
-        DistanceMatrixImpl distanceMatrix = new DistanceMatrixImpl(new MockDistanceCalculator(), distanceRepository);
+        DistanceMatrixImpl distanceMatrix =
+                new DistanceMatrixImpl(new MockDistanceCalculator(), distanceRepository, distanceWriter);
 
         Location l0 = location(100, 0);
         Location l1 = location(111, 1);
@@ -85,22 +95,71 @@ class DistanceMatrixImplTest {
         assertThat(distanceMatrix.dimension()).isEqualTo(3);
         distanceMatrix.clear();
         assertThat(distanceMatrix.dimension()).isZero();
-        verify(distanceRepository).deleteAll();
+        verify(distanceWriter).deleteAll();
         Location l500 = location(500, 500);
         DistanceMatrixRow matrixRow500 = distanceMatrix.addLocation(l500);
         assertThatIllegalArgumentException().isThrownBy(() -> matrixRow500.distanceTo(l0.id()));
         assertThatIllegalArgumentException().isThrownBy(() -> matrixRow9.distanceTo(l500.id()));
     }
 
+    @Test
+    void should_add_locations_in_bulk_and_persist_calculated_distances_in_one_batch() {
+        DistanceMatrixImpl distanceMatrix =
+                new DistanceMatrixImpl(new MockDistanceCalculator(), distanceRepository, distanceWriter);
+
+        Location l0 = location(100, 0);
+        Location l1 = location(111, 1);
+        Location l9neg = location(321, -9);
+        DistanceMatrixRow matrixRow0 = distanceMatrix.addLocation(l0);
+
+        Map<Location, DistanceMatrixRow> addedRows = distanceMatrix.addLocations(Arrays.asList(l1, l9neg));
+
+        assertThat(addedRows.keySet()).containsExactly(l1, l9neg);
+        assertThat(distanceMatrix.dimension()).isEqualTo(3);
+        DistanceMatrixRow matrixRow1 = addedRows.get(l1);
+        DistanceMatrixRow matrixRow9 = addedRows.get(l9neg);
+        // new rows know distances to both existing and new locations
+        assertThat(matrixRow1.distanceTo(l1.id())).isEqualTo(Distance.ZERO);
+        assertThat(matrixRow1.distanceTo(l0.id())).isEqualTo(Distance.ofMillis(1));
+        assertThat(matrixRow1.distanceTo(l9neg.id())).isEqualTo(Distance.ofMillis(10));
+        assertThat(matrixRow9.distanceTo(l0.id())).isEqualTo(Distance.ofMillis(9));
+        assertThat(matrixRow9.distanceTo(l1.id())).isEqualTo(Distance.ofMillis(10));
+        // existing rows know distances to the new locations
+        assertThat(matrixRow0.distanceTo(l1.id())).isEqualTo(Distance.ofMillis(1));
+        assertThat(matrixRow0.distanceTo(l9neg.id())).isEqualTo(Distance.ofMillis(9));
+
+        // all cells calculated in the bulk operation are persisted in one batch
+        verify(distanceWriter).saveDistances(anyMap());
+        verify(distanceRepository, never()).saveDistance(any(Location.class), any(Location.class), anyLong());
+    }
+
+    @Test
+    void failed_bulk_add_should_leave_matrix_unchanged() {
+        Location l1 = location(1, 0);
+        Location l2 = location(2, 0);
+        lenient().when(distanceCalculator.travelTimesMillisFrom(any(), any()))
+                .thenThrow(new DistanceCalculationException("test"));
+        lenient().when(distanceCalculator.travelTimesMillisTo(any(), any()))
+                .thenThrow(new DistanceCalculationException("test"));
+
+        assertThatExceptionOfType(DistanceCalculationException.class)
+                .isThrownBy(() -> distanceMatrix.addLocations(Arrays.asList(l1, l2)));
+        assertThat(distanceMatrix.dimension()).isZero();
+        verify(distanceWriter, never()).saveDistances(anyMap());
+
+        assertThat(distanceMatrix.addLocations(Collections.emptyList())).isEmpty();
+    }
+
     @Test
     void should_call_router_and_persist_distances_when_repo_is_empty() {
         Location l1 = location(100, -1);
         Location l2 = location(111, 20);
         long dist12 = 12;
         long dist21 = 21;
-        when(distanceRepository.getDistance(any(), any())).thenReturn(-1L);
-        when(distanceCalculator.travelTimeMillis(l1.coordinates(), l2.coordinates())).thenReturn(dist12);
-        when(distanceCalculator.travelTimeMillis(l2.coordinates(), l1.coordinates())).thenReturn(dist21);
+        when(distanceCalculator.travelTimesMillisTo(singletonList(l1.coordinates()), l2.coordinates()))
+                .thenReturn(new long[] { dist12 });
+        when(distanceCalculator.travelTimesMillisFrom(l2.coordinates(), singletonList(l1.coordinates())))
+                .thenReturn(new long[] { dist21 });
 
         // no calculation for the first location
         distanceMatrix.addLocation(l1);
@@ -110,20 +169,22 @@ class DistanceMatrixImplTest {
         distanceMatrix.addLocation(l2);
 
         // getting distances from the repository (unsuccessful)
-        verify(distanceRepository).getDistance(l2, l1);
-        verify(distanceRepository).getDistance(l1, l2);
+        verify(distanceRepository).getDistancesFrom(l2, singletonList(l1));
+        verify(distanceRepository).getDistancesTo(singletonList(l1), l2);
 
         // distances are calculated and persisted
-        verify(distanceRepository).saveDistance(l2, l1, dist21);
-        verify(distanceRepository).saveDistance(l1, l2, dist12);
+        Map<Location, Map<Location, Long>> expectedDistances = new HashMap<>();
+        expectedDistances.put(l1, singletonMap(l2, dist12));
+        expectedDistances.put(l2, singletonMap(l1, dist21));
+        verify(distanceWriter).saveDistances(expectedDistances);
     }
 
     @Test
     void should_not_call_router_when_repo_is_full() {
         Location l1 = location(1, 0);
         Location l2 = location(2, 0);
-        when(distanceRepository.getDistance(l1, l2)).thenReturn(0L);
-        when(distanceRepository.getDistance(l2, l1)).thenReturn(1L);
+        when(distanceRepository.getDistancesTo(singletonList(l1), l2)).thenReturn(singletonMap(l1, 0L));
+        when(distanceRepository.getDistancesFrom(l2, singletonList(l1))).thenReturn(singletonMap(l1, 1L));
 
         // no calculation for the first location
         distanceMatrix.addLocation(l1);
@@ -133,11 +194,12 @@ class DistanceMatrixImplTest {
         distanceMatrix.addLocation(l2);
 
         // get distances from the repository
-        verify(distanceRepository).getDistance(l2, l1);
-        verify(distanceRepository).getDistance(l1, l2);
+        verify(distanceRepository).getDistancesFrom(l2, singletonList(l1));
+        verify(distanceRepository).getDistancesTo(singletonList(l1), l2);
 
         // nothing to persist
         verify(distanceRepository, never()).saveDistance(any(Location.class), any(Location.class), anyLong());
+        verify(distanceWriter, never()).saveDistances(anyMap());
         // no calculation
         verifyNoInteractions(distanceCalculator);
     }
@@ -147,8 +209,10 @@ class DistanceMatrixImplTest {
         // arrange
         Location l1 = location(1, 1);
         Location l2 = location(2, 2);
-        when(distanceRepository.getDistance(any(), any())).thenReturn(-1L);
-        when(distanceCalculator.travelTimeMillis(l1.coordinates(), l2.coordinates()))
+        // the row and the column are calculated in parallel, either of them can fail first
+        lenient().when(distanceCalculator.travelTimesMillisFrom(any(), any()))
+                .thenThrow(new DistanceCalculationException("dummy"));
+        lenient().when(distanceCalculator.travelTimesMillisTo(any(), any()))
                 .thenThrow(new DistanceCalculationException("dummy"));
 
         distanceMatrix.addLocation(l1);
@@ -158,12 +222,61 @@ class DistanceMatrixImplTest {
         // act & assert
         distanceMatrix.removeLocation(l1);
         assertThat(distanceMatrix.dimension()).isZero();
-        verify(distanceRepository).deleteDistances(l1);
+        verify(distanceWriter).deleteDistances(l1);
 
         distanceMatrix.addLocation(l2);
         assertThat(distanceMatrix.dimension()).isEqualTo(1);
     }
 
+    @Test
+    void removed_column_should_stay_readable_until_released_and_then_be_reused() {
+        DistanceMatrixImpl distanceMatrix =
+                new DistanceMatrixImpl(new MockDistanceCalculator(), distanceRepository, distanceWriter);
+
+        Location l1 = location(1, 1);
+        Location l2 = location(2, 2);
+        Location l3 = location(3, 3);
+        Location l4 = location(4, 7);
+        DistanceMatrixRow matrixRow1 = distanceMatrix.addLocation(l1);
+        DistanceMatrixRowImpl matrixRow2 = (DistanceMatrixRowImpl) distanceMatrix.addLocation(l2);
+        DistanceMatrixRow matrixRow3 = distanceMatrix.addLocation(l3);
+
+        distanceMatrix.removeLocation(l2);
+        assertThat(distanceMatrix.dimension()).isEqualTo(2);
+        verify(distanceWriter).deleteDistances(l2);
+        // the solver may still ask for distances to the removed location
+        assertThat(matrixRow1.millisTo(l2.id())).isEqualTo(1);
+        assertThat(matrixRow3.millisTo(l2.id())).isEqualTo(1);
+
+        distanceMatrix.releaseLocation(l2);
+        DistanceMatrixRowImpl matrixRow4 = (DistanceMatrixRowImpl) distanceMatrix.addLocation(l4);
+
+        // the released column is reused
+        assertThat(matrixRow4.index()).isEqualTo(matrixRow2.index());
+        assertThat(matrixRow1.millisTo(l4.id())).isEqualTo(6);
+        assertThat(matrixRow3.millisTo(l4.id())).isEqualTo(4);
+        assertThat(matrixRow4.millisTo(l1.id())).isEqualTo(6);
+        assertThat(matrixRow4.millisTo(l3.id())).isEqualTo(4);
+        assertThatIllegalArgumentException().isThrownBy(() -> matrixRow1.millisTo(l2.id()));
+        assertThatIllegalArgumentException().isThrownBy(() -> matrixRow4.millisTo(l2.id()));
+    }
+
+    @Test
+    void releasing_location_that_is_in_the_matrix_should_have_no_effect() {
+        DistanceMatrixImpl distanceMatrix =
+                new DistanceMatrixImpl(new MockDistanceCalculator(), distanceRepository, distanceWriter);
+
+        Location l1 = location(1, 1);
+        Location l2 = location(2, 2);
+        DistanceMatrixRowImpl matrixRow1 = (DistanceMatrixRowImpl) distanceMatrix.addLocation(l1);
+
+        distanceMatrix.releaseLocation(l1);
+        DistanceMatrixRowImpl matrixRow2 = (DistanceMatrixRowImpl) distanceMatrix.addLocation(l2);
+
+        assertThat(matrixRow2.index()).isNotEqualTo(matrixRow1.index());
+        assertThat(matrixRow2.millisTo(l1.id())).isEqualTo(1);
+    }
+
     private static Location location(long id, int longitude) {
         return new Location(id, new Coordinates(BigDecimal.ZERO, BigDecimal.valueOf(longitude)));
     }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.Location;
+
+class DistanceMatrixRowImplTest {
+
+    private final Location location = new Location(10, Coordinates.valueOf(0, 0));
+
+    @Test
+    void distance_to_self_should_be_zero() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        columnIndexes.put(location.id(), 3);
+        DistanceMatrixRowImpl row = new DistanceMatrixRowImpl(location, 3, columnIndexes, 0);
+        assertThat(row.distanceTo(location.id())).isEqualTo(Distance.ZERO);
+    }
+
+    @Test
+    void should_grow_and_keep_existing_cells() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        columnIndexes.put(location.id(), 0);
+        columnIndexes.put(20, 1);
+        columnIndexes.put(30, 100);
+        DistanceMatrixRowImpl row = new DistanceMatrixRowImpl(location, 0, columnIndexes, 2);
+        row.put(1, 21);
+
+        row.ensureCapacity(100);
+        row.put(100, 31);
+
+        assertThat(row.distanceTo(20)).isEqualTo(Distance.ofMillis(21));
+        assertThat(row.distanceTo(30)).isEqualTo(Distance.ofMillis(31));
+        assertThat(row.millisTo(20)).isEqualTo(21);
+        assertThat(row.millisTo(30)).isEqualTo(31);
+    }
+
+    @Test
+    void should_fail_when_distance_is_unknown() {
+        ColumnIndexes columnIndexes = new ColumnIndexes();
+        columnIndexes.put(location.id(), 0);
+        columnIndexes.put(20, 1);
+        columnIndexes.put(30, 50);
+        DistanceMatrixRowImpl row = new DistanceMatrixRowImpl(location, 0, columnIndexes, 2);
+
+        // column index is known but the cell has not been set
+        assertThatIllegalArgumentException().isThrownBy(() -> row.distanceTo(20));
+        // column index is beyond the row's capacity
+        assertThatIllegalArgumentException().isThrownBy(() -> row.distanceTo(30));
+        // location is not in the matrix at all
+        assertThatIllegalArgumentException().isThrownBy(() -> row.distanceTo(40));
+        assertThatIllegalArgumentException().isThrownBy(() -> row.millisTo(40));
+    }
+}
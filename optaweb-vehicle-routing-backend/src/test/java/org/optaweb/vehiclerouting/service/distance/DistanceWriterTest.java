@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.distance;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+
+@ExtendWith(MockitoExtension.class)
+class DistanceWriterTest {
+
+    @Mock
+    private DistanceRepository distanceRepository;
+
+    private final Location l1 = new Location(1, Coordinates.valueOf(0, 1));
+    private final Location l2 = new Location(2, Coordinates.valueOf(0, 2));
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_apply_operations_in_order() {
+        DistanceWriter distanceWriter = new DistanceWriter(distanceRepository, executor);
+
+        distanceWriter.saveDistances(singletonMap(l1, singletonMap(l2, 12L)));
+        distanceWriter.deleteDistances(l1);
+        distanceWriter.deleteAll();
+        distanceWriter.flush();
+
+        InOrder inOrder = inOrder(distanceRepository);
+        inOrder.verify(distanceRepository).saveDistances(singletonMap(l1, singletonMap(l2, 12L)));
+        inOrder.verify(distanceRepository).deleteDistances(l1);
+        inOrder.verify(distanceRepository).deleteAll();
+        distanceWriter.close();
+    }
+
+    @Test
+    void should_not_queue_empty_batch() {
+        DistanceWriter distanceWriter = new DistanceWriter(distanceRepository, executor);
+        distanceWriter.saveDistances(Collections.emptyMap());
+        distanceWriter.saveDistances(singletonMap(l1, Collections.emptyMap()));
+        distanceWriter.close();
+        verifyNoInteractions(distanceRepository);
+    }
+
+    @Test
+    void should_save_pending_distances_when_closed() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            proceed.await();
+            return null;
+        }).when(distanceRepository).deleteAll();
+        DistanceWriter distanceWriter = new DistanceWriter(distanceRepository, executor);
+
+        // block the writer so that the following save stays in the queue
+        distanceWriter.deleteAll();
+        assertThat(writing.await(1, TimeUnit.MINUTES)).isTrue();
+        distanceWriter.saveDistances(singletonMap(l1, singletonMap(l2, 12L)));
+        proceed.countDown();
+        distanceWriter.close();
+
+        verify(distanceRepository).saveDistances(singletonMap(l1, singletonMap(l2, 12L)));
+        assertThatIllegalStateException().isThrownBy(() -> distanceWriter.deleteDistances(l1));
+    }
+
+    @Test
+    void failed_write_should_not_stop_the_writer() {
+        doThrow(new RuntimeException("test exception")).when(distanceRepository).saveDistances(anyMap());
+        DistanceWriter distanceWriter = new DistanceWriter(distanceRepository, executor, 1);
+
+        distanceWriter.saveDistances(singletonMap(l1, singletonMap(l2, 12L)));
+        // the permit is released even though the save failed, otherwise this would block forever
+        distanceWriter.saveDistances(singletonMap(l2, singletonMap(l1, 21L)));
+        distanceWriter.deleteDistances(l1);
+        distanceWriter.close();
+
+        verify(distanceRepository).deleteDistances(l1);
+    }
+}
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -28,15 +29,21 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.optaweb.vehiclerouting.domain.Coordinates;
 import org.optaweb.vehiclerouting.domain.Location;
+import org.optaweb.vehiclerouting.domain.LocationData;
 import org.optaweb.vehiclerouting.service.error.ErrorEvent;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -53,10 +60,19 @@ class LocationServiceTest {
     private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private LocationService locationService;
+    @Captor
+    private ArgumentCaptor<Runnable> callbackCaptor;
 
     private final Coordinates coordinates = Coordinates.valueOf(0.0, 1.0);
     private final Location location = new Location(1, coordinates);
 
+    private void runBulkEdits() {
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(optimizer).bulkEdit(any());
+    }
+
     @Test
     void createLocation_should_validate_arguments() {
         assertThatNullPointerException().isThrownBy(() -> locationService.createLocation(null, "x"));
@@ -91,6 +107,81 @@ class LocationServiceTest {
         verify(optimizer).addLocation(location, matrixRow);
     }
 
+    @Test
+    void createLocations_should_calculate_distances_in_bulk(
+            @Mock DistanceMatrixRow matrixRow1,
+            @Mock DistanceMatrixRow matrixRow2) {
+        Location location2 = new Location(2, Coordinates.valueOf(1.0, 0.0));
+        LocationData data1 = new LocationData(location.coordinates(), "1");
+        LocationData data2 = new LocationData(location2.coordinates(), "2");
+        when(repository.createLocation(data1.coordinates(), data1.description())).thenReturn(location);
+        when(repository.createLocation(data2.coordinates(), data2.description())).thenReturn(location2);
+        Map<Location, DistanceMatrixRow> matrixRows = new HashMap<>();
+        matrixRows.put(location, matrixRow1);
+        matrixRows.put(location2, matrixRow2);
+        when(distanceMatrix.addLocations(Arrays.asList(location, location2))).thenReturn(matrixRows);
+        runBulkEdits();
+
+        assertThat(locationService.createLocations(Arrays.asList(data1, data2))).isEmpty();
+
+        verify(distanceMatrix, never()).addLocation(any());
+        verify(optimizer).addLocation(location, matrixRow1);
+        verify(optimizer).addLocation(location2, matrixRow2);
+    }
+
+    @Test
+    void createLocations_should_fall_back_to_one_by_one_when_bulk_calculation_fails(
+            @Mock DistanceMatrixRow matrixRow) {
+        Location location2 = new Location(2, Coordinates.valueOf(1.0, 0.0));
+        LocationData data1 = new LocationData(location.coordinates(), "1");
+        LocationData data2 = new LocationData(location2.coordinates(), "2");
+        when(repository.createLocation(data1.coordinates(), data1.description())).thenReturn(location);
+        when(repository.createLocation(data2.coordinates(), data2.description())).thenReturn(location2);
+        doThrow(new RuntimeException("test exception")).when(distanceMatrix).addLocations(any());
+        when(distanceMatrix.addLocation(location)).thenReturn(matrixRow);
+        doThrow(new RuntimeException("test exception")).when(distanceMatrix).addLocation(location2);
+
+        List<LocationData> discarded = locationService.createLocations(Arrays.asList(data1, data2));
+
+        assertThat(discarded).containsExactly(data2);
+        verify(optimizer).addLocation(location, matrixRow);
+        verify(repository).removeLocation(location2.id());
+    }
+
+    @Test
+    void createLocations_should_discard_all_locations_when_optimizer_fails(@Mock DistanceMatrixRow matrixRow) {
+        Location location2 = new Location(2, Coordinates.valueOf(1.0, 0.0));
+        LocationData data1 = new LocationData(location.coordinates(), "1");
+        LocationData data2 = new LocationData(location2.coordinates(), "2");
+        when(repository.createLocation(data1.coordinates(), data1.description())).thenReturn(location);
+        when(repository.createLocation(data2.coordinates(), data2.description())).thenReturn(location2);
+        Map<Location, DistanceMatrixRow> matrixRows = new HashMap<>();
+        matrixRows.put(location, matrixRow);
+        matrixRows.put(location2, matrixRow);
+        when(distanceMatrix.addLocations(Arrays.asList(location, location2))).thenReturn(matrixRows);
+        doThrow(new IllegalStateException("Solver is dead")).when(optimizer).bulkEdit(any());
+
+        List<LocationData> discarded = locationService.createLocations(Arrays.asList(data1, data2));
+
+        assertThat(discarded).containsExactly(data1, data2);
+        verify(repository).removeLocation(location.id());
+        verify(repository).removeLocation(location2.id());
+        verify(eventPublisher).publishEvent(any(ErrorEvent.class));
+    }
+
+    @Test
+    void addLocations(@Mock DistanceMatrixRow matrixRow) {
+        List<Location> locations = Collections.singletonList(location);
+        when(distanceMatrix.addLocations(locations)).thenReturn(Collections.singletonMap(location, matrixRow));
+        runBulkEdits();
+
+        locationService.addLocations(locations);
+
+        verifyNoInteractions(repository);
+        verify(optimizer).bulkEdit(any());
+        verify(optimizer).addLocation(location, matrixRow);
+    }
+
     @Test
     void removing_depot_should_be_successful_when_it_is_the_last_location() {
         when(repository.locations()).thenReturn(Collections.singletonList(location));
@@ -145,6 +236,21 @@ class LocationServiceTest {
         verifyNoInteractions(eventPublisher);
     }
 
+    @Test
+    void removed_location_should_be_released_when_optimizer_has_applied_the_change() {
+        Location depot = new Location(1, coordinates);
+        Location visit = new Location(2, coordinates);
+        when(repository.locations()).thenReturn(Arrays.asList(depot, visit));
+        when(repository.find(visit.id())).thenReturn(Optional.of(visit));
+
+        locationService.removeLocation(visit.id());
+
+        verify(optimizer).runWhenChangesApplied(callbackCaptor.capture());
+        verify(distanceMatrix, never()).releaseLocation(any());
+        callbackCaptor.getValue().run();
+        verify(distanceMatrix).releaseLocation(visit);
+    }
+
     @Test
     void clear() {
         locationService.removeAll();
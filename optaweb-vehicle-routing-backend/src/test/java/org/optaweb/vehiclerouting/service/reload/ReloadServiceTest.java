@@ -71,6 +71,6 @@ class ReloadServiceTest {
         verify(vehicleRepository).vehicles();
         verify(vehicleService, times(persistedVehicles.size())).addVehicle(vehicle);
         verify(locationRepository).locations();
-        verify(locationService, times(persistedLocations.size())).addLocation(location);
+        verify(locationService).addLocations(persistedLocations);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.route;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Coordinates;
+import org.optaweb.vehiclerouting.domain.Location;
+
+class LegPathCacheTest {
+
+    private final Location location1 = new Location(1, Coordinates.valueOf(1, 1));
+    private final Location location2 = new Location(2, Coordinates.valueOf(2, 2));
+    private final Location location3 = new Location(3, Coordinates.valueOf(3, 3));
+    private final List<Location> calculated = new ArrayList<>();
+
+    private List<Coordinates> path(Location from, Location to) {
+        calculated.add(to);
+        return singletonList(from.coordinates());
+    }
+
+    @Test
+    void capacity_must_be_positive() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LegPathCache(0));
+    }
+
+    @Test
+    void should_calculate_path_only_once() {
+        LegPathCache cache = new LegPathCache(10);
+        List<Coordinates> path = cache.get(location1, location2, () -> path(location1, location2));
+        assertThat(cache.get(location1, location2, () -> path(location1, location2))).isSameAs(path);
+        assertThat(calculated).containsExactly(location2);
+
+        // legs are directed
+        cache.get(location2, location1, () -> path(location2, location1));
+        assertThat(calculated).containsExactly(location2, location1);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_evict_least_recently_used_path_when_full() {
+        LegPathCache cache = new LegPathCache(2);
+        cache.get(location1, location2, () -> path(location1, location2));
+        cache.get(location1, location3, () -> path(location1, location3));
+        // touch 1->2 so that 1->3 becomes the eldest
+        cache.get(location1, location2, () -> path(location1, location2));
+        cache.get(location2, location3, () -> path(location2, location3));
+        assertThat(cache.size()).isEqualTo(2);
+        calculated.clear();
+
+        cache.get(location1, location2, () -> path(location1, location2));
+        cache.get(location1, location3, () -> path(location1, location3));
+        assertThat(calculated).containsExactly(location3);
+    }
+
+    @Test
+    void should_evict_paths_of_removed_locations() {
+        LegPathCache cache = new LegPathCache(10);
+        cache.get(location1, location2, () -> path(location1, location2));
+        cache.get(location2, location3, () -> path(location2, location3));
+        cache.get(location3, location1, () -> path(location3, location1));
+
+        cache.removeLocations(singletonList(location2.id()));
+
+        assertThat(cache.size()).isOne();
+        calculated.clear();
+        cache.get(location3, location1, () -> path(location3, location1));
+        assertThat(calculated).isEmpty();
+    }
+}
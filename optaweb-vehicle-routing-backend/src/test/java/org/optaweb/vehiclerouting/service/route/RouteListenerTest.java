@@ -21,6 +21,7 @@ import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -74,6 +75,7 @@ class RouteListenerTest {
         when(vehicleRepository.find(vehicleId)).thenReturn(Optional.of(vehicle));
         RouteChangedEvent event = new RouteChangedEvent(
                 this,
+                0,
                 Distance.ZERO,
                 singletonList(vehicleId),
                 null,
@@ -95,12 +97,13 @@ class RouteListenerTest {
         final Location depot = new Location(1, depotCoordinates);
         final long vehicleId = 448;
         final Vehicle vehicle = VehicleFactory.testVehicle(vehicleId);
-        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), emptyList());
+        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), emptyList(), Distance.ZERO, 0);
         when(vehicleRepository.find(vehicleId)).thenReturn(Optional.of(vehicle));
         when(locationRepository.find(depot.id())).thenReturn(Optional.of(depot));
 
         RouteChangedEvent event = new RouteChangedEvent(
                 this,
+                0,
                 Distance.ofMillis(5000),
                 singletonList(vehicleId),
                 depot.id(),
@@ -142,9 +145,10 @@ class RouteListenerTest {
         when(locationRepository.find(depot.id())).thenReturn(Optional.of(depot));
         when(locationRepository.find(visit.id())).thenReturn(Optional.of(visit));
 
-        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()));
+        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()), Distance.ZERO, 0);
         RouteChangedEvent event = new RouteChangedEvent(
                 this,
+                0,
                 distance,
                 singletonList(vehicleId),
                 depot.id(),
@@ -168,6 +172,50 @@ class RouteListenerTest {
         assertThat(routeListener.getBestRoutingPlan()).isEqualTo(routingPlan);
     }
 
+    @Test
+    void should_reuse_paths_of_unchanged_legs_and_forget_paths_of_removed_locations() {
+        final Coordinates depotCoordinates = Coordinates.valueOf(0.0, 0.1);
+        final Coordinates visitCoordinates = Coordinates.valueOf(2.0, -0.2);
+        List<Coordinates> path1 = Arrays.asList(depotCoordinates, visitCoordinates);
+        List<Coordinates> path2 = Arrays.asList(visitCoordinates, depotCoordinates);
+        when(router.getPath(depotCoordinates, visitCoordinates)).thenReturn(path1);
+        when(router.getPath(visitCoordinates, depotCoordinates)).thenReturn(path2);
+
+        final Vehicle vehicle = VehicleFactory.testVehicle(1);
+        final Location depot = new Location(1, depotCoordinates);
+        final Location visit = new Location(2, visitCoordinates);
+        when(vehicleRepository.find(vehicle.id())).thenReturn(Optional.of(vehicle));
+        when(locationRepository.find(depot.id())).thenReturn(Optional.of(depot));
+        when(locationRepository.find(visit.id())).thenReturn(Optional.of(visit));
+
+        RouteChangedEvent event = new RouteChangedEvent(
+                this,
+                0,
+                Distance.ofMillis(11),
+                singletonList(vehicle.id()),
+                depot.id(),
+                singletonList(visit.id()),
+                singletonList(new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()), Distance.ZERO, 0)));
+
+        routeListener.onApplicationEvent(event);
+        routeListener.onApplicationEvent(event);
+        verify(router, times(1)).getPath(depotCoordinates, visitCoordinates);
+        verify(router, times(1)).getPath(visitCoordinates, depotCoordinates);
+
+        // the visit is removed and added back (the same ID is never reused in practice but it proves the eviction)
+        routeListener.onApplicationEvent(new RouteChangedEvent(
+                this,
+                0,
+                Distance.ZERO,
+                singletonList(vehicle.id()),
+                depot.id(),
+                emptyList(),
+                singletonList(new ShallowRoute(vehicle.id(), depot.id(), emptyList(), Distance.ZERO, 0))));
+        routeListener.onApplicationEvent(event);
+        verify(router, times(2)).getPath(depotCoordinates, visitCoordinates);
+        verify(router, times(2)).getPath(visitCoordinates, depotCoordinates);
+    }
+
     @Test
     void should_discard_update_gracefully_if_one_of_the_locations_no_longer_exist() {
         final Vehicle vehicle = VehicleFactory.testVehicle(3);
@@ -177,9 +225,10 @@ class RouteListenerTest {
         when(locationRepository.find(depot.id())).thenReturn(Optional.of(depot));
         when(locationRepository.find(visit.id())).thenReturn(Optional.empty());
 
-        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()));
+        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()), Distance.ZERO, 0);
         RouteChangedEvent event = new RouteChangedEvent(
                 this,
+                0,
                 Distance.ofMillis(1),
                 singletonList(vehicle.id()),
                 depot.id(),
@@ -206,9 +255,10 @@ class RouteListenerTest {
         when(vehicleRepository.find(vehicle.id())).thenReturn(Optional.empty());
         when(locationRepository.find(depot.id())).thenReturn(Optional.of(depot));
 
-        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()));
+        ShallowRoute route = new ShallowRoute(vehicle.id(), depot.id(), singletonList(visit.id()), Distance.ZERO, 0);
         RouteChangedEvent event = new RouteChangedEvent(
                 this,
+                0,
                 Distance.ofMillis(1),
                 singletonList(vehicle.id()),
                 depot.id(),
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.vehiclerouting.service.route;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.optaweb.vehiclerouting.domain.Distance;
+import org.optaweb.vehiclerouting.domain.RouteSummary;
+import org.optaweb.vehiclerouting.domain.RoutingPlanSummary;
+
+@ExtendWith(MockitoExtension.class)
+class RouteSummaryListenerTest {
+
+    @Mock
+    private RoutingPlanSummaryConsumer summaryConsumer;
+    @Captor
+    private ArgumentCaptor<RoutingPlanSummary> summaryCaptor;
+    @InjectMocks
+    private RouteSummaryListener routeSummaryListener;
+
+    @Test
+    void should_summarize_routes_from_event() {
+        RouteChangedEvent event = new RouteChangedEvent(
+                this,
+                1,
+                Distance.ofMillis(1000),
+                asList(10L, 11L),
+                1L,
+                asList(2L, 3L, 4L),
+                asList(
+                        new ShallowRoute(10, 1, asList(2L, 3L), Distance.ofMillis(700), 5),
+                        new ShallowRoute(11, 1, singletonList(4L), Distance.ofMillis(300), 1)));
+
+        routeSummaryListener.onApplicationEvent(event);
+
+        verify(summaryConsumer).consumeSummary(summaryCaptor.capture());
+        RoutingPlanSummary summary = summaryCaptor.getValue();
+        assertThat(summary.distance()).isEqualTo(Distance.ofMillis(1000));
+        assertThat(summary.vehicleCount()).isEqualTo(2);
+        assertThat(summary.visitCount()).isEqualTo(3);
+        assertThat(summary.routes()).containsExactly(
+                new RouteSummary(10, 2, 5, Distance.ofMillis(700)),
+                new RouteSummary(11, 1, 1, Distance.ofMillis(300)));
+    }
+
+    @Test
+    void should_not_pass_on_unchanged_summary() {
+        RouteChangedEvent event1 = new RouteChangedEvent(
+                this, 1, Distance.ofMillis(100), singletonList(10L), 1L, emptyList(),
+                singletonList(new ShallowRoute(10, 1, emptyList(), Distance.ZERO, 0)));
+        // Same totals, different revision.
+        RouteChangedEvent event2 = new RouteChangedEvent(
+                this, 2, Distance.ofMillis(100), singletonList(10L), 1L, emptyList(),
+                singletonList(new ShallowRoute(10, 1, emptyList(), Distance.ZERO, 0)));
+
+        routeSummaryListener.onApplicationEvent(event1);
+        routeSummaryListener.onApplicationEvent(event2);
+
+        verify(summaryConsumer).consumeSummary(summaryCaptor.capture());
+        verifyNoMoreInteractions(summaryConsumer);
+    }
+
+    @Test
+    void should_not_pass_on_empty_summary_initially() {
+        RouteChangedEvent event = new RouteChangedEvent(
+                this, 1, Distance.ZERO, emptyList(), null, emptyList(), emptyList());
+
+        routeSummaryListener.onApplicationEvent(event);
+
+        verifyNoMoreInteractions(summaryConsumer);
+    }
+}
@@ -17,16 +17,24 @@
 package org.optaweb.vehiclerouting.service.route;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
+import org.optaweb.vehiclerouting.domain.Distance;
 
 class ShallowRouteTest {
 
     @Test
     void shallow_route_to_string() {
-        ShallowRoute shallowRoute = new ShallowRoute(200L, 100L, Arrays.asList(93L, 92L, 91L));
+        ShallowRoute shallowRoute = new ShallowRoute(200L, 100L, Arrays.asList(93L, 92L, 91L), Distance.ofMillis(5), 3);
         assertThat(shallowRoute.toString()).containsSubsequence("200", "100", "93", "92", "91");
     }
+
+    @Test
+    void distance_must_not_be_null() {
+        assertThatNullPointerException().isThrownBy(() -> new ShallowRoute(1, 2, Collections.emptyList(), null, 0));
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { decodePolyline, decodeRoute, decodeTrack } from './polyline';
+
+describe('Polyline decoding', () => {
+  it('decodePolyline() should decode reference polyline', () => {
+    expect(decodePolyline('_p~iF~ps|U_ulLnnqC_mqNvxq`@')).toEqual([
+      [38.5, -120.2],
+      [40.7, -120.95],
+      [43.252, -126.453],
+    ]);
+  });
+
+  it('decodePolyline() should decode empty polyline and repeated points', () => {
+    expect(decodePolyline('')).toEqual([]);
+    expect(decodePolyline('A@??')).toEqual([[0.00001, -0.00001], [0.00001, -0.00001]]);
+  });
+
+  it('decodeTrack() should join segments', () => {
+    expect(decodeTrack(['_p~iF~ps|U', '_p~iF~ps|U_ulLnnqC'])).toEqual([
+      [38.5, -120.2],
+      [38.5, -120.2],
+      [40.7, -120.95],
+    ]);
+  });
+
+  it('decodeRoute() should replace encoded track with decoded track', () => {
+    const vehicle = { id: 1, name: 'Vehicle 1', capacity: 5 };
+    const visits = [{ id: 2, lat: 38.5, lng: -120.2 }];
+    expect(decodeRoute({ vehicle, visits, encodedTrack: ['_p~iF~ps|U'] })).toEqual({
+      vehicle,
+      visits,
+      track: [[38.5, -120.2]],
+    });
+  });
+});
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { LatLngTuple, Route, RouteWithTrack } from './types';
+
+/**
+ * Route whose track segments are encoded polylines. This is the compact format of the route topic.
+ */
+export interface RouteWithEncodedTrack extends Route {
+  readonly encodedTrack: string[];
+}
+
+const PRECISION = 1e5;
+
+/**
+ * Decode a polyline encoded with the encoded polyline algorithm
+ * (https://developers.google.com/maps/documentation/utilities/polylinealgorithm).
+ */
+export const decodePolyline = (encoded: string): LatLngTuple[] => {
+  const points: LatLngTuple[] = [];
+  let index = 0;
+  let lat = 0;
+  let lng = 0;
+  const nextValue = () => {
+    let result = 0;
+    let shift = 0;
+    let chunk = 0;
+    do {
+      chunk = encoded.charCodeAt(index) - 63;
+      index += 1;
+      // eslint-disable-next-line no-bitwise
+      result |= (chunk & 0x1f) << shift;
+      shift += 5;
+    } while (chunk >= 0x20);
+    // eslint-disable-next-line no-bitwise
+    return (result & 1) ? ~(result >> 1) : (result >> 1);
+  };
+  while (index < encoded.length) {
+    lat += nextValue();
+    lng += nextValue();
+    points.push([lat / PRECISION, lng / PRECISION]);
+  }
+  return points;
+};
+
+/**
+ * Decode track segments into a single list of points. Consecutive segments share their end points
+ * so the result draws the same line.
+ */
+export const decodeTrack = (encodedTrack: string[]): LatLngTuple[] => {
+  const track: LatLngTuple[] = [];
+  return track.concat(...encodedTrack.map(decodePolyline));
+};
+
+export const decodeRoute = ({ encodedTrack, ...route }: RouteWithEncodedTrack): RouteWithTrack => ({
+  ...route,
+  track: decodeTrack(encodedTrack),
+});
@@ -151,18 +151,111 @@ describe('WebSocketClient', () => {
     expect(callback).toHaveBeenCalledWith(payload);
   });
 
-  it('subscribeToRoute() should subscribe with callback', () => {
+  it('subscribeToRoute() should subscribe with callback and decode tracks', () => {
     const callback = jest.fn();
-    const payload = { value: 'test' };
+    const vehicle = { id: 1, name: 'Vehicle', capacity: 10 };
+    const payload = {
+      sequence: 1,
+      distance: '0',
+      vehicles: [vehicle],
+      depot: null,
+      visits: [],
+      routes: [{ vehicle, visits: [], encodedTrack: ['_p~iF~ps|U', '_ulLnnqC'] }],
+    };
 
     client.connect(onSuccess, onError);
     client.subscribeToRoute(callback);
 
-    expect(mockClient.subscribe.mock.calls[0][0]).toBe('/topic/route');
+    expect(mockClient.subscribe.mock.calls[0][0]).toBe('/topic/route/polyline');
     expect(typeof mockClient.subscribe.mock.calls[0][1]).toBe('function');
 
     mockClient.subscribe.mock.calls[0][1]({ body: JSON.stringify(payload) });
-    expect(callback).toHaveBeenCalledWith(payload);
+    expect(callback).toHaveBeenCalledWith({
+      ...payload,
+      routes: [{ vehicle, visits: [], track: [[38.5, -120.2], [2.2, -0.75]] }],
+    });
+  });
+
+  it('subscribeToRoute() should merge deltas into the snapshot', () => {
+    const callback = jest.fn();
+    const snapshot = {
+      sequence: 3,
+      distance: '0',
+      vehicles: [],
+      depot: null,
+      visits: [],
+      routes: [],
+    };
+    const delta = {
+      baseSequence: 3,
+      sequence: 4,
+      distance: '1',
+      vehicles: [],
+      depot: null,
+      visits: null,
+      routes: [],
+      removedRoutes: [],
+    };
+
+    client.connect(onSuccess, onError);
+    client.subscribeToRoute(callback);
+    const onMessage = mockClient.subscribe.mock.calls[0][1];
+
+    // deltas received before the snapshot are ignored
+    onMessage({ body: JSON.stringify(delta) });
+    expect(callback).not.toHaveBeenCalled();
+
+    onMessage({ body: JSON.stringify(snapshot) });
+    expect(callback).toHaveBeenLastCalledWith(snapshot);
+
+    onMessage({ body: JSON.stringify(delta) });
+    expect(callback).toHaveBeenCalledTimes(2);
+    expect(callback).toHaveBeenLastCalledWith({
+      distance: '1',
+      vehicles: [],
+      depot: null,
+      visits: [],
+      routes: [],
+    });
+
+    // outdated delta is ignored
+    onMessage({ body: JSON.stringify(delta) });
+    expect(callback).toHaveBeenCalledTimes(2);
+  });
+
+  it('subscribeToRoute() should resubscribe when a delta is missed', () => {
+    const callback = jest.fn();
+    const subscription = { id: 'sub-0', unsubscribe: jest.fn() };
+    mockClient.subscribe.mockReturnValue(subscription);
+    const snapshot = {
+      sequence: 3,
+      distance: '0',
+      vehicles: [],
+      depot: null,
+      visits: [],
+      routes: [],
+    };
+    const delta = {
+      baseSequence: 4,
+      sequence: 5,
+      distance: '1',
+      vehicles: [],
+      depot: null,
+      visits: null,
+      routes: [],
+      removedRoutes: [],
+    };
+
+    client.connect(onSuccess, onError);
+    client.subscribeToRoute(callback);
+    const onMessage = mockClient.subscribe.mock.calls[0][1];
+    onMessage({ body: JSON.stringify(snapshot) });
+    onMessage({ body: JSON.stringify(delta) });
+
+    expect(callback).toHaveBeenCalledTimes(1);
+    expect(subscription.unsubscribe).toHaveBeenCalled();
+    expect(mockClient.subscribe).toHaveBeenCalledTimes(2);
+    expect(mockClient.subscribe.mock.calls[1][0]).toBe('/topic/route/polyline');
   });
 
   it('subscribeToErrorTopic() should subscribe with callback', () => {
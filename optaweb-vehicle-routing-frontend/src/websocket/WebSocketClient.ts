@@ -18,7 +18,8 @@ import SockJS from 'sockjs-client';
 import { MessagePayload } from 'store/message/types';
 import { LatLngWithDescription, RoutingPlan } from 'store/route/types';
 import { ServerInfo } from 'store/server/types';
-import { Client, Frame, over } from 'webstomp-client';
+import { Client, Frame, over, Subscription } from 'webstomp-client';
+import { applyDelta, decodeTracks, EncodedRoutingPlanUpdate, isDelta } from './routingPlanDelta';
 
 export default class WebSocketClient {
   readonly socketUrl: string;
@@ -106,12 +107,40 @@ export default class WebSocketClient {
     }
   }
 
+  /**
+   * The server replies to the subscription with a snapshot and then broadcasts deltas. Deltas are merged into
+   * the snapshot so that the callback always receives the full plan. Uses the compact format of the route topic
+   * and decodes tracks before merging.
+   */
   subscribeToRoute(subscriptionCallback: (plan: RoutingPlan) => any): void {
     if (this.stompClient) {
-      this.stompClient.subscribe('/topic/route', (message) => {
-        const plan = JSON.parse(message.body);
-        subscriptionCallback(plan);
-      });
+      const stompClient = this.stompClient;
+      let plan: RoutingPlan | null = null;
+      let sequence = 0;
+      let subscription: Subscription;
+      const subscribe = () => {
+        subscription = stompClient.subscribe('/topic/route/polyline', (message) => {
+          const encodedUpdate: EncodedRoutingPlanUpdate = JSON.parse(message.body);
+          const update = decodeTracks(encodedUpdate);
+          if (!isDelta(update)) {
+            plan = update;
+            sequence = update.sequence;
+            subscriptionCallback(plan);
+          } else if (plan === null || update.sequence <= sequence) {
+            // waiting for the snapshot or the delta is already included in the snapshot
+          } else if (update.baseSequence === sequence) {
+            plan = applyDelta(plan, update);
+            sequence = update.sequence;
+            subscriptionCallback(plan);
+          } else {
+            // a delta has been missed, subscribe again to get a fresh snapshot
+            subscription.unsubscribe();
+            plan = null;
+            subscribe();
+          }
+        });
+      };
+      subscribe();
     }
   }
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { RouteWithTrack, RoutingPlan, Vehicle } from 'store/route/types';
+import { applyDelta, isDelta, RoutingPlanDelta, RoutingPlanSnapshot } from './routingPlanDelta';
+
+const vehicle1: Vehicle = { id: 1, name: 'Vehicle 1', capacity: 10 };
+const vehicle2: Vehicle = { id: 2, name: 'Vehicle 2', capacity: 10 };
+const depot = { id: 100, lat: 1, lng: 1 };
+const visit1 = { id: 101, lat: 2, lng: 2 };
+const visit2 = { id: 102, lat: 3, lng: 3 };
+
+const route = (vehicle: Vehicle, visits = [visit1]): RouteWithTrack => ({ vehicle, visits, track: [[1, 1]] });
+
+const plan: RoutingPlan = {
+  distance: '0h 1m 0s',
+  vehicles: [vehicle1, vehicle2],
+  depot,
+  visits: [visit1],
+  routes: [route(vehicle1), route(vehicle2, [])],
+};
+
+const delta = (changes: Partial<RoutingPlanDelta>): RoutingPlanDelta => ({
+  baseSequence: 1,
+  sequence: 2,
+  distance: '0h 2m 0s',
+  vehicles: [vehicle1, vehicle2],
+  depot,
+  visits: null,
+  routes: [],
+  removedRoutes: [],
+  ...changes,
+});
+
+describe('Routing plan delta', () => {
+  it('isDelta() should distinguish deltas from snapshots', () => {
+    const snapshot: RoutingPlanSnapshot = { ...plan, sequence: 1 };
+    expect(isDelta(snapshot)).toBe(false);
+    expect(isDelta(delta({}))).toBe(true);
+  });
+
+  it('applyDelta() should keep unchanged visits and routes', () => {
+    const updated = applyDelta(plan, delta({}));
+    expect(updated.distance).toEqual('0h 2m 0s');
+    expect(updated.visits).toBe(plan.visits);
+    expect(updated.routes).toEqual(plan.routes);
+  });
+
+  it('applyDelta() should replace changed routes and visits in vehicle order', () => {
+    const changedRoute = route(vehicle2, [visit2]);
+    const updated = applyDelta(plan, delta({ visits: [visit1, visit2], routes: [changedRoute] }));
+    expect(updated.visits).toEqual([visit1, visit2]);
+    expect(updated.routes).toEqual([plan.routes[0], changedRoute]);
+  });
+
+  it('applyDelta() should add and remove routes', () => {
+    const vehicle3: Vehicle = { id: 3, name: 'Vehicle 3', capacity: 10 };
+    const addedRoute = route(vehicle3, []);
+    const updated = applyDelta(plan, delta({
+      vehicles: [vehicle1, vehicle3],
+      routes: [addedRoute],
+      removedRoutes: [vehicle2.id],
+    }));
+    expect(updated.vehicles).toEqual([vehicle1, vehicle3]);
+    expect(updated.routes).toEqual([plan.routes[0], addedRoute]);
+  });
+});
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { decodeRoute, RouteWithEncodedTrack } from 'store/route/polyline';
+import { Location, RoutingPlan, RouteWithTrack, Vehicle } from 'store/route/types';
+
+/**
+ * Full routing plan sent when subscribing to the route topic.
+ */
+export interface RoutingPlanSnapshot extends RoutingPlan {
+  readonly sequence: number;
+}
+
+/**
+ * Difference between the plan with the base sequence and the plan with the delta's sequence.
+ * Visits are null when they haven't changed. Routes contain only routes that are new or have changed.
+ */
+export interface RoutingPlanDelta {
+  readonly baseSequence: number;
+  readonly sequence: number;
+  readonly distance: string;
+  readonly vehicles: Vehicle[];
+  readonly depot: Location | null;
+  readonly visits: Location[] | null;
+  readonly routes: RouteWithTrack[];
+  readonly removedRoutes: number[];
+}
+
+export type RoutingPlanUpdate = RoutingPlanSnapshot | RoutingPlanDelta;
+
+type WithEncodedTracks<T extends { routes: RouteWithTrack[] }> = Omit<T, 'routes'> & {
+  readonly routes: RouteWithEncodedTrack[];
+};
+
+/**
+ * Snapshot or delta in the compact format, where tracks are encoded polylines.
+ */
+export type EncodedRoutingPlanUpdate = WithEncodedTracks<RoutingPlanSnapshot> | WithEncodedTracks<RoutingPlanDelta>;
+
+export const decodeTracks = (update: EncodedRoutingPlanUpdate): RoutingPlanUpdate => ({
+  ...update,
+  routes: update.routes.map(decodeRoute),
+}) as RoutingPlanUpdate;
+
+export const isDelta = (update: RoutingPlanUpdate): update is RoutingPlanDelta => 'baseSequence' in update;
+
+export const applyDelta = (plan: RoutingPlan, delta: RoutingPlanDelta): RoutingPlan => {
+  const routes = new Map<number, RouteWithTrack>();
+  plan.routes.forEach((route) => routes.set(route.vehicle.id, route));
+  delta.removedRoutes.forEach((vehicleId) => routes.delete(vehicleId));
+  delta.routes.forEach((route) => routes.set(route.vehicle.id, route));
+  return {
+    distance: delta.distance,
+    vehicles: delta.vehicles,
+    depot: delta.depot,
+    visits: delta.visits === null ? plan.visits : delta.visits,
+    // routes follow the order of vehicles
+    routes: delta.vehicles
+      .map((vehicle) => routes.get(vehicle.id))
+      .filter((route): route is RouteWithTrack => route !== undefined),
+  };
+};